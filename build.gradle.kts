@@ -84,9 +84,25 @@ tasks.withType<JavaCompile> {
 }
 
 tasks.named<Test>("test") {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+
+    systemProperty("user.timezone", "UTC")
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs the benchmarks, reporting their measurements."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
 
     systemProperty("user.timezone", "UTC")
+    testLogging.showStandardStreams = true
 }
 
 tasks.named<Jar>("jar") {
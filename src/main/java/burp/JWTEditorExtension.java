@@ -16,7 +16,13 @@ import burp.persistence.TokensModelPersistence;
 import burp.proxy.ProxyConfig;
 import burp.proxy.ProxyHttpMessageHandler;
 import burp.proxy.ProxyWsMessageHandler;
+import burp.proxy.TokenHarvester;
+import burp.scanner.JWSAttackScanCheck;
+import burp.scanner.JWSClaimInsertionPointProvider;
 import burp.scanner.JWSHeaderInsertionPointProvider;
+import burp.scanner.JWTPassiveScanCheck;
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
 import com.blackberry.jwteditor.model.keys.KeysModel;
 import com.blackberry.jwteditor.model.persistence.BurpKeysModelPersistence;
 import com.blackberry.jwteditor.model.persistence.KeysModelPersistence;
@@ -39,13 +45,14 @@ import static burp.api.montoya.ui.editor.extension.EditorMode.READ_ONLY;
 
 @SuppressWarnings("unused")
 public class JWTEditorExtension implements BurpExtension {
+    private static final int SCANNER_TOKEN_CACHE_SIZE = 1000;
 
     @Override
     public void initialize(MontoyaApi api) {
         api.extension().setName(Utils.getResourceString("tool_name"));
 
         Preferences preferences = api.persistence().preferences();
-        KeysModelPersistence keysModelPersistence = new BurpKeysModelPersistence(preferences);
+        KeysModelPersistence keysModelPersistence = new BurpKeysModelPersistence(preferences, api.logging());
         KeysModel keysModel = keysModelPersistence.loadOrCreateNew();
 
         BurpConfigPersistence burpConfigPersistence = new BurpConfigPersistence(preferences);
@@ -55,6 +62,7 @@ public class JWTEditorExtension implements BurpExtension {
         Window suiteWindow = userInterface.swingUtils().suiteFrame();
 
         RstaFactory rstaFactory = new RstaFactory(userInterface, api.logging());
+        KeyGenerationPool keyGenerationPool = new KeyGenerationPool(burpConfig.keyGenerationConfig()::effectivePoolStockSize);
 
         boolean isProVersion = api.burpSuite().version().edition() == PROFESSIONAL;
 
@@ -72,6 +80,7 @@ public class JWTEditorExtension implements BurpExtension {
                 keysModel,
                 tokensModel,
                 rstaFactory,
+                keyGenerationPool,
                 burpConfig,
                 userInterface,
                 isProVersion
@@ -87,6 +96,7 @@ public class JWTEditorExtension implements BurpExtension {
                         keysModel,
                         tokensModel,
                         tokenIdGenerator,
+                        burpConfig.decryptionConfig(),
                         rstaFactory,
                         api.collaborator().defaultPayloadGenerator(),
                         hexAreaCodeFactory,
@@ -102,6 +112,7 @@ public class JWTEditorExtension implements BurpExtension {
                         keysModel,
                         tokensModel,
                         tokenIdGenerator,
+                        burpConfig.decryptionConfig(),
                         rstaFactory,
                         api.collaborator().defaultPayloadGenerator(),
                         hexAreaCodeFactory,
@@ -117,6 +128,7 @@ public class JWTEditorExtension implements BurpExtension {
                         keysModel,
                         tokensModel,
                         tokenIdGenerator,
+                        burpConfig.decryptionConfig(),
                         rstaFactory,
                         api.collaborator().defaultPayloadGenerator(),
                         hexAreaCodeFactory,
@@ -131,25 +143,36 @@ public class JWTEditorExtension implements BurpExtension {
         ProxyConfig proxyConfig = burpConfig.proxyConfig();
         ByteUtils byteUtils = api.utilities().byteUtils();
 
-        ProxyHttpMessageHandler proxyHttpMessageHandler = new ProxyHttpMessageHandler(proxyConfig, byteUtils);
+        TokenHarvester tokenHarvester = new TokenHarvester(proxyConfig, tokensModel, tokenIdGenerator, api.logging());
+        tokenHarvester.start();
+
+        ProxyHttpMessageHandler proxyHttpMessageHandler = new ProxyHttpMessageHandler(proxyConfig, byteUtils, tokenHarvester);
         proxy.registerRequestHandler(proxyHttpMessageHandler);
         proxy.registerResponseHandler(proxyHttpMessageHandler);
 
-        ProxyWsMessageHandler proxyWsMessageHandler = new ProxyWsMessageHandler(proxyConfig, byteUtils);
         proxy.registerWebSocketCreationHandler(proxyWebSocketCreation ->
-                proxyWebSocketCreation.proxyWebSocket().registerProxyMessageHandler(proxyWsMessageHandler)
+                proxyWebSocketCreation.proxyWebSocket().registerProxyMessageHandler(
+                        new ProxyWsMessageHandler(proxyConfig, byteUtils, tokenHarvester, proxyWebSocketCreation.upgradeRequest())
+                )
         );
 
         Intruder intruder = api.intruder();
         intruder.registerPayloadProcessor(new JWSPayloadProcessor(burpConfig.intruderConfig(), api.logging(), keysModel));
 
         if (api.burpSuite().version().edition() != COMMUNITY_EDITION) {
-            api.scanner().registerInsertionPointProvider(new JWSHeaderInsertionPointProvider(burpConfig.scannerConfig()));
+            JOSEObjectCache joseObjectCache = new JOSEObjectCache(SCANNER_TOKEN_CACHE_SIZE);
+            api.scanner().registerInsertionPointProvider(new JWSHeaderInsertionPointProvider(burpConfig.scannerConfig(), joseObjectCache));
+            api.scanner().registerInsertionPointProvider(new JWSClaimInsertionPointProvider(burpConfig.scannerConfig(), joseObjectCache));
+            api.scanner().registerScanCheck(new JWSAttackScanCheck(api.http(), api.logging(), joseObjectCache));
+            api.scanner().registerScanCheck(new JWTPassiveScanCheck(joseObjectCache));
         }
 
         api.extension().registerUnloadingHandler(() -> {
+            tokenHarvester.close();
+            keysModelPersistence.close();
+            keyGenerationPool.close();
             burpConfigPersistence.save(burpConfig);
-            tokensModelPersistence.save(tokensModel);
+            tokensModelPersistence.close();
             tokensIdGeneratorPersistence.save(tokenIdGenerator);
         });
     }
@@ -26,6 +26,8 @@ public class BurpConfig {
     private final ProxyConfig proxyConfig = new ProxyConfig();
     private final IntruderConfig intruderConfig = new IntruderConfig();
     private final ScannerConfig scannerConfig = new ScannerConfig();
+    private final DecryptionConfig decryptionConfig = new DecryptionConfig();
+    private final KeyGenerationConfig keyGenerationConfig = new KeyGenerationConfig();
 
     public ProxyConfig proxyConfig() {
         return proxyConfig;
@@ -38,4 +40,12 @@ public class BurpConfig {
     public ScannerConfig scannerConfig() {
         return scannerConfig;
     }
+
+    public DecryptionConfig decryptionConfig() {
+        return decryptionConfig;
+    }
+
+    public KeyGenerationConfig keyGenerationConfig() {
+        return keyGenerationConfig;
+    }
 }
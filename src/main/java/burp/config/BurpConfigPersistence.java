@@ -33,6 +33,8 @@ public class BurpConfigPersistence {
 
     private static final String PROXY_LISTENER_ENABLED_KEY = "proxy_listener_enabled";
     private static final String PROXY_HISTORY_HIGHLIGHT_COLOR_KEY = "proxy_history_highlight_color";
+    private static final String PROXY_HARVEST_TOKENS_KEY = "proxy_harvest_tokens";
+    private static final String PROXY_HARVEST_MAX_TOKENS_KEY = "proxy_harvest_max_tokens";
     private static final String INTRUDER_FUZZ_PARAMETER_TYPE = "intruder_payload_processor_fuzz_location";
     private static final String INTRUDER_FUZZ_PARAMETER_NAME = "intruder_payload_processor_parameter_name";
     private static final String INTRUDER_FUZZ_RESIGNING = "intruder_payload_processor_resign";
@@ -40,6 +42,11 @@ public class BurpConfigPersistence {
     private static final String INTRUDER_FUZZ_SIGNING_ALGORITHM = "intruder_payload_processor_signing_algorithm";
     private static final String SCANNER_INSERTION_POINT_PROVIDER_ENABLED_KEY = "scanner_insertion_point_provider_enabled";
     private static final String SCANNER_INSERTION_PARAMETER_NAME = "scanner_insertion_point_provider_parameter_name";
+    private static final String SCANNER_CLAIM_INSERTION_POINTS_ENABLED_KEY = "scanner_claim_insertion_points_enabled";
+    private static final String SCANNER_CLAIM_INCLUDE_LIST = "scanner_claim_insertion_points_include_list";
+    private static final String DECRYPTION_PBES2_ITERATION_LIMIT = "decryption_pbes2_iteration_limit";
+    private static final String KEY_GENERATION_POOL_ENABLED_KEY = "key_generation_pool_enabled";
+    private static final String KEY_GENERATION_POOL_STOCK_SIZE_KEY = "key_generation_pool_stock_size";
 
     private final Preferences preferences;
 
@@ -67,6 +74,14 @@ public class BurpConfigPersistence {
                 proxyConfig.setHighlightColor(HighlightColor.from(highlightColorName));
             }
 
+            if (parsedObject.has(PROXY_HARVEST_TOKENS_KEY) && parsedObject.get(PROXY_HARVEST_TOKENS_KEY) instanceof Boolean harvestTokens) {
+                burpConfig.proxyConfig().setHarvestTokens(harvestTokens);
+            }
+
+            if (parsedObject.has(PROXY_HARVEST_MAX_TOKENS_KEY) && parsedObject.get(PROXY_HARVEST_MAX_TOKENS_KEY) instanceof Integer harvestMaxTokens) {
+                burpConfig.proxyConfig().setHarvestMaxTokens(harvestMaxTokens);
+            }
+
             if (parsedObject.has(INTRUDER_FUZZ_PARAMETER_TYPE) && parsedObject.has(INTRUDER_FUZZ_PARAMETER_NAME)) {
                 IntruderConfig intruderConfig = burpConfig.intruderConfig();
 
@@ -98,6 +113,25 @@ public class BurpConfigPersistence {
                 scannerConfig.setInsertionPointLocationParameterName(insertionPointParameterName);
             }
 
+            if (parsedObject.has(SCANNER_CLAIM_INSERTION_POINTS_ENABLED_KEY) && parsedObject.has(SCANNER_CLAIM_INCLUDE_LIST)) {
+                ScannerConfig scannerConfig = burpConfig.scannerConfig();
+
+                scannerConfig.setEnableClaimInsertionPoints((Boolean) parsedObject.get(SCANNER_CLAIM_INSERTION_POINTS_ENABLED_KEY));
+                scannerConfig.setClaimIncludeList((String) parsedObject.get(SCANNER_CLAIM_INCLUDE_LIST));
+            }
+
+            if (parsedObject.has(DECRYPTION_PBES2_ITERATION_LIMIT) && parsedObject.get(DECRYPTION_PBES2_ITERATION_LIMIT) instanceof Integer iterationLimit) {
+                burpConfig.decryptionConfig().setPbes2IterationLimit(iterationLimit);
+            }
+
+            if (parsedObject.has(KEY_GENERATION_POOL_ENABLED_KEY) && parsedObject.get(KEY_GENERATION_POOL_ENABLED_KEY) instanceof Boolean enablePool) {
+                burpConfig.keyGenerationConfig().setEnablePool(enablePool);
+            }
+
+            if (parsedObject.has(KEY_GENERATION_POOL_STOCK_SIZE_KEY) && parsedObject.get(KEY_GENERATION_POOL_STOCK_SIZE_KEY) instanceof Integer stockSize) {
+                burpConfig.keyGenerationConfig().setPoolStockSize(stockSize);
+            }
+
             return burpConfig;
         } catch (ClassCastException | JSONException ignored) {
             return new BurpConfig();
@@ -110,6 +144,8 @@ public class BurpConfigPersistence {
 
         burpConfigJson.put(PROXY_LISTENER_ENABLED_KEY, model.proxyConfig().highlightJWT());
         burpConfigJson.put(PROXY_HISTORY_HIGHLIGHT_COLOR_KEY, model.proxyConfig().highlightColor().burpColor);
+        burpConfigJson.put(PROXY_HARVEST_TOKENS_KEY, model.proxyConfig().harvestTokens());
+        burpConfigJson.put(PROXY_HARVEST_MAX_TOKENS_KEY, model.proxyConfig().harvestMaxTokens());
         burpConfigJson.put(INTRUDER_FUZZ_PARAMETER_NAME, model.intruderConfig().fuzzParameter());
         burpConfigJson.put(INTRUDER_FUZZ_PARAMETER_TYPE, model.intruderConfig().fuzzLocation());
         burpConfigJson.put(INTRUDER_FUZZ_RESIGNING, model.intruderConfig().resign());
@@ -121,6 +157,11 @@ public class BurpConfigPersistence {
 
         burpConfigJson.put(SCANNER_INSERTION_POINT_PROVIDER_ENABLED_KEY, model.scannerConfig().enableHeaderJWSInsertionPointLocation());
         burpConfigJson.put(SCANNER_INSERTION_PARAMETER_NAME, model.scannerConfig().insertionPointLocationParameterName());
+        burpConfigJson.put(SCANNER_CLAIM_INSERTION_POINTS_ENABLED_KEY, model.scannerConfig().enableClaimInsertionPoints());
+        burpConfigJson.put(SCANNER_CLAIM_INCLUDE_LIST, model.scannerConfig().claimIncludeList());
+        burpConfigJson.put(DECRYPTION_PBES2_ITERATION_LIMIT, model.decryptionConfig().pbes2IterationLimit());
+        burpConfigJson.put(KEY_GENERATION_POOL_ENABLED_KEY, model.keyGenerationConfig().enablePool());
+        burpConfigJson.put(KEY_GENERATION_POOL_STOCK_SIZE_KEY, model.keyGenerationConfig().poolStockSize());
 
         preferences.setString(BURP_SETTINGS_NAME, burpConfigJson.toString());
     }
@@ -0,0 +1,43 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.config;
+
+
+public class DecryptionConfig {
+    static final int DEFAULT_PBES2_ITERATION_LIMIT = 1_000_000;
+
+    private volatile int pbes2IterationLimit;
+
+    public DecryptionConfig() {
+        this.pbes2IterationLimit = DEFAULT_PBES2_ITERATION_LIMIT;
+    }
+
+    /**
+     * Get the highest PBES2 iteration count (p2c) that decryption will attempt, as the count is set by the JWE's author
+     *
+     * @return maximum PBES2 iteration count
+     */
+    public int pbes2IterationLimit() {
+        return pbes2IterationLimit;
+    }
+
+    public void setPbes2IterationLimit(int pbes2IterationLimit) {
+        this.pbes2IterationLimit = pbes2IterationLimit;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package burp.config;
+
+
+public class KeyGenerationConfig {
+    static final int DEFAULT_POOL_STOCK_SIZE = 2;
+
+    private volatile boolean enablePool;
+    private volatile int poolStockSize;
+
+    public KeyGenerationConfig() {
+        this.enablePool = false;
+        this.poolStockSize = DEFAULT_POOL_STOCK_SIZE;
+    }
+
+    /**
+     * Get whether asymmetric keys are pre-generated in the background, for key types and sizes that have been requested
+     *
+     * @return true if the key generation pool is enabled
+     */
+    public boolean enablePool() {
+        return enablePool;
+    }
+
+    public void setEnablePool(boolean enablePool) {
+        this.enablePool = enablePool;
+    }
+
+    /**
+     * Get the number of pre-generated keys kept for each requested key type and size
+     *
+     * @return keys kept in stock
+     */
+    public int poolStockSize() {
+        return poolStockSize;
+    }
+
+    public void setPoolStockSize(int poolStockSize) {
+        this.poolStockSize = poolStockSize < 1 ? DEFAULT_POOL_STOCK_SIZE : poolStockSize;
+    }
+
+    /**
+     * Get the number of keys the key generation pool should keep in stock for each key type and size
+     *
+     * @return keys kept in stock, or zero if the pool is disabled
+     */
+    public int effectivePoolStockSize() {
+        return enablePool ? poolStockSize : 0;
+    }
+}
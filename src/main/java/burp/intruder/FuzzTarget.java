@@ -0,0 +1,155 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.intruder;
+
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * A precompiled fuzzing target within a JWS. Targets are either a top-level parameter name or a JSON Pointer (RFC 6901)
+ * and are resolved against the header or the payload.
+ */
+record FuzzTarget(FuzzLocation location, List<String> referenceTokens) {
+    private static final String TARGET_SEPARATOR = ",";
+    private static final char LOCATION_SEPARATOR = ':';
+    private static final char POINTER_PREFIX = '/';
+
+    /**
+     * Parse fuzz targets from configuration. Multiple targets are comma separated and may be qualified with a location,
+     * e.g. "header:/kid, payload:/roles/0". Unqualified targets use the default location.
+     *
+     * @param fuzzParameter   fuzz parameter configuration
+     * @param defaultLocation location for targets without an explicit location
+     * @return list of fuzz targets
+     */
+    static List<FuzzTarget> parse(String fuzzParameter, FuzzLocation defaultLocation) {
+        if (fuzzParameter == null) {
+            return emptyList();
+        }
+
+        List<FuzzTarget> targets = new ArrayList<>();
+
+        for (String target : fuzzParameter.split(TARGET_SEPARATOR)) {
+            String trimmedTarget = target.trim();
+            FuzzLocation location = defaultLocation;
+            int locationSeparatorIndex = trimmedTarget.indexOf(LOCATION_SEPARATOR);
+
+            if (locationSeparatorIndex > 0) {
+                FuzzLocation qualifiedLocation = FuzzLocation.from(trimmedTarget.substring(0, locationSeparatorIndex));
+
+                if (qualifiedLocation != null) {
+                    location = qualifiedLocation;
+                    trimmedTarget = trimmedTarget.substring(locationSeparatorIndex + 1).trim();
+                }
+            }
+
+            if (location == null || trimmedTarget.isEmpty()) {
+                continue;
+            }
+
+            List<String> referenceTokens = trimmedTarget.charAt(0) == POINTER_PREFIX
+                    ? parsePointer(trimmedTarget)
+                    : List.of(trimmedTarget);
+
+            targets.add(new FuzzTarget(location, referenceTokens));
+        }
+
+        return List.copyOf(targets);
+    }
+
+    /**
+     * Replace the value at this target within the JSON structure
+     *
+     * @param root  parsed JSON object
+     * @param value replacement value
+     * @return true if the target was present and its value replaced
+     */
+    boolean replaceValue(Object root, Object value) {
+        Object container = root;
+        int lastIndex = referenceTokens.size() - 1;
+
+        for (int i = 0; i < lastIndex && container != null; i++) {
+            container = child(container, referenceTokens.get(i));
+        }
+
+        String lastToken = referenceTokens.get(lastIndex);
+
+        if (container instanceof JSONObject jsonObject && jsonObject.has(lastToken)) {
+            jsonObject.put(lastToken, value);
+            return true;
+        }
+
+        if (container instanceof JSONArray jsonArray) {
+            int index = arrayIndex(jsonArray, lastToken);
+
+            if (index >= 0) {
+                jsonArray.put(index, value);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Object child(Object container, String referenceToken) {
+        if (container instanceof JSONObject jsonObject) {
+            return jsonObject.opt(referenceToken);
+        }
+
+        if (container instanceof JSONArray jsonArray) {
+            int index = arrayIndex(jsonArray, referenceToken);
+            return index >= 0 ? jsonArray.opt(index) : null;
+        }
+
+        return null;
+    }
+
+    private static int arrayIndex(JSONArray jsonArray, String referenceToken) {
+        // RFC 6901 array indices are decimal with no leading zeros
+        if (referenceToken.isEmpty() || referenceToken.length() > 9 || (referenceToken.length() > 1 && referenceToken.charAt(0) == '0')) {
+            return -1;
+        }
+
+        for (char c : referenceToken.toCharArray()) {
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+
+        int index = Integer.parseInt(referenceToken);
+
+        return index < jsonArray.length() ? index : -1;
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        List<String> referenceTokens = new ArrayList<>();
+
+        for (String referenceToken : pointer.substring(1).split("/", -1)) {
+            referenceTokens.add(referenceToken.replace("~1", "/").replace("~0", "~"));
+        }
+
+        return referenceTokens;
+    }
+}
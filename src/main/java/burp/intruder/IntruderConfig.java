@@ -20,6 +20,8 @@ package burp.intruder;
 
 import com.nimbusds.jose.JWSAlgorithm;
 
+import java.util.List;
+
 import static burp.intruder.FuzzLocation.PAYLOAD;
 
 public class IntruderConfig {
@@ -28,10 +30,12 @@ public class IntruderConfig {
     private String signingKeyId;
     private JWSAlgorithm signingAlgorithm;
     private boolean resign;
+    private volatile List<FuzzTarget> fuzzTargets;
 
     public IntruderConfig() {
         this.fuzzParameter = "name";
         this.fuzzLocation = PAYLOAD;
+        this.fuzzTargets = FuzzTarget.parse(fuzzParameter, fuzzLocation);
     }
 
     public String fuzzParameter() {
@@ -40,6 +44,7 @@ public class IntruderConfig {
 
     public void setFuzzParameter(String fuzzParameter) {
         this.fuzzParameter = fuzzParameter;
+        this.fuzzTargets = FuzzTarget.parse(fuzzParameter, fuzzLocation);
     }
 
     public FuzzLocation fuzzLocation() {
@@ -48,6 +53,11 @@ public class IntruderConfig {
 
     public void setFuzzLocation(FuzzLocation fuzzLocation) {
         this.fuzzLocation = fuzzLocation;
+        this.fuzzTargets = FuzzTarget.parse(fuzzParameter, fuzzLocation);
+    }
+
+    List<FuzzTarget> fuzzTargets() {
+        return fuzzTargets;
     }
 
     public String signingKeyId() {
@@ -0,0 +1,172 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.intruder;
+
+import com.blackberry.jwteditor.exceptions.DecryptionException;
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKey;
+import com.blackberry.jwteditor.model.jose.JOSEObject;
+import com.blackberry.jwteditor.model.jose.JWE;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.blackberry.jwteditor.model.keys.Key;
+import com.blackberry.jwteditor.utils.JSONTemplate;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.Optional;
+
+import static burp.intruder.FuzzLocation.HEADER;
+import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.parseJOSEObject;
+
+/**
+ * Fuzz targets resolved against a base JWS, or the JWS or JSON claims set within a base JWE. Resolution happens once
+ * per attack, after which each payload is substituted into JSON templates without reparsing or walking the JSON.
+ */
+class JWSFuzzTemplate {
+    private final String baseValue;
+    private final List<FuzzTarget> targets;
+    private final JWS jws;
+    private final JSONTemplate headerTemplate;
+    private final JSONTemplate claimsTemplate;
+    private final ContentEncryptionKey contentEncryptionKey;
+
+    private JWSFuzzTemplate(String baseValue, List<FuzzTarget> targets, JWS jws, JSONTemplate headerTemplate, JSONTemplate claimsTemplate, ContentEncryptionKey contentEncryptionKey) {
+        this.baseValue = baseValue;
+        this.targets = targets;
+        this.jws = jws;
+        this.headerTemplate = headerTemplate;
+        this.claimsTemplate = claimsTemplate;
+        this.contentEncryptionKey = contentEncryptionKey;
+    }
+
+    boolean isFor(String baseValue, List<FuzzTarget> targets) {
+        return this.targets == targets && this.baseValue.equals(baseValue);
+    }
+
+    boolean canFuzz() {
+        return headerTemplate != null || claimsTemplate != null;
+    }
+
+    String baseValue() {
+        return baseValue;
+    }
+
+    JWS jws() {
+        return jws;
+    }
+
+    /**
+     * @return true if the base value is a JWE whose plaintext is a JSON claims set rather than a JWS
+     */
+    boolean hasClaimsPlaintext() {
+        return jws == null && contentEncryptionKey != null;
+    }
+
+    Optional<ContentEncryptionKey> contentEncryptionKey() {
+        return Optional.ofNullable(contentEncryptionKey);
+    }
+
+    Base64URL header(String payload) {
+        return headerTemplate == null ? jws.header().encoded() : Base64URL.encode(headerTemplate.with(payload));
+    }
+
+    Base64URL claims(String payload) {
+        return claimsTemplate == null ? jws.claims().encoded() : Base64URL.encode(claimsTemplate.with(payload));
+    }
+
+    String claimsPlaintext(String payload) {
+        return claimsTemplate.with(payload);
+    }
+
+    static JWSFuzzTemplate from(String baseValue, List<FuzzTarget> targets, List<Key> decryptionKeys) {
+        Optional<JOSEObject> joseObject = parseJOSEObject(baseValue);
+
+        if (joseObject.isPresent() && joseObject.get() instanceof JWS jws) {
+            return from(baseValue, targets, jws, null);
+        }
+
+        if (joseObject.isPresent() && joseObject.get() instanceof JWE jwe) {
+            // Unwrap the CEK once so that each payload only requires content encryption
+            for (Key key : decryptionKeys) {
+                Optional<ContentEncryptionKey> contentEncryptionKey = ContentEncryptionKey.unwrap(jwe, key);
+
+                if (contentEncryptionKey.isPresent()) {
+                    try {
+                        String plaintext = contentEncryptionKey.get().decrypt(jwe);
+                        return from(baseValue, targets, plaintext, contentEncryptionKey.get());
+                    } catch (DecryptionException e) {
+                        // Decryption failed for this key
+                    }
+                }
+            }
+        }
+
+        return new JWSFuzzTemplate(baseValue, targets, null, null, null, null);
+    }
+
+    // A JWE plaintext is either a nested JWS or a JSON claims set, which only has claims to fuzz
+    private static JWSFuzzTemplate from(String baseValue, List<FuzzTarget> targets, String plaintext, ContentEncryptionKey contentEncryptionKey) {
+        try {
+            return from(baseValue, targets, JWSFactory.parse(plaintext), contentEncryptionKey);
+        } catch (ParseException e) {
+            List<FuzzTarget> claimsTargets = targets.stream().filter(target -> target.location() != HEADER).toList();
+            return new JWSFuzzTemplate(baseValue, targets, null, null, template(plaintext, claimsTargets), contentEncryptionKey);
+        }
+    }
+
+    private static JWSFuzzTemplate from(String baseValue, List<FuzzTarget> targets, JWS jws, ContentEncryptionKey contentEncryptionKey) {
+        List<FuzzTarget> headerTargets = targets.stream().filter(target -> target.location() == HEADER).toList();
+        List<FuzzTarget> claimsTargets = targets.stream().filter(target -> target.location() != HEADER).toList();
+
+        return new JWSFuzzTemplate(
+                baseValue,
+                targets,
+                jws,
+                template(jws.header().decoded(), headerTargets),
+                template(jws.claims().decoded(), claimsTargets),
+                contentEncryptionKey
+        );
+    }
+
+    // Build a template around each resolved target, returning null if no target is present
+    private static JSONTemplate template(String json, List<FuzzTarget> targets) {
+        if (targets.isEmpty()) {
+            return null;
+        }
+
+        JSONObject jsonObject;
+
+        try {
+            jsonObject = new JSONObject(json);
+        } catch (JSONException e) {
+            return null;
+        }
+
+        boolean replaced = false;
+
+        for (FuzzTarget target : targets) {
+            replaced |= target.replaceValue(jsonObject, JSONTemplate.PLACEHOLDER);
+        }
+
+        return replaced ? JSONTemplate.from(jsonObject) : null;
+    }
+}
@@ -23,58 +23,90 @@ import burp.api.montoya.intruder.PayloadData;
 import burp.api.montoya.intruder.PayloadProcessingResult;
 import burp.api.montoya.intruder.PayloadProcessor;
 import burp.api.montoya.logging.Logging;
+import com.blackberry.jwteditor.exceptions.EncryptionException;
 import com.blackberry.jwteditor.exceptions.SigningException;
-import com.blackberry.jwteditor.model.jose.*;
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKey;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.blackberry.jwteditor.model.keys.KeysRepository;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.util.Base64URL;
 import org.json.JSONObject;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static burp.intruder.FuzzLocation.PAYLOAD;
-import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.parseJOSEObject;
 import static com.nimbusds.jose.HeaderParameterNames.ALGORITHM;
 
 public class JWSPayloadProcessor implements PayloadProcessor {
     private final Logging logging;
     private final IntruderConfig intruderConfig;
     private final KeysRepository keysRepository;
+    private final AtomicReference<JWSFuzzTemplate> fuzzTemplate;
 
     public JWSPayloadProcessor(IntruderConfig intruderConfig, Logging logging, KeysRepository keysRepository) {
         this.logging = logging;
         this.intruderConfig = intruderConfig;
         this.keysRepository = keysRepository;
+        this.fuzzTemplate = new AtomicReference<>();
     }
 
     @Override
     public PayloadProcessingResult processPayload(PayloadData payloadData) {
         ByteArray baseValue = payloadData.insertionPoint().baseValue();
-        Optional<JOSEObject> joseObject = parseJOSEObject(baseValue.toString());
+        JWSFuzzTemplate template = fuzzTemplateFor(baseValue.toString());
+
+        if (template.canFuzz()) {
+            String payload = payloadData.currentPayload().toString();
+            String plaintext;
+
+            if (template.hasClaimsPlaintext()) {
+                plaintext = template.claimsPlaintext(payload);
+            } else {
+                JWS updatedJws = createJWS(
+                        template.header(payload),
+                        template.claims(payload),
+                        template.jws().signature().encoded()
+                );
 
-        if (joseObject.isPresent() && (joseObject.get() instanceof JWS jws)) {
-            boolean fuzzPayload = intruderConfig.fuzzLocation() == PAYLOAD;
-            Header header = jws.header();
-            JWSClaims jwsClaims = jws.claims();
-            String targetData = fuzzPayload ? jwsClaims.decoded() : header.decoded();
-            JSONObject targetJson = new JSONObject(targetData);
+                plaintext = updatedJws.serialize();
+            }
 
-            if (targetJson.has(intruderConfig.fuzzParameter())) {
-                targetJson.put(intruderConfig.fuzzParameter(), payloadData.currentPayload().toString());
+            baseValue = ByteArray.byteArray(serialize(template, plaintext));
+        }
 
-                Base64URL updatedHeader = fuzzPayload ? header.encoded() : Base64URL.encode(targetJson.toString());
+        return PayloadProcessingResult.usePayload(baseValue);
+    }
 
-                Base64URL updatedPayload = fuzzPayload
-                        ? Base64URL.encode(targetJson.toString())
-                        : jwsClaims.encoded();
+    // Reuse the resolved template whilst the base value and fuzz targets are unchanged, i.e. for the duration of an attack
+    private JWSFuzzTemplate fuzzTemplateFor(String baseValue) {
+        List<FuzzTarget> fuzzTargets = intruderConfig.fuzzTargets();
+        JWSFuzzTemplate template = fuzzTemplate.get();
 
-                JWS updatedJws = createJWS(updatedHeader, updatedPayload, jws.signature().encoded());
-                baseValue = ByteArray.byteArray(updatedJws.serialize());
-            }
+        if (template == null || !template.isFor(baseValue, fuzzTargets)) {
+            template = JWSFuzzTemplate.from(baseValue, fuzzTargets, keysRepository.getDecryptionKeys());
+            fuzzTemplate.set(template);
         }
 
-        return PayloadProcessingResult.usePayload(baseValue);
+        return template;
+    }
+
+    // Re-encrypt when the base value is a JWE, using the cached CEK so that only content encryption occurs per payload
+    private String serialize(JWSFuzzTemplate template, String plaintext) {
+        Optional<ContentEncryptionKey> contentEncryptionKey = template.contentEncryptionKey();
+
+        if (contentEncryptionKey.isEmpty()) {
+            return plaintext;
+        }
+
+        try {
+            return contentEncryptionKey.get().encrypt(plaintext).serialize();
+        } catch (EncryptionException ex) {
+            logging.logToError("Failed to encrypt JWE: " + ex);
+            return template.baseValue();
+        }
     }
 
     private Optional<Key> loadKey() {
@@ -21,33 +21,99 @@ package burp.persistence;
 import com.blackberry.jwteditor.model.jose.JWS;
 import com.blackberry.jwteditor.model.jose.JWSFactory;
 import com.blackberry.jwteditor.model.tokens.Token;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences.Endpoint;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.json.JSONObject.quote;
 
 class TokenPersistence {
+    private static final String ID = "id"; //NON-NLS
+    private static final String HOST = "host"; //NON-NLS
+    private static final String PATH = "path"; //NON-NLS
+    private static final String JWS = "jws"; //NON-NLS
+    private static final String COUNT = "count"; //NON-NLS
+    private static final String FIRST_SEEN = "firstSeen"; //NON-NLS
+    private static final String LAST_SEEN = "lastSeen"; //NON-NLS
+    private static final String ENDPOINTS = "endpoints"; //NON-NLS
+
     static Token deserialize(Object object) {
         if (!(object instanceof JSONObject jsonObject)) {
             return null;
         }
 
         try {
-            int id = jsonObject.getInt("id");
-            String host = jsonObject.getString("host");
-            String path = jsonObject.getString("path");
-            String jwsData = jsonObject.getString("jws");
+            int id = jsonObject.getInt(ID);
+            String host = jsonObject.getString(HOST);
+            String path = jsonObject.getString(PATH);
+            String jwsData = jsonObject.getString(JWS);
             JWS jws = JWSFactory.parse(jwsData);
 
-            return id <= 0 ? null : new Token(id, host, path, jws);
+            return id <= 0 ? null : new Token(id, host, path, jws, occurrences(jsonObject, host, path));
         } catch (ParseException | JSONException ignored) {
             return null;
         }
     }
 
+    static Token parse(String json) {
+        try {
+            return deserialize(new JSONObject(json));
+        } catch (JSONException ignored) {
+            return null;
+        }
+    }
+
     public static String serialize(Token token) {
-        return """
-                {"id":%d,"host":"%s",path:"%s","jws":"%s"}
-                """.formatted(token.id(), token.host(), token.path(), token.jws());
+        TokenOccurrences occurrences = token.occurrences();
+        StringJoiner endpoints = new StringJoiner(",", "[", "]");
+
+        for (Endpoint endpoint : occurrences.endpoints()) {
+            endpoints.add("[%s,%s]".formatted(quote(endpoint.host()), quote(endpoint.path())));
+        }
+
+        return "{\"id\":%d,\"host\":%s,\"path\":%s,\"jws\":%s,\"count\":%d,\"firstSeen\":%d,\"lastSeen\":%d,\"endpoints\":%s}".formatted(
+                token.id(),
+                quote(token.host()),
+                quote(token.path()),
+                quote(token.jws()),
+                occurrences.count(),
+                occurrences.firstSeen(),
+                occurrences.lastSeen(),
+                endpoints
+        );
+    }
+
+    // Tokens saved before occurrences were tracked have been seen once, at an unknown time
+    private static TokenOccurrences occurrences(JSONObject jsonObject, String host, String path) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        JSONArray endpointsArray = jsonObject.optJSONArray(ENDPOINTS);
+
+        if (endpointsArray != null) {
+            for (int i = 0; i < endpointsArray.length(); i++) {
+                JSONArray endpoint = endpointsArray.optJSONArray(i);
+
+                if (endpoint != null && endpoint.length() == 2) {
+                    endpoints.add(new Endpoint(endpoint.getString(0), endpoint.getString(1)));
+                }
+            }
+        }
+
+        if (endpoints.isEmpty()) {
+            endpoints.add(new Endpoint(host, path));
+        }
+
+        return new TokenOccurrences(
+                Math.max(1, jsonObject.optInt(COUNT, 1)),
+                jsonObject.optLong(FIRST_SEEN, 0),
+                jsonObject.optLong(LAST_SEEN, 0),
+                endpoints
+        );
     }
 }
@@ -21,59 +21,358 @@ package burp.persistence;
 import burp.api.montoya.persistence.PersistedObject;
 import com.blackberry.jwteditor.model.tokens.Token;
 import com.blackberry.jwteditor.model.tokens.TokensModel;
+import com.blackberry.jwteditor.model.tokens.TokensModelListener;
 import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
+import static burp.persistence.TokensIdGeneratorPersistence.TOKEN_COUNTER_KEY;
+import static java.util.Map.Entry.comparingByValue;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Tokens persistence using an append-only journal in the project file. Each token is written to its own numbered
+ * record as it is added, and that record is rewritten when the token is seen again. Deleting a token deletes its
+ * record. Once most of the journal is gaps, the remaining records are copied to the end of the journal and the old
+ * range is removed. All writes happen on a background thread.
+ * <p>
+ * Loading reads the journal one record at a time on a low priority background thread, adding tokens to the model in
+ * batches, so startup does not depend on the number of tokens stored.
+ * <p>
+ * Records are tracked per token instance rather than by token ID. Each record written also advances the saved token ID
+ * counter past the token's ID, so IDs handed out after a crash never repeat those already in the journal.
+ */
 public class TokensModelPersistence {
     static final String TOKEN_JSON_KEY = "tokenList";
+    static final String JOURNAL_START_KEY = "tokenJournalStart";
+    static final String JOURNAL_END_KEY = "tokenJournalEnd";
+    static final String JOURNAL_RECORD_PREFIX = "tokenJournal.";
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    private static final String LOADER_THREAD_NAME = "JWT Editor tokens loader";
 
     private final boolean isProVersion;
     private final PersistedObject extensionData;
+    private final ExecutorService writeExecutor;
+    private final Executor loadExecutor;
+    private final int compactionThreshold;
+
+    // Only accessed on the write thread. Keyed by identity, as Token does not override equals.
+    private final Map<Token, Integer> recordByToken = new IdentityHashMap<>();
+    private int savedIdCounter;
+    private int journalStart;
+    private int journalEnd;
+    private boolean journalPresent;
+    private boolean loaded;
+
+    private volatile boolean loadCancelled;
 
     public TokensModelPersistence(boolean isProVersion, PersistedObject extensionData) {
+        this(
+                isProVersion,
+                extensionData,
+                newSingleThreadExecutor(),
+                TokensModelPersistence::startLoaderThread,
+                COMPACTION_THRESHOLD
+        );
+    }
+
+    TokensModelPersistence(boolean isProVersion,
+                           PersistedObject extensionData,
+                           ExecutorService writeExecutor,
+                           Executor loadExecutor,
+                           int compactionThreshold) {
         this.isProVersion = isProVersion;
         this.extensionData = extensionData;
+        this.writeExecutor = writeExecutor;
+        this.loadExecutor = loadExecutor;
+        this.compactionThreshold = compactionThreshold;
     }
 
+    /**
+     * Create the tokens model, which is populated from the journal in the background
+     *
+     * @return tokens model
+     */
     public TokensModel loadOrCreateNew() {
-        String tokensJson = isProVersion ? extensionData.getString(TOKEN_JSON_KEY) : null;
+        TokensModel model = new TokensModel();
+
+        if (!isProVersion) {
+            return model;
+        }
+
+        Integer start = extensionData.getInteger(JOURNAL_START_KEY);
+        Integer end = extensionData.getInteger(JOURNAL_END_KEY);
+
+        journalPresent = start != null && end != null && start >= 0 && start <= end;
+        journalStart = journalPresent ? start : 0;
+        journalEnd = journalPresent ? end : 0;
+
+        Integer idCounter = extensionData.getInteger(TOKEN_COUNTER_KEY);
+        savedIdCounter = idCounter == null ? 0 : idCounter;
+
+        int replayStart = journalStart;
+        int replayEnd = journalEnd;
+
+        model.addTokensModelListener(new JournalWriter());
+        loadExecutor.execute(() -> load(model, replayStart, replayEnd));
 
-        if (tokensJson == null || tokensJson.isEmpty()) {
-            return new TokensModel();
+        return model;
+    }
+
+    /**
+     * Wait for pending journal writes to complete
+     */
+    public void close() {
+        if (!isProVersion) {
+            return;
         }
 
-        List<Token> tokenList = new ArrayList<>();
+        loadCancelled = true;
+        writeExecutor.shutdown();
+
+        try {
+            writeExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void load(TokensModel model, int replayStart, int replayEnd) {
+        Set<String> loadedRecords = new HashSet<>();
+        Map<Token, Integer> batchRecords = new IdentityHashMap<>();
+        List<Token> batch = new ArrayList<>();
+
+        for (int record = replayStart; record < replayEnd && !loadCancelled; record++) {
+            String json = extensionData.getString(recordName(record));
+
+            // Records copied by an interrupted compaction appear twice, and are left to be removed by compaction
+            if (json == null || !loadedRecords.add(json)) {
+                continue;
+            }
+
+            Token token = TokenPersistence.parse(json);
+
+            if (token != null) {
+                batch.add(token);
+                batchRecords.put(token, record);
+            }
+
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                publish(model, batch, batchRecords);
+                batch = new ArrayList<>();
+                batchRecords = new IdentityHashMap<>();
+            }
+        }
+
+        publish(model, batch, batchRecords);
+        migrateLegacyTokens(model);
+
+        submit(() -> {
+            loaded = true;
+            compactIfNeeded();
+        });
+    }
+
+    private void publish(TokensModel model, List<Token> tokens, Map<Token, Integer> records) {
+        if (tokens.isEmpty() || loadCancelled) {
+            return;
+        }
+
+        // Queued ahead of the insertion notification, so the journal writer knows these tokens are already stored
+        submit(() -> {
+            recordByToken.putAll(records);
+            records.keySet().forEach(TokensModelPersistence.this::saveIdCounter);
+        });
+        model.addAll(tokens);
+    }
+
+    private void migrateLegacyTokens(TokensModel model) {
+        String tokensJson = extensionData.getString(TOKEN_JSON_KEY);
+
+        if (tokensJson == null || loadCancelled) {
+            return;
+        }
+
+        List<Token> tokens = new ArrayList<>();
 
         try {
             for (Object object : new JSONArray(tokensJson)) {
                 Token token = TokenPersistence.deserialize(object);
 
-                if (token != null) {
-                    tokenList.add(token);
+                // Tokens journaled by an interrupted migration are already in the model
+                if (token != null && model.find(token.jws()) == null) {
+                    tokens.add(token);
                 }
             }
         } catch (JSONException ignored) {
         }
 
-        return new TokensModel(tokenList);
+        // Not yet journaled, so the journal writer appends them before the legacy list is removed
+        model.addAll(tokens);
+        submit(() -> extensionData.deleteString(TOKEN_JSON_KEY));
     }
 
-    public void save(TokensModel tokensModel) {
-        if (!isProVersion) {
+    private void append(Token token) {
+        // Tokens loaded from the journal already have a record
+        if (recordByToken.containsKey(token)) {
             return;
         }
 
-        JSONArray tokensArray = new JSONArray();
+        int record = journalEnd++;
 
-        tokensModel.tokens().stream()
-                .map(TokenPersistence::serialize)
-                .map(JSONObject::new)
-                .forEach(tokensArray::put);
+        // The counter covers the token's ID before its record exists, so a crash never loses the ID
+        saveIdCounter(token);
 
-        extensionData.setString(TOKEN_JSON_KEY, tokensArray.toString());
+        // Write the record before the end marker, so the journal never references a missing record
+        extensionData.setString(recordName(record), TokenPersistence.serialize(token));
+        extensionData.setInteger(JOURNAL_END_KEY, journalEnd);
+
+        if (!journalPresent) {
+            extensionData.setInteger(JOURNAL_START_KEY, journalStart);
+            journalPresent = true;
+        }
+
+        recordByToken.put(token, record);
+    }
+
+    private void saveIdCounter(Token token) {
+        if (token.id() > savedIdCounter) {
+            savedIdCounter = token.id();
+            extensionData.setInteger(TOKEN_COUNTER_KEY, savedIdCounter);
+        }
+    }
+
+    private void update(Token token, Token repeat) {
+        // A repeat loaded from the journal has its own record, which is now merged into the token's record
+        if (repeat != token) {
+            delete(repeat);
+        }
+
+        Integer record = recordByToken.get(token);
+
+        if (record != null) {
+            extensionData.setString(recordName(record), TokenPersistence.serialize(token));
+        }
+    }
+
+    private void delete(Token token) {
+        Integer record = recordByToken.remove(token);
+
+        if (record != null) {
+            extensionData.deleteString(recordName(record));
+            compactIfNeeded();
+        }
+    }
+
+    private void clear() {
+        int previousStart = journalStart;
+
+        journalStart = journalEnd;
+        extensionData.setInteger(JOURNAL_START_KEY, journalStart);
+        extensionData.setInteger(JOURNAL_END_KEY, journalEnd);
+        journalPresent = true;
+
+        for (int record = previousStart; record < journalEnd; record++) {
+            extensionData.deleteString(recordName(record));
+        }
+
+        recordByToken.clear();
+        extensionData.deleteString(TOKEN_JSON_KEY);
+    }
+
+    private void compactIfNeeded() {
+        int live = recordByToken.size();
+        int gaps = journalEnd - journalStart - live;
+
+        // Until loading completes, records not yet loaded are absent from the record map
+        if (loaded && gaps >= compactionThreshold && gaps >= live) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        List<Map.Entry<Token, Integer>> records = new ArrayList<>(recordByToken.entrySet());
+        records.sort(comparingByValue());
+
+        int previousStart = journalStart;
+        int previousEnd = journalEnd;
+        int record = previousEnd;
+
+        recordByToken.clear();
+
+        for (Map.Entry<Token, Integer> entry : records) {
+            String json = extensionData.getString(recordName(entry.getValue()));
+
+            if (json != null) {
+                extensionData.setString(recordName(record), json);
+                recordByToken.put(entry.getKey(), record++);
+            }
+        }
+
+        // Copies are complete before the start marker moves past the originals
+        journalStart = previousEnd;
+        journalEnd = record;
+        extensionData.setInteger(JOURNAL_END_KEY, journalEnd);
+        extensionData.setInteger(JOURNAL_START_KEY, journalStart);
+
+        for (int previous = previousStart; previous < previousEnd; previous++) {
+            extensionData.deleteString(recordName(previous));
+        }
+    }
+
+    private void submit(Runnable runnable) {
+        try {
+            writeExecutor.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            // Already closed
+        }
+    }
+
+    private static void startLoaderThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, LOADER_THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static String recordName(int record) {
+        return JOURNAL_RECORD_PREFIX + record;
+    }
+
+    private class JournalWriter implements TokensModelListener {
+        @Override
+        public void notifyTokenInserted(Token token) {
+            submit(() -> append(token));
+        }
+
+        @Override
+        public void notifyTokensInserted(List<Token> tokens) {
+            List<Token> inserted = List.copyOf(tokens);
+            submit(() -> inserted.forEach(TokensModelPersistence.this::append));
+        }
+
+        @Override
+        public void notifyTokenDeleted(int index, Token token) {
+            submit(() -> delete(token));
+        }
+
+        @Override
+        public void notifyTokenRepeated(Token token, Token repeat) {
+            submit(() -> update(token, repeat));
+        }
+
+        @Override
+        public void notifyTokensCleared() {
+            // Tokens still to be loaded were cleared too
+            loadCancelled = true;
+            submit(TokensModelPersistence.this::clear);
+        }
     }
 }
@@ -24,32 +24,61 @@ import burp.api.montoya.utilities.ByteUtils;
 import com.blackberry.jwteditor.model.jose.JWS;
 import com.blackberry.jwteditor.model.jose.MutableJOSEObject;
 
+import java.util.List;
+
 import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.extractJOSEObjects;
 
+/**
+ * Finds JOSE objects within proxied messages, annotating the messages and offering any JWSs to the token harvester
+ * as configured. Each message is searched at most once.
+ */
 class AnnotationsModifier {
     private final ByteUtils byteUtils;
     private final ProxyConfig proxyConfig;
+    private final TokenHarvester tokenHarvester;
 
-    AnnotationsModifier(ProxyConfig proxyConfig, ByteUtils byteUtils) {
+    AnnotationsModifier(ProxyConfig proxyConfig, ByteUtils byteUtils, TokenHarvester tokenHarvester) {
         this.byteUtils = byteUtils;
         this.proxyConfig = proxyConfig;
+        this.tokenHarvester = tokenHarvester;
     }
 
-    void updateAnnotationsIfApplicable(Annotations annotations, ByteArray data) {
-        if (proxyConfig.highlightJWT()) {
+    void updateAnnotationsIfApplicable(Annotations annotations, ByteArray data, String host, String path) {
+        if (proxyConfig.highlightJWT() || proxyConfig.harvestTokens()) {
             String message = byteUtils.convertToString(data.getBytes());
-            updateAnnotationsIfApplicable(annotations, message);
+            updateAnnotationsIfApplicable(annotations, message, host, path);
         }
     }
 
-    void updateAnnotationsIfApplicable(Annotations annotations, String message) {
-        if (proxyConfig.highlightJWT()) {
-            updateAnnotations(annotations, message);
+    void updateAnnotationsIfApplicable(Annotations annotations, String message, String host, String path) {
+        boolean highlight = proxyConfig.highlightJWT();
+        boolean harvest = proxyConfig.harvestTokens();
+
+        if (!highlight && !harvest) {
+            return;
+        }
+
+        List<MutableJOSEObject> joseObjects = extractJOSEObjects(message);
+
+        if (highlight) {
+            updateAnnotations(annotations, joseObjects);
+        }
+
+        if (harvest) {
+            List<JWS> jwsList = joseObjects.stream()
+                    .map(MutableJOSEObject::getModified)
+                    .filter(JWS.class::isInstance)
+                    .map(JWS.class::cast)
+                    .toList();
+
+            if (!jwsList.isEmpty()) {
+                tokenHarvester.offer(host, path, jwsList);
+            }
         }
     }
 
-    private void updateAnnotations(Annotations annotations, String messageString) {
-        Counts counts = countJOSEObjects(messageString);
+    private void updateAnnotations(Annotations annotations, List<MutableJOSEObject> joseObjects) {
+        Counts counts = countJOSEObjects(joseObjects);
 
         if (!counts.isZero()) {
             annotations.setHighlightColor(proxyConfig.highlightColor().burpColor);
@@ -57,11 +86,11 @@ class AnnotationsModifier {
         }
     }
 
-    private Counts countJOSEObjects(String messageString) {
+    private Counts countJOSEObjects(List<MutableJOSEObject> joseObjects) {
         int jwsCount = 0;
         int jweCount = 0;
 
-        for (MutableJOSEObject mutableJoseObject : extractJOSEObjects(messageString)) {
+        for (MutableJOSEObject mutableJoseObject : joseObjects) {
             if (mutableJoseObject.getModified() instanceof JWS) {
                 jwsCount++;
             } else {
@@ -27,11 +27,14 @@ import static burp.proxy.HighlightColor.GREEN;
  */
 public class ProxyConfig {
     public static final HighlightColor DEFAULT_HIGHLIGHT_COLOR = GREEN;
+    public static final int DEFAULT_HARVEST_MAX_TOKENS = 10_000;
 
     private static final String BURP_PROXY_COMMENT_TEMPLATE = Utils.getResourceString("burp_proxy_comment");
 
     private volatile boolean highlightJWT;
     private volatile HighlightColor highlightColor;
+    private volatile boolean harvestTokens;
+    private volatile int harvestMaxTokens;
 
     /**
      * Construct proxy config with default options
@@ -39,6 +42,8 @@ public class ProxyConfig {
     public ProxyConfig() {
         this.highlightJWT = true;
         this.highlightColor = DEFAULT_HIGHLIGHT_COLOR;
+        this.harvestTokens = false;
+        this.harvestMaxTokens = DEFAULT_HARVEST_MAX_TOKENS;
     }
 
     /**
@@ -77,6 +82,42 @@ public class ProxyConfig {
         this.highlightColor = highlightColor == null ? DEFAULT_HIGHLIGHT_COLOR : highlightColor;
     }
 
+    /**
+     * Get whether JWTs passing through Burp's proxy are to be added to the Tokens tab
+     *
+     * @return true if JWTs are to be harvested from proxy traffic
+     */
+    public boolean harvestTokens() {
+        return harvestTokens;
+    }
+
+    /**
+     * Set whether JWTs passing through Burp's proxy are to be added to the Tokens tab
+     *
+     * @param harvestTokens flag determining whether JWTs are harvested from proxy traffic
+     */
+    public void setHarvestTokens(boolean harvestTokens) {
+        this.harvestTokens = harvestTokens;
+    }
+
+    /**
+     * Maximum number of harvested tokens kept in the Tokens tab, after which the least recently seen are evicted
+     *
+     * @return maximum number of harvested tokens
+     */
+    public int harvestMaxTokens() {
+        return harvestMaxTokens;
+    }
+
+    /**
+     * Sets the maximum number of harvested tokens kept in the Tokens tab
+     *
+     * @param harvestMaxTokens maximum number of harvested tokens
+     */
+    public void setHarvestMaxTokens(int harvestMaxTokens) {
+        this.harvestMaxTokens = harvestMaxTokens < 1 ? DEFAULT_HARVEST_MAX_TOKENS : harvestMaxTokens;
+    }
+
     /**
      * Generates comment for proxy history items to be highlighted
      *
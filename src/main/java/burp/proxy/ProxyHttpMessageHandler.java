@@ -18,19 +18,25 @@ limitations under the License.
 
 package burp.proxy;
 
+import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.proxy.http.*;
 import burp.api.montoya.utilities.ByteUtils;
 
 public class ProxyHttpMessageHandler implements ProxyRequestHandler, ProxyResponseHandler {
     private final AnnotationsModifier annotationsModifier;
 
-    public ProxyHttpMessageHandler(ProxyConfig proxyConfig, ByteUtils byteUtils) {
-        this.annotationsModifier = new AnnotationsModifier(proxyConfig, byteUtils);
+    public ProxyHttpMessageHandler(ProxyConfig proxyConfig, ByteUtils byteUtils, TokenHarvester tokenHarvester) {
+        this.annotationsModifier = new AnnotationsModifier(proxyConfig, byteUtils, tokenHarvester);
     }
 
     @Override
     public ProxyRequestReceivedAction handleRequestReceived(InterceptedRequest interceptedRequest) {
-        annotationsModifier.updateAnnotationsIfApplicable(interceptedRequest.annotations(), interceptedRequest.toByteArray());
+        annotationsModifier.updateAnnotationsIfApplicable(
+                interceptedRequest.annotations(),
+                interceptedRequest.toByteArray(),
+                interceptedRequest.httpService().host(),
+                interceptedRequest.path()
+        );
 
         return ProxyRequestReceivedAction.continueWith(interceptedRequest);
     }
@@ -42,7 +48,14 @@ public class ProxyHttpMessageHandler implements ProxyRequestHandler, ProxyRespon
 
     @Override
     public ProxyResponseReceivedAction handleResponseReceived(InterceptedResponse interceptedResponse) {
-        annotationsModifier.updateAnnotationsIfApplicable(interceptedResponse.annotations(), interceptedResponse.toByteArray());
+        HttpRequest request = interceptedResponse.initiatingRequest();
+
+        annotationsModifier.updateAnnotationsIfApplicable(
+                interceptedResponse.annotations(),
+                interceptedResponse.toByteArray(),
+                request.httpService().host(),
+                request.path()
+        );
 
         return ProxyResponseReceivedAction.continueWith(interceptedResponse);
     }
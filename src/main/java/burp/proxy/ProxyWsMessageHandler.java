@@ -18,19 +18,24 @@ limitations under the License.
 
 package burp.proxy;
 
+import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.proxy.websocket.*;
 import burp.api.montoya.utilities.ByteUtils;
 
 public class ProxyWsMessageHandler implements ProxyMessageHandler {
     private final AnnotationsModifier annotationsModifier;
+    private final String host;
+    private final String path;
 
-    public ProxyWsMessageHandler(ProxyConfig proxyConfig, ByteUtils byteUtils) {
-        this.annotationsModifier = new AnnotationsModifier(proxyConfig, byteUtils);
+    public ProxyWsMessageHandler(ProxyConfig proxyConfig, ByteUtils byteUtils, TokenHarvester tokenHarvester, HttpRequest upgradeRequest) {
+        this.annotationsModifier = new AnnotationsModifier(proxyConfig, byteUtils, tokenHarvester);
+        this.host = upgradeRequest.httpService().host();
+        this.path = upgradeRequest.path();
     }
 
     @Override
     public TextMessageReceivedAction handleTextMessageReceived(InterceptedTextMessage interceptedTextMessage) {
-        annotationsModifier.updateAnnotationsIfApplicable(interceptedTextMessage.annotations(), interceptedTextMessage.payload());
+        annotationsModifier.updateAnnotationsIfApplicable(interceptedTextMessage.annotations(), interceptedTextMessage.payload(), host, path);
 
         return TextMessageReceivedAction.continueWith(interceptedTextMessage);
     }
@@ -42,7 +47,7 @@ public class ProxyWsMessageHandler implements ProxyMessageHandler {
 
     @Override
     public BinaryMessageReceivedAction handleBinaryMessageReceived(InterceptedBinaryMessage interceptedBinaryMessage) {
-        annotationsModifier.updateAnnotationsIfApplicable(interceptedBinaryMessage.annotations(), interceptedBinaryMessage.payload());
+        annotationsModifier.updateAnnotationsIfApplicable(interceptedBinaryMessage.annotations(), interceptedBinaryMessage.payload(), host, path);
 
         return BinaryMessageReceivedAction.continueWith(interceptedBinaryMessage);
     }
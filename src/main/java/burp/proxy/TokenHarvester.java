@@ -0,0 +1,238 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2022 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.proxy;
+
+import burp.api.montoya.logging.Logging;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.tokens.Token;
+import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences.Endpoint;
+import com.blackberry.jwteditor.model.tokens.TokensModel;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Adds JWTs seen in proxy traffic to the tokens model. Proxy threads only offer sightings to a bounded queue, dropping
+ * them if it is full, so they never wait on the model, the UI or persistence. A single consumer thread drains the
+ * queue in batches, merging repeated sightings before adding them to the model.
+ * <p>
+ * Tokens added by the harvester are evicted, least recently seen first, once there are more than the configured
+ * maximum, down to nine tenths of it. Tokens sent to the Tokens tab by the user are never evicted.
+ */
+public class TokenHarvester {
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int BATCH_SIZE = 512;
+    private static final int EVICTION_DIVISOR = 10;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+    private static final String CONSUMER_THREAD_NAME = "JWT Editor token harvester";
+
+    private final ProxyConfig proxyConfig;
+    private final TokensModel tokensModel;
+    private final TokenIdGenerator idGenerator;
+    private final Logging logging;
+    private final LongSupplier clock;
+    private final BlockingQueue<Sighting> queue;
+    private final Thread consumerThread;
+
+    // Only accessed by the consumer, in order of last sighting. Keyed by identity, as Token does not override equals.
+    private final LinkedHashMap<Token, Boolean> harvestedTokens;
+
+    public TokenHarvester(ProxyConfig proxyConfig, TokensModel tokensModel, TokenIdGenerator idGenerator, Logging logging) {
+        this(proxyConfig, tokensModel, idGenerator, logging, System::currentTimeMillis, QUEUE_CAPACITY);
+    }
+
+    TokenHarvester(ProxyConfig proxyConfig,
+                   TokensModel tokensModel,
+                   TokenIdGenerator idGenerator,
+                   Logging logging,
+                   LongSupplier clock,
+                   int queueCapacity) {
+        this.proxyConfig = proxyConfig;
+        this.tokensModel = tokensModel;
+        this.idGenerator = idGenerator;
+        this.logging = logging;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.harvestedTokens = new LinkedHashMap<>(16, 0.75f, true);
+        this.consumerThread = new Thread(this::consume, CONSUMER_THREAD_NAME);
+        this.consumerThread.setDaemon(true);
+    }
+
+    public void start() {
+        consumerThread.start();
+    }
+
+    /**
+     * Stop harvesting, waiting for a batch being added to the model to complete so that it can still be persisted
+     */
+    public void close() {
+        consumerThread.interrupt();
+
+        try {
+            consumerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Offer tokens seen in a message without blocking
+     *
+     * @param host host the message was sent to
+     * @param path path of the request
+     * @param jwsList tokens within the message
+     */
+    void offer(String host, String path, List<JWS> jwsList) {
+        long seen = clock.getAsLong();
+
+        for (JWS jws : jwsList) {
+            if (!queue.offer(new Sighting(host, path, jws, seen))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add any queued sightings to the tokens model
+     *
+     * @return true if any sightings were queued
+     */
+    boolean harvestQueued() {
+        List<Sighting> batch = new ArrayList<>(BATCH_SIZE);
+        queue.drainTo(batch, BATCH_SIZE);
+
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        harvest(batch);
+        return true;
+    }
+
+    private void consume() {
+        List<Sighting> batch = new ArrayList<>(BATCH_SIZE);
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+
+                // A failed batch is dropped rather than ending harvesting for the rest of the session
+                try {
+                    harvest(batch);
+                } catch (RuntimeException e) {
+                    logging.logToError("Failed to harvest tokens", e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void harvest(List<Sighting> batch) {
+        Map<String, Occurrences> occurrencesBySerialization = new LinkedHashMap<>();
+
+        for (Sighting sighting : batch) {
+            occurrencesBySerialization.computeIfAbsent(sighting.jws().serialize(), serialized -> new Occurrences(sighting))
+                    .add(sighting);
+        }
+
+        List<Token> tokens = new ArrayList<>(occurrencesBySerialization.size());
+
+        for (Map.Entry<String, Occurrences> entry : occurrencesBySerialization.entrySet()) {
+            // A repeat keeps the existing token's ID, so no ID is used up
+            Token existing = tokensModel.find(entry.getKey());
+            int id = existing == null ? idGenerator.next() : existing.id();
+
+            tokens.add(entry.getValue().token(id));
+        }
+
+        tokensModel.addAll(tokens);
+
+        for (Token token : tokens) {
+            if (tokensModel.contains(token)) {
+                harvestedTokens.put(token, true);
+            } else {
+                // Refreshes the position of tokens already harvested
+                harvestedTokens.get(tokensModel.find(token.jws()));
+            }
+        }
+
+        evict();
+    }
+
+    private void evict() {
+        int maxTokens = proxyConfig.harvestMaxTokens();
+
+        if (harvestedTokens.size() <= maxTokens) {
+            return;
+        }
+
+        // Evicting a tenth below the maximum at once means the model is only rebuilt every so many batches
+        int retainedTokens = maxTokens - maxTokens / EVICTION_DIVISOR;
+        List<Token> evicted = new ArrayList<>();
+        Iterator<Token> iterator = harvestedTokens.keySet().iterator();
+
+        while (harvestedTokens.size() > retainedTokens && iterator.hasNext()) {
+            Token token = iterator.next();
+            iterator.remove();
+
+            // Tokens deleted by the user are no longer in the model
+            if (tokensModel.contains(token)) {
+                evicted.add(token);
+            }
+        }
+
+        tokensModel.deleteAll(evicted);
+    }
+
+    private record Sighting(String host, String path, JWS jws, long seen) {
+    }
+
+    private static class Occurrences {
+        private final Sighting first;
+        private final Set<Endpoint> endpoints = new LinkedHashSet<>();
+
+        private int count;
+        private long firstSeen = Long.MAX_VALUE;
+        private long lastSeen = Long.MIN_VALUE;
+
+        private Occurrences(Sighting first) {
+            this.first = first;
+        }
+
+        private void add(Sighting sighting) {
+            count++;
+            firstSeen = Math.min(firstSeen, sighting.seen());
+            lastSeen = Math.max(lastSeen, sighting.seen());
+            endpoints.add(new Endpoint(sighting.host(), sighting.path()));
+        }
+
+        private Token token(int id) {
+            TokenOccurrences occurrences = new TokenOccurrences(count, firstSeen, lastSeen, endpoints);
+            return new Token(id, first.host(), first.path(), first.jws(), occurrences);
+        }
+    }
+}
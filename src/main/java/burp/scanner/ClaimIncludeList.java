@@ -0,0 +1,78 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import burp.intruder.FuzzLocation;
+
+import java.util.Set;
+
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toUnmodifiableSet;
+
+/**
+ * Claims to expose as scanner insertion points. Entries are comma separated claim names, optionally prefixed with
+ * 'header:' or 'payload:' to restrict them to one part of the JWS. A name of '*' matches every claim.
+ */
+record ClaimIncludeList(Set<String> headerClaims, Set<String> payloadClaims) {
+    private static final String WILDCARD = "*";
+
+    static ClaimIncludeList parse(String includeList) {
+        if (includeList == null) {
+            return new ClaimIncludeList(Set.of(), Set.of());
+        }
+
+        Set<String> entries = stream(includeList.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .collect(toUnmodifiableSet());
+
+        return new ClaimIncludeList(claimsFor(entries, FuzzLocation.HEADER), claimsFor(entries, FuzzLocation.PAYLOAD));
+    }
+
+    boolean includes(FuzzLocation location, String claimName) {
+        Set<String> claims = location == FuzzLocation.HEADER ? headerClaims : payloadClaims;
+        return claims.contains(WILDCARD) || claims.contains(claimName);
+    }
+
+    boolean isEmpty() {
+        return headerClaims.isEmpty() && payloadClaims.isEmpty();
+    }
+
+    private static Set<String> claimsFor(Set<String> entries, FuzzLocation location) {
+        return entries.stream()
+                .map(entry -> claimNameFor(entry, location))
+                .filter(claimName -> claimName != null && !claimName.isEmpty())
+                .collect(toUnmodifiableSet());
+    }
+
+    private static String claimNameFor(String entry, FuzzLocation location) {
+        int separatorIndex = entry.indexOf(':');
+
+        if (separatorIndex > 0) {
+            FuzzLocation entryLocation = FuzzLocation.from(entry.substring(0, separatorIndex).trim());
+
+            if (entryLocation != null) {
+                return entryLocation == location ? entry.substring(separatorIndex + 1).trim() : null;
+            }
+        }
+
+        return entry;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import com.blackberry.jwteditor.exceptions.SigningException;
+import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.keys.JWKKey;
+import com.blackberry.jwteditor.operations.Attacks;
+import com.nimbusds.jose.JWSAlgorithm;
+
+import static com.nimbusds.jose.JWSAlgorithm.*;
+
+/**
+ * Signature bypass attacks attempted by the active scan check
+ */
+enum JWSAttack {
+    NONE_SIGNING(
+            "JWT signature bypass: 'none' algorithm accepted",
+            "The server accepted a JWT with the algorithm set to 'none' and the signature removed."
+    ) {
+        @Override
+        JWS forge(JWS jws, JWKKey embeddedKey) {
+            return Attacks.noneSigning(jws, "none");
+        }
+    },
+    EMPTY_KEY(
+            "JWT signature bypass: empty HMAC key accepted",
+            "The server accepted a JWT signed using HMAC with an empty key (CVE-2019-20933)."
+    ) {
+        @Override
+        JWS forge(JWS jws, JWKKey embeddedKey) throws UnsupportedKeyException, SigningException {
+            JWSAlgorithm algorithm = algorithmWithin(jws, JWSAlgorithm.Family.HMAC_SHA, HS256);
+            return Attacks.signWithEmptyKey(jws, algorithm);
+        }
+    },
+    PSYCHIC_SIGNATURE(
+            "JWT signature bypass: psychic ECDSA signature accepted",
+            "The server accepted a JWT with an ECDSA signature of zero values (CVE-2022-21449)."
+    ) {
+        @Override
+        JWS forge(JWS jws, JWKKey embeddedKey) {
+            JWSAlgorithm algorithm = algorithmWithin(jws, JWSAlgorithm.Family.EC, ES256);
+            return Attacks.signWithPsychicSignature(jws, algorithm);
+        }
+    },
+    EMBEDDED_JWK(
+            "JWT signature bypass: embedded JWK trusted",
+            "The server accepted a JWT signed with an attacker controlled key embedded within the 'jwk' header parameter."
+    ) {
+        @Override
+        JWS forge(JWS jws, JWKKey embeddedKey) throws SigningException, ReflectiveOperationException {
+            return Attacks.embeddedJWK(jws, embeddedKey, RS256);
+        }
+    };
+
+    private final String issueName;
+    private final String issueDetail;
+
+    JWSAttack(String issueName, String issueDetail) {
+        this.issueName = issueName;
+        this.issueDetail = issueDetail;
+    }
+
+    String issueName() {
+        return issueName;
+    }
+
+    String issueDetail() {
+        return issueDetail;
+    }
+
+    /**
+     * Forge a variant of a JWS that should be rejected by a server verifying signatures correctly
+     *
+     * @param jws         JWS to attack
+     * @param embeddedKey RSA key used by attacks requiring an attacker controlled key
+     * @return the forged JWS
+     */
+    abstract JWS forge(JWS jws, JWKKey embeddedKey) throws SigningException, UnsupportedKeyException, ReflectiveOperationException;
+
+    // Keep the algorithm of the original token where it belongs to the family under attack
+    private static JWSAlgorithm algorithmWithin(JWS jws, JWSAlgorithm.Family family, JWSAlgorithm defaultAlgorithm) {
+        String algorithmName = jws.header().algorithm();
+        JWSAlgorithm algorithm = algorithmName == null ? null : JWSAlgorithm.parse(algorithmName);
+
+        return family.contains(algorithm) ? algorithm : defaultAlgorithm;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.Http;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import burp.api.montoya.logging.Logging;
+import burp.api.montoya.scanner.AuditResult;
+import burp.api.montoya.scanner.ConsolidationAction;
+import burp.api.montoya.scanner.ScanCheck;
+import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
+import burp.api.montoya.scanner.audit.issues.AuditIssue;
+import com.blackberry.jwteditor.exceptions.SigningException;
+import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.LocatedJOSEObject;
+import com.blackberry.jwteditor.model.keys.JWKKey;
+import com.blackberry.jwteditor.model.keys.JWKKeyFactory;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static burp.api.montoya.http.message.requests.HttpRequest.httpRequest;
+import static burp.api.montoya.scanner.AuditResult.auditResult;
+import static burp.api.montoya.scanner.ConsolidationAction.KEEP_BOTH;
+import static burp.api.montoya.scanner.ConsolidationAction.KEEP_EXISTING;
+import static burp.api.montoya.scanner.audit.issues.AuditIssue.auditIssue;
+import static burp.api.montoya.scanner.audit.issues.AuditIssueConfidence.FIRM;
+import static burp.api.montoya.scanner.audit.issues.AuditIssueSeverity.HIGH;
+import static com.blackberry.jwteditor.model.jose.ClaimsType.JSON;
+import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.locateJOSEObjects;
+import static com.blackberry.jwteditor.model.jose.JWSFactory.jwsFromParts;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Collections.emptyList;
+
+/**
+ * Active scan check sending JWS signature bypass attacks and comparing responses with the baseline. A control request
+ * containing a corrupted signature is used to confirm the server verifies signatures at all.
+ * <p>
+ * Each attack is attempted once per host and token shape, where the shape is the algorithm along with the header
+ * parameter and claim names. Requests carrying the same token, or tokens issued to other users, are not attacked again.
+ */
+public class JWSAttackScanCheck implements ScanCheck {
+    private static final String REMEDIATION = "Verify JWT signatures using an allow list of algorithms and keys configured on the server, never those specified within the token.";
+    private static final int MAX_BODY_LENGTH_DIFFERENCE_PERCENTAGE = 5;
+
+    private final Http http;
+    private final Logging logging;
+    private final JOSEObjectCache joseObjectCache;
+    private final Set<AttackKey> attemptedAttacks;
+    private volatile JWKKey embeddedKey;
+
+    public JWSAttackScanCheck(Http http, Logging logging, JOSEObjectCache joseObjectCache) {
+        this.http = http;
+        this.logging = logging;
+        this.joseObjectCache = joseObjectCache;
+        this.attemptedAttacks = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public AuditResult activeAudit(HttpRequestResponse baseRequestResponse, AuditInsertionPoint auditInsertionPoint) {
+        byte[] baseRequest = baseRequestResponse.request().toByteArray().getBytes();
+        List<LocatedJOSEObject> joseObjects = locateJOSEObjects(baseRequest, joseObjectCache);
+
+        if (joseObjects.isEmpty()) {
+            return auditResult(emptyList());
+        }
+
+        HttpService httpService = baseRequestResponse.httpService();
+        String host = "%s:%d".formatted(httpService.host(), httpService.port());
+        List<AuditIssue> issues = new ArrayList<>();
+
+        for (LocatedJOSEObject locatedJOSEObject : joseObjects) {
+            if (!(locatedJOSEObject.joseObject() instanceof JWS jws)) {
+                continue;
+            }
+
+            String shape = tokenShape(jws);
+            List<JWSAttack> pendingAttacks = Arrays.stream(JWSAttack.values())
+                    .filter(attack -> attemptedAttacks.add(new AttackKey(host, shape, attack)))
+                    .toList();
+
+            if (!pendingAttacks.isEmpty()) {
+                issues.addAll(attack(baseRequestResponse, baseRequest, locatedJOSEObject, jws, pendingAttacks));
+            }
+        }
+
+        return auditResult(issues);
+    }
+
+    @Override
+    public AuditResult passiveAudit(HttpRequestResponse baseRequestResponse) {
+        return auditResult(emptyList());
+    }
+
+    @Override
+    public ConsolidationAction consolidateIssues(AuditIssue newIssue, AuditIssue existingIssue) {
+        return newIssue.name().equals(existingIssue.name()) && newIssue.baseUrl().equals(existingIssue.baseUrl())
+                ? KEEP_EXISTING
+                : KEEP_BOTH;
+    }
+
+    private List<AuditIssue> attack(HttpRequestResponse baseRequestResponse, byte[] baseRequest, LocatedJOSEObject locatedJOSEObject, JWS jws, List<JWSAttack> attacks) {
+        HttpService httpService = baseRequestResponse.httpService();
+        HttpResponse baselineResponse = baseRequestResponse.hasResponse()
+                ? baseRequestResponse.response()
+                : http.sendRequest(baseRequestResponse.request()).response();
+
+        // Bypasses can only be distinguished if the server rejects tokens with invalid signatures
+        JWS controlJWS = jwsFromParts(jws.header().encoded(), jws.claims().encoded(), corruptedSignature(jws));
+        HttpResponse controlResponse = send(httpService, baseRequest, locatedJOSEObject, controlJWS).response();
+
+        if (baselineResponse == null || controlResponse == null || responsesMatch(baselineResponse, controlResponse)) {
+            return emptyList();
+        }
+
+        List<AuditIssue> issues = new ArrayList<>();
+
+        for (JWSAttack attack : attacks) {
+            JWS forgedJWS;
+
+            try {
+                forgedJWS = attack.forge(jws, attack == JWSAttack.EMBEDDED_JWK ? embeddedKey() : null);
+            } catch (SigningException | UnsupportedKeyException | ReflectiveOperationException | IllegalArgumentException e) {
+                logging.logToError("Failed to forge JWS for attack " + attack + ": " + e);
+                continue;
+            }
+
+            HttpRequestResponse attackRequestResponse = send(httpService, baseRequest, locatedJOSEObject, forgedJWS);
+
+            if (attackRequestResponse.response() != null && responsesMatch(baselineResponse, attackRequestResponse.response())) {
+                issues.add(
+                        auditIssue(
+                                attack.issueName(),
+                                attack.issueDetail(),
+                                REMEDIATION,
+                                baseRequestResponse.request().url(),
+                                HIGH,
+                                FIRM,
+                                null,
+                                null,
+                                HIGH,
+                                List.of(baseRequestResponse, attackRequestResponse)
+                        )
+                );
+            }
+        }
+
+        return issues;
+    }
+
+    private HttpRequestResponse send(HttpService httpService, byte[] baseRequest, LocatedJOSEObject locatedJOSEObject, JWS jws) {
+        byte[] encodedJWS = jws.serialize().getBytes(US_ASCII);
+        int startOffset = locatedJOSEObject.startOffset();
+        int endOffset = locatedJOSEObject.endOffset();
+
+        byte[] request = new byte[startOffset + encodedJWS.length + baseRequest.length - endOffset];
+        System.arraycopy(baseRequest, 0, request, 0, startOffset);
+        System.arraycopy(encodedJWS, 0, request, startOffset, encodedJWS.length);
+        System.arraycopy(baseRequest, endOffset, request, startOffset + encodedJWS.length, baseRequest.length - endOffset);
+
+        return http.sendRequest(httpRequest(httpService, ByteArray.byteArray(request)));
+    }
+
+    // Only the key ID and key material are embedded, so a single key generated on first use is sufficient
+    private JWKKey embeddedKey() throws UnsupportedKeyException {
+        JWKKey key = embeddedKey;
+
+        if (key == null) {
+            synchronized (this) {
+                key = embeddedKey;
+
+                if (key == null) {
+                    try {
+                        key = JWKKeyFactory.from(new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate());
+                    } catch (JOSEException e) {
+                        throw new UnsupportedKeyException();
+                    }
+
+                    embeddedKey = key;
+                }
+            }
+        }
+
+        return key;
+    }
+
+    static String tokenShape(JWS jws) {
+        StringJoiner shape = new StringJoiner("|");
+        shape.add(String.valueOf(jws.header().algorithm()));
+        shape.add(String.join(",", jsonKeys(jws.header().decoded())));
+        shape.add(jws.claims().type() == JSON ? String.join(",", jsonKeys(jws.claims().decoded())) : "");
+
+        return shape.toString();
+    }
+
+    private static Set<String> jsonKeys(String json) {
+        try {
+            return new TreeSet<>(new JSONObject(json).keySet());
+        } catch (JSONException e) {
+            return Set.of();
+        }
+    }
+
+    private static Base64URL corruptedSignature(JWS jws) {
+        byte[] signature = jws.signature().data();
+
+        if (signature.length == 0) {
+            signature = new byte[1];
+        }
+
+        signature[signature.length - 1] ^= 0x01;
+
+        return Base64URL.encode(signature);
+    }
+
+    private static boolean responsesMatch(HttpResponse expected, HttpResponse actual) {
+        if (expected.statusCode() != actual.statusCode()) {
+            return false;
+        }
+
+        int expectedLength = expected.body().length();
+        int lengthDifference = Math.abs(expectedLength - actual.body().length());
+
+        return lengthDifference * 100 <= expectedLength * MAX_BODY_LENGTH_DIFFERENCE_PERCENTAGE;
+    }
+
+    private record AttackKey(String host, String tokenShape, JWSAttack attack) {
+    }
+}
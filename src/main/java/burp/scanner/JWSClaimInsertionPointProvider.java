@@ -0,0 +1,127 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
+import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPointProvider;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.LocatedJOSEObject;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.locateJOSEObjects;
+import static java.util.Collections.emptyList;
+
+/**
+ * Provides an insertion point for each string claim in the header and payload of a JWS, selected by the configured
+ * include list. The same token is typically seen on many audited requests, so candidates are parsed through a shared
+ * {@link JOSEObjectCache}, templates are memoised per token in a bounded LRU cache and only the request offsets vary
+ * between insertion points.
+ */
+public class JWSClaimInsertionPointProvider implements AuditInsertionPointProvider {
+    static final int MAX_CACHED_TOKENS = 1000;
+
+    private final ScannerConfig scannerConfig;
+    private final JOSEObjectCache joseObjectCache;
+    private final Map<String, TokenTemplates> templateCache;
+
+    public JWSClaimInsertionPointProvider(ScannerConfig scannerConfig) {
+        this(scannerConfig, new JOSEObjectCache(MAX_CACHED_TOKENS));
+    }
+
+    public JWSClaimInsertionPointProvider(ScannerConfig scannerConfig, JOSEObjectCache joseObjectCache) {
+        this.scannerConfig = scannerConfig;
+        this.joseObjectCache = joseObjectCache;
+        this.templateCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenTemplates> eldest) {
+                return size() > MAX_CACHED_TOKENS;
+            }
+        };
+    }
+
+    @Override
+    public List<AuditInsertionPoint> provideInsertionPoints(HttpRequestResponse httpRequestResponse) {
+        ClaimIncludeList includeList = scannerConfig.parsedClaimIncludeList();
+
+        if (!scannerConfig.enableClaimInsertionPoints() || includeList.isEmpty()) {
+            return emptyList();
+        }
+
+        List<AuditInsertionPoint> insertionPoints = new LinkedList<>();
+        HttpRequest baseRequest = httpRequestResponse.request();
+
+        // Single snapshot of the request bytes, shared by all insertion points and referenced by offset
+        byte[] baseRequestBytes = baseRequest.toByteArray().getBytes();
+
+        for (LocatedJOSEObject locatedJOSEObject : locateJOSEObjects(baseRequestBytes, joseObjectCache)) {
+            if (locatedJOSEObject.joseObject() instanceof JWS jws) {
+                for (JWSInsertionPointTemplate template : templatesFor(locatedJOSEObject.original(), jws, includeList)) {
+                    insertionPoints.add(
+                            new JWSInsertionPoint(
+                                    baseRequest.httpService(),
+                                    baseRequestBytes,
+                                    locatedJOSEObject.startOffset(),
+                                    locatedJOSEObject.endOffset(),
+                                    locatedJOSEObject.original(),
+                                    template
+                            )
+                    );
+                }
+            }
+        }
+
+        return insertionPoints;
+    }
+
+    int cachedTokenCount() {
+        synchronized (templateCache) {
+            return templateCache.size();
+        }
+    }
+
+    private List<JWSInsertionPointTemplate> templatesFor(String encodedJWS, JWS jws, ClaimIncludeList includeList) {
+        synchronized (templateCache) {
+            TokenTemplates cached = templateCache.get(encodedJWS);
+
+            // Include list is compared by identity as it is only replaced when the configuration changes
+            if (cached != null && cached.includeList() == includeList) {
+                return cached.templates();
+            }
+        }
+
+        List<JWSInsertionPointTemplate> templates = JWSInsertionPointTemplate.claims(jws, includeList);
+
+        synchronized (templateCache) {
+            templateCache.put(encodedJWS, new TokenTemplates(includeList, templates));
+        }
+
+        return templates;
+    }
+
+    private record TokenTemplates(ClaimIncludeList includeList, List<JWSInsertionPointTemplate> templates) {
+    }
+}
@@ -22,20 +22,29 @@ import burp.api.montoya.http.message.HttpRequestResponse;
 import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
 import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPointProvider;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
 import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.LocatedJOSEObject;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 
-import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.extractJOSEObjects;
+import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.locateJOSEObjects;
 import static java.util.Collections.emptyList;
 
 public class JWSHeaderInsertionPointProvider implements AuditInsertionPointProvider {
+    private static final int MAX_CACHED_TOKENS = 1000;
+
     private final ScannerConfig scannerConfig;
+    private final JOSEObjectCache joseObjectCache;
 
     public JWSHeaderInsertionPointProvider(ScannerConfig scannerConfig) {
+        this(scannerConfig, new JOSEObjectCache(MAX_CACHED_TOKENS));
+    }
+
+    public JWSHeaderInsertionPointProvider(ScannerConfig scannerConfig, JOSEObjectCache joseObjectCache) {
         this.scannerConfig = scannerConfig;
+        this.joseObjectCache = joseObjectCache;
     }
 
     @Override
@@ -47,17 +56,24 @@ public class JWSHeaderInsertionPointProvider implements AuditInsertionPointProvi
         List<AuditInsertionPoint> insertionPoints = new LinkedList<>();
         HttpRequest baseRequest = httpRequestResponse.request();
 
-        extractJOSEObjects(baseRequest.toString()).stream()
-                .map(joseObject -> (joseObject.getModified() instanceof JWS jws) ?
-                        new JWSHeaderInsertionPoint(
-                                baseRequest,
-                                jws,
-                                scannerConfig.insertionPointLocationParameterName(),
-                                joseObject.getOriginal()
-                        ) : null
-                )
-                .filter(Objects::nonNull)
-                .forEach(insertionPoints::add);
+        // Single snapshot of the request bytes, shared by all insertion points and referenced by offset
+        byte[] baseRequestBytes = baseRequest.toByteArray().getBytes();
+
+        // Repeated tokens are parsed once, through the cache shared with the scan checks
+        for (LocatedJOSEObject locatedJOSEObject : locateJOSEObjects(baseRequestBytes, joseObjectCache)) {
+            if (locatedJOSEObject.joseObject() instanceof JWS jws) {
+                insertionPoints.add(
+                        new JWSInsertionPoint(
+                                baseRequest.httpService(),
+                                baseRequestBytes,
+                                locatedJOSEObject.startOffset(),
+                                locatedJOSEObject.endOffset(),
+                                locatedJOSEObject.original(),
+                                JWSInsertionPointTemplate.header(jws, scannerConfig.insertionPointLocationParameterName())
+                        )
+                );
+            }
+        }
 
         return insertionPoints;
     }
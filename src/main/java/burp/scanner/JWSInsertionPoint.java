@@ -0,0 +1,115 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2024 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.Range;
+import burp.api.montoya.http.HttpService;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
+
+import java.util.Base64;
+import java.util.List;
+
+import static burp.api.montoya.core.Range.range;
+import static burp.api.montoya.http.message.requests.HttpRequest.httpRequest;
+import static java.util.Collections.singletonList;
+
+/**
+ * Insertion point for a JWS header parameter or claim. Instances are immutable so may be used concurrently by scanner threads.
+ */
+class JWSInsertionPoint implements AuditInsertionPoint {
+    private static final Base64.Encoder BASE64URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final HttpService httpService;
+    private final byte[] baseRequest;
+    private final int startOffset;
+    private final int endOffset;
+    private final String encodedJWS;
+    private final JWSInsertionPointTemplate template;
+
+    /**
+     * @param httpService service of the base request
+     * @param baseRequest bytes of the base request, shared between insertion points and never modified
+     * @param startOffset offset of the JWS within the base request
+     * @param endOffset   offset after the end of the JWS within the base request
+     * @param encodedJWS  the JWS as found within the base request
+     * @param template    template for the JWS with payloads inserted
+     */
+    JWSInsertionPoint(HttpService httpService,
+                      byte[] baseRequest,
+                      int startOffset,
+                      int endOffset,
+                      String encodedJWS,
+                      JWSInsertionPointTemplate template) {
+        this.httpService = httpService;
+        this.baseRequest = baseRequest;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.encodedJWS = encodedJWS;
+        this.template = template;
+    }
+
+    @Override
+    public String name() {
+        return template.name();
+    }
+
+    @Override
+    public String baseValue() {
+        return encodedJWS;
+    }
+
+    @Override
+    public HttpRequest buildHttpRequestWithPayload(ByteArray payload) {
+        byte[] encodedPrefix = template.encodedPrefix();
+        byte[] encodedSegment = BASE64URL_ENCODER.encode(template.template().bytesWith(payload.toString()));
+        byte[] encodedSuffix = template.encodedSuffix();
+
+        int postfixLength = baseRequest.length - endOffset;
+        byte[] modifiedRequest = new byte[startOffset + encodedPrefix.length + encodedSegment.length + encodedSuffix.length + postfixLength];
+        int offset = 0;
+
+        System.arraycopy(baseRequest, 0, modifiedRequest, offset, startOffset);
+        offset += startOffset;
+
+        System.arraycopy(encodedPrefix, 0, modifiedRequest, offset, encodedPrefix.length);
+        offset += encodedPrefix.length;
+
+        System.arraycopy(encodedSegment, 0, modifiedRequest, offset, encodedSegment.length);
+        offset += encodedSegment.length;
+
+        System.arraycopy(encodedSuffix, 0, modifiedRequest, offset, encodedSuffix.length);
+        offset += encodedSuffix.length;
+
+        System.arraycopy(baseRequest, endOffset, modifiedRequest, offset, postfixLength);
+
+        return httpRequest(httpService, ByteArray.byteArray(modifiedRequest));
+    }
+
+    @Override
+    public List<Range> issueHighlights(ByteArray payload) {
+        // Unpadded Base64URL encodes each 3 bytes as 4 characters, with a partial final group rounded up
+        int segmentLength = template.template().byteLengthWith(payload.toString());
+        int encodedSegmentLength = (segmentLength * 4 + 2) / 3;
+        int encodedLength = template.encodedPrefix().length + encodedSegmentLength + template.encodedSuffix().length;
+
+        return singletonList(range(startOffset, startOffset + encodedLength));
+    }
+}
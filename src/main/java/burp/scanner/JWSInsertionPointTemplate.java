@@ -0,0 +1,103 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import burp.intruder.FuzzLocation;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.utils.JSONTemplate;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static burp.intruder.FuzzLocation.HEADER;
+import static burp.intruder.FuzzLocation.PAYLOAD;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Token-specific part of a JWS insertion point. A JWS is rebuilt as the encoded prefix, the Base64URL encoding of the
+ * JSON template with the payload substituted, then the encoded suffix. Templates depend only on the token, so may be
+ * shared by insertion points for every request containing it.
+ *
+ * @param name          insertion point name
+ * @param encodedPrefix encoded JWS segments preceding the templated segment, including the trailing '.'
+ * @param template      template for the decoded segment into which payloads are inserted
+ * @param encodedSuffix encoded JWS segments following the templated segment, including the leading '.'
+ */
+record JWSInsertionPointTemplate(String name, byte[] encodedPrefix, JSONTemplate template, byte[] encodedSuffix) {
+
+    static JWSInsertionPointTemplate header(JWS jws, String headerParameterName) {
+        try {
+            return template(jws, HEADER, jws.header().json(), headerParameterName);
+        } catch (JSONException e) {
+            throw new IllegalStateException("Could not parse JWS header!", e);
+        }
+    }
+
+    /**
+     * Build a template for each string claim within the JWS header and payload selected by the include list
+     *
+     * @param jws         the JWS
+     * @param includeList claims to include
+     * @return templates, header claims first
+     */
+    static List<JWSInsertionPointTemplate> claims(JWS jws, ClaimIncludeList includeList) {
+        List<JWSInsertionPointTemplate> templates = new ArrayList<>();
+
+        addStringClaims(templates, jws, HEADER, jws.header().decoded(), includeList);
+        addStringClaims(templates, jws, PAYLOAD, jws.claims().decoded(), includeList);
+
+        return templates;
+    }
+
+    private static void addStringClaims(List<JWSInsertionPointTemplate> templates, JWS jws, FuzzLocation location, String json, ClaimIncludeList includeList) {
+        JSONObject jsonObject;
+
+        try {
+            jsonObject = new JSONObject(json);
+        } catch (JSONException e) {
+            return;
+        }
+
+        for (String claimName : jsonObject.keySet()) {
+            if (jsonObject.get(claimName) instanceof String && includeList.includes(location, claimName)) {
+                // Each template requires its own copy as the placeholder replaces the claim value
+                templates.add(template(jws, location, new JSONObject(json), claimName));
+            }
+        }
+    }
+
+    private static JWSInsertionPointTemplate template(JWS jws, FuzzLocation location, JSONObject jsonObject, String claimName) {
+        jsonObject.put(claimName, JSONTemplate.PLACEHOLDER);
+
+        String encodedPrefix = location == HEADER ? "" : jws.header().encoded() + ".";
+        String encodedSuffix = location == HEADER
+                ? ".%s.%s".formatted(jws.claims().encoded(), jws.signature().encoded())
+                : "." + jws.signature().encoded();
+
+        return new JWSInsertionPointTemplate(
+                "JWS %s '%s'".formatted(location.toString().toLowerCase(), claimName),
+                encodedPrefix.getBytes(US_ASCII),
+                JSONTemplate.from(jsonObject),
+                encodedSuffix.getBytes(US_ASCII)
+        );
+    }
+}
@@ -0,0 +1,309 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.scanner.AuditResult;
+import burp.api.montoya.scanner.ConsolidationAction;
+import burp.api.montoya.scanner.ScanCheck;
+import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
+import burp.api.montoya.scanner.audit.issues.AuditIssue;
+import burp.api.montoya.scanner.audit.issues.AuditIssueSeverity;
+import com.blackberry.jwteditor.cryptography.MacPool;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.LocatedJOSEObject;
+import com.blackberry.jwteditor.model.jose.TimeClaim;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static burp.api.montoya.core.Marker.marker;
+import static burp.api.montoya.scanner.AuditResult.auditResult;
+import static burp.api.montoya.scanner.ConsolidationAction.KEEP_BOTH;
+import static burp.api.montoya.scanner.ConsolidationAction.KEEP_EXISTING;
+import static burp.api.montoya.scanner.audit.issues.AuditIssue.auditIssue;
+import static burp.api.montoya.scanner.audit.issues.AuditIssueConfidence.FIRM;
+import static burp.api.montoya.scanner.audit.issues.AuditIssueSeverity.*;
+import static com.blackberry.jwteditor.model.jose.ClaimsType.JSON;
+import static com.blackberry.jwteditor.model.jose.JOSEObjectFinder.locateJOSEObjects;
+import static com.blackberry.jwteditor.model.jose.TimeClaimType.EXPIRATION_TIME;
+import static com.nimbusds.jose.HeaderParameterNames.*;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+
+/**
+ * Passive scan check reporting weaknesses in JWSs found within requests and responses. A single consolidated issue is
+ * raised per token.
+ * <p>
+ * Passive checks run on every proxied item, so messages are first searched for the Base64URL encoding of a JSON
+ * object opening without copying them out of Burp. Only messages which may contain a token are scanned in full, with
+ * parsed tokens taken from a cache shared with the other scan checks. Findings depending only on the token are
+ * memoised per token.
+ */
+public class JWTPassiveScanCheck implements ScanCheck {
+    static final int MAX_CACHED_TOKENS = 1000;
+    static final String ISSUE_NAME = "JWT weaknesses";
+
+    // Base64URL encoding of '{"', with which the header of every compact JSON JOSE object starts
+    private static final String JOSE_OBJECT_PREFIX = "eyJ";
+    private static final long FAR_FUTURE_EXPIRY_DAYS = 30;
+    private static final List<String> COMMON_HMAC_SECRETS = List.of("secret", "your-256-bit-secret", "changeme", "password", "key", "jwt", "jwt-secret", "secretkey", "");
+    private static final Map<String, String> HMAC_ALGORITHMS = Map.of("HS256", "HmacSHA256", "HS384", "HmacSHA384", "HS512", "HmacSHA512");
+    private static final List<String> KEY_LOCATION_HEADERS = List.of(JWK_SET_URL, X_509_CERT_URL, JWK);
+    private static final Pattern SENSITIVE_CLAIM_NAME = Pattern.compile("pass(word|wd)?|pwd|secret|client_secret|ssn|credit_?card|card_?number|cvv|api_?key|private_?key", CASE_INSENSITIVE);
+    private static final List<AuditIssueSeverity> SEVERITY_ORDER = List.of(HIGH, MEDIUM, LOW, INFORMATION);
+    private static final String REMEDIATION = "Sign tokens using a strong algorithm and a secret or key that cannot be guessed, reject unsigned and expired tokens, "
+            + "avoid trusting key locations supplied within the token and do not store sensitive data within claims.";
+
+    private final JOSEObjectCache joseObjectCache;
+    private final Map<String, List<JWTFinding>> tokenFindings;
+
+    public JWTPassiveScanCheck(JOSEObjectCache joseObjectCache) {
+        this.joseObjectCache = joseObjectCache;
+        this.tokenFindings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<JWTFinding>> eldest) {
+                return size() > MAX_CACHED_TOKENS;
+            }
+        };
+    }
+
+    @Override
+    public AuditResult activeAudit(HttpRequestResponse baseRequestResponse, AuditInsertionPoint auditInsertionPoint) {
+        return auditResult(emptyList());
+    }
+
+    @Override
+    public AuditResult passiveAudit(HttpRequestResponse baseRequestResponse) {
+        List<AuditIssue> issues = new ArrayList<>(0);
+        Set<String> reportedTokens = new HashSet<>();
+        ByteArray request = baseRequestResponse.request().toByteArray();
+
+        if (request.indexOf(JOSE_OBJECT_PREFIX, true) >= 0) {
+            boolean accepted = baseRequestResponse.hasResponse() && isSuccessful(baseRequestResponse.response().statusCode());
+
+            for (LocatedJOSEObject joseObject : locateJOSEObjects(request.getBytes(), joseObjectCache)) {
+                List<JWTFinding> findings = findingsFor(joseObject, accepted);
+
+                if (!findings.isEmpty() && reportedTokens.add(joseObject.original())) {
+                    HttpRequestResponse evidence = baseRequestResponse.withRequestMarkers(singletonList(marker(joseObject.startOffset(), joseObject.endOffset())));
+                    issues.add(issueFor(baseRequestResponse, evidence, "request", findings));
+                }
+            }
+        }
+
+        if (baseRequestResponse.hasResponse()) {
+            ByteArray response = baseRequestResponse.response().toByteArray();
+
+            if (response.indexOf(JOSE_OBJECT_PREFIX, true) >= 0) {
+                for (LocatedJOSEObject joseObject : locateJOSEObjects(response.getBytes(), joseObjectCache)) {
+                    List<JWTFinding> findings = findingsFor(joseObject, false);
+
+                    if (!findings.isEmpty() && reportedTokens.add(joseObject.original())) {
+                        HttpRequestResponse evidence = baseRequestResponse.withResponseMarkers(singletonList(marker(joseObject.startOffset(), joseObject.endOffset())));
+                        issues.add(issueFor(baseRequestResponse, evidence, "response", findings));
+                    }
+                }
+            }
+        }
+
+        return auditResult(issues);
+    }
+
+    @Override
+    public ConsolidationAction consolidateIssues(AuditIssue newIssue, AuditIssue existingIssue) {
+        boolean duplicate = newIssue.name().equals(existingIssue.name())
+                && newIssue.baseUrl().equals(existingIssue.baseUrl())
+                && newIssue.detail().equals(existingIssue.detail());
+
+        return duplicate ? KEEP_EXISTING : KEEP_BOTH;
+    }
+
+    private List<JWTFinding> findingsFor(LocatedJOSEObject joseObject, boolean accepted) {
+        if (!(joseObject.joseObject() instanceof JWS jws)) {
+            return emptyList();
+        }
+
+        List<JWTFinding> findings;
+
+        synchronized (tokenFindings) {
+            findings = tokenFindings.get(joseObject.original());
+        }
+
+        if (findings == null) {
+            findings = findingsFor(jws);
+
+            synchronized (tokenFindings) {
+                tokenFindings.put(joseObject.original(), findings);
+            }
+        }
+
+        if (accepted && isExpired(jws)) {
+            List<JWTFinding> acceptedFindings = new ArrayList<>(findings);
+            acceptedFindings.add(new JWTFinding(MEDIUM, "The token has expired but the server returned a successful response."));
+            return acceptedFindings;
+        }
+
+        return findings;
+    }
+
+    /**
+     * Determine the weaknesses of a JWS that depend only on the token itself
+     *
+     * @param jws the JWS
+     * @return findings, empty if none
+     */
+    static List<JWTFinding> findingsFor(JWS jws) {
+        List<JWTFinding> findings = new ArrayList<>();
+        String algorithm = jws.header().algorithm();
+
+        if ("none".equalsIgnoreCase(algorithm)) {
+            findings.add(new JWTFinding(HIGH, "The token is unsigned, using the algorithm '%s'.".formatted(algorithm)));
+        }
+
+        commonHmacSecret(jws, algorithm).ifPresent(secret ->
+                findings.add(new JWTFinding(HIGH, "The token is signed using the guessable HMAC secret '%s'.".formatted(secret)))
+        );
+
+        JSONObject header = jsonObject(jws.header().decoded());
+
+        for (String parameter : KEY_LOCATION_HEADERS) {
+            if (header.has(parameter)) {
+                findings.add(new JWTFinding(LOW, "The token header contains the '%s' parameter, which may allow an attacker to supply the verification key.".formatted(parameter)));
+            }
+        }
+
+        if (jws.claims().type() == JSON) {
+            Optional<TimeClaim> expiry = expiry(jws);
+
+            if (expiry.isEmpty()) {
+                findings.add(new JWTFinding(LOW, "The token does not contain an expiration time ('exp') claim."));
+            } else if (expiry.get().hasDate() && expiry.get().dateTime().isAfter(ZonedDateTime.now(UTC).plusDays(FAR_FUTURE_EXPIRY_DAYS))) {
+                findings.add(new JWTFinding(LOW, "The token expires more than %d days in the future, at %s.".formatted(FAR_FUTURE_EXPIRY_DAYS, expiry.get().date())));
+            }
+
+            List<String> sensitiveClaims = jsonObject(jws.claims().decoded()).keySet().stream()
+                    .filter(name -> SENSITIVE_CLAIM_NAME.matcher(name).matches())
+                    .sorted()
+                    .toList();
+
+            if (!sensitiveClaims.isEmpty()) {
+                findings.add(new JWTFinding(MEDIUM, "The token payload contains potentially sensitive claims: %s.".formatted(String.join(", ", sensitiveClaims))));
+            }
+        }
+
+        return List.copyOf(findings);
+    }
+
+    private static AuditIssue issueFor(HttpRequestResponse baseRequestResponse, HttpRequestResponse evidence, String location, List<JWTFinding> findings) {
+        StringBuilder detail = new StringBuilder("The JWT within the %s has the following weaknesses:<ul>".formatted(location));
+        AuditIssueSeverity severity = INFORMATION;
+
+        for (JWTFinding finding : findings) {
+            detail.append("<li>").append(finding.description()).append("</li>");
+
+            if (SEVERITY_ORDER.indexOf(finding.severity()) < SEVERITY_ORDER.indexOf(severity)) {
+                severity = finding.severity();
+            }
+        }
+
+        detail.append("</ul>");
+
+        return auditIssue(
+                ISSUE_NAME,
+                detail.toString(),
+                REMEDIATION,
+                baseRequestResponse.request().url(),
+                severity,
+                FIRM,
+                null,
+                null,
+                severity,
+                singletonList(evidence)
+        );
+    }
+
+    private static Optional<String> commonHmacSecret(JWS jws, String algorithm) {
+        String macAlgorithm = algorithm == null ? null : HMAC_ALGORITHMS.get(algorithm);
+
+        if (macAlgorithm == null) {
+            return Optional.empty();
+        }
+
+        byte[] signingInput = "%s.%s".formatted(jws.header().encoded(), jws.claims().encoded()).getBytes(US_ASCII);
+        byte[] signature = jws.signature().data();
+
+        try {
+            Mac mac = MacPool.mac(macAlgorithm);
+
+            for (String secret : COMMON_HMAC_SECRETS) {
+                // An empty secret is not a valid key specification so substitute a single zero byte, equivalent under HMAC
+                byte[] secretBytes = secret.isEmpty() ? new byte[1] : secret.getBytes(UTF_8);
+                mac.init(new SecretKeySpec(secretBytes, macAlgorithm));
+
+                if (MessageDigest.isEqual(mac.doFinal(signingInput), signature)) {
+                    return Optional.of(secret);
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            // Algorithm unavailable
+        }
+
+        return Optional.empty();
+    }
+
+    private static Optional<TimeClaim> expiry(JWS jws) {
+        return jws.claims().timeClaims().stream()
+                .filter(timeClaim -> timeClaim.type() == EXPIRATION_TIME)
+                .findFirst();
+    }
+
+    private static boolean isExpired(JWS jws) {
+        return jws.claims().type() == JSON && expiry(jws).map(expiry -> expiry.hasDate() && !expiry.isValid()).orElse(false);
+    }
+
+    private static boolean isSuccessful(short statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    private static JSONObject jsonObject(String json) {
+        try {
+            return new JSONObject(json);
+        } catch (JSONException e) {
+            return new JSONObject();
+        }
+    }
+
+    record JWTFinding(AuditIssueSeverity severity, String description) {
+    }
+}
@@ -21,10 +21,16 @@ package burp.scanner;
 public class ScannerConfig {
     private boolean enableKidInsertionPointLocation;
     private String headerParameterName;
+    private boolean enableClaimInsertionPoints;
+    private String claimIncludeList;
+    private volatile ClaimIncludeList parsedClaimIncludeList;
 
     public ScannerConfig() {
         this.enableKidInsertionPointLocation = false;
         this.headerParameterName = "kid";
+        this.enableClaimInsertionPoints = false;
+        this.claimIncludeList = "*";
+        this.parsedClaimIncludeList = ClaimIncludeList.parse(claimIncludeList);
     }
 
     public boolean enableHeaderJWSInsertionPointLocation() {
@@ -42,4 +48,25 @@ public class ScannerConfig {
     public void setInsertionPointLocationParameterName(String headerParameterName) {
         this.headerParameterName = headerParameterName;
     }
+
+    public boolean enableClaimInsertionPoints() {
+        return enableClaimInsertionPoints;
+    }
+
+    public void setEnableClaimInsertionPoints(boolean enableClaimInsertionPoints) {
+        this.enableClaimInsertionPoints = enableClaimInsertionPoints;
+    }
+
+    public String claimIncludeList() {
+        return claimIncludeList;
+    }
+
+    public void setClaimIncludeList(String claimIncludeList) {
+        this.claimIncludeList = claimIncludeList;
+        this.parsedClaimIncludeList = ClaimIncludeList.parse(claimIncludeList);
+    }
+
+    ClaimIncludeList parsedClaimIncludeList() {
+        return parsedClaimIncludeList;
+    }
 }
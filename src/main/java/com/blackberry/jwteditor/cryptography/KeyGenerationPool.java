@@ -0,0 +1,180 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.cryptography;
+
+
+import com.blackberry.jwteditor.cryptography.okp.OKPGenerator;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.Provider;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.IntSupplier;
+
+/**
+ * Pool of pre-generated asymmetric keys. A small stock of keys is kept for each key type and size that has been
+ * requested, or primed, and is topped up by a low priority background thread. The stock size is read each time a
+ * stock is topped up, so that it can be changed while the pool is in use. A stock size of zero disables the pool so
+ * that every key is generated on demand.
+ */
+public class KeyGenerationPool {
+    private static final String THREAD_NAME = "JWT Editor key generation";
+
+    private final IntSupplier stockSize;
+    private final ExecutorService executorService;
+    private final Generator generator;
+    private final Map<Spec, Queue<JWK>> stock;
+    private final Set<Spec> refilling;
+
+    public KeyGenerationPool(IntSupplier stockSize) {
+        this(stockSize, Executors.newSingleThreadExecutor(KeyGenerationPool::lowPriorityThread), KeyGenerationPool::generateKey);
+    }
+
+    KeyGenerationPool(IntSupplier stockSize, ExecutorService executorService, Generator generator) {
+        this.stockSize = stockSize;
+        this.executorService = executorService;
+        this.generator = generator;
+        this.stock = new ConcurrentHashMap<>();
+        this.refilling = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Start stocking keys of the given types and sizes before they are first requested
+     * @param specs key types and sizes to stock
+     */
+    public void prime(Spec... specs) {
+        for (Spec spec : specs) {
+            refill(spec);
+        }
+    }
+
+    /**
+     * Take a key from the pool, generating one if none is in stock
+     * @param spec key type and size
+     * @param keyId key ID to give the key
+     * @return the key
+     * @throws JOSEException if key generation fails
+     */
+    public JWK take(Spec spec, String keyId) throws JOSEException {
+        Queue<JWK> keys = stock.get(spec);
+        JWK key = keys == null ? null : keys.poll();
+
+        refill(spec);
+
+        return withKeyId(key == null ? generator.generate(spec) : key, keyId);
+    }
+
+    public void close() {
+        executorService.shutdownNow();
+    }
+
+    private void refill(Spec spec) {
+        if (stockSize.getAsInt() <= 0 || !refilling.add(spec)) {
+            return;
+        }
+
+        Queue<JWK> keys = stock.computeIfAbsent(spec, s -> new ConcurrentLinkedQueue<>());
+
+        try {
+            executorService.execute(() -> {
+                try {
+                    while (keys.size() < stockSize.getAsInt() && !Thread.currentThread().isInterrupted()) {
+                        keys.offer(generator.generate(spec));
+                    }
+                } catch (JOSEException ignored) {
+                    // Keys of this spec will be generated on demand
+                } finally {
+                    refilling.remove(spec);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refilling.remove(spec);
+        }
+    }
+
+    private static JWK withKeyId(JWK key, String keyId) {
+        return switch (key) {
+            case RSAKey rsaKey -> new RSAKey.Builder(rsaKey).keyID(keyId).build();
+            case ECKey ecKey -> new ECKey.Builder(ecKey).keyID(keyId).build();
+            case OctetKeyPair octetKeyPair -> new OctetKeyPair.Builder(octetKeyPair).keyID(keyId).build();
+            default -> throw new IllegalArgumentException("Unsupported key type " + key.getKeyType());
+        };
+    }
+
+    private static JWK generateKey(Spec spec) throws JOSEException {
+        Provider provider = Providers.bouncyCastle();
+        KeyStore keyStore;
+
+        // Force using the BC provider, but fall-back to default if this fails
+        try {
+            keyStore = provider == null ? null : KeyStore.getInstance(KeyStore.getDefaultType(), provider);
+        } catch (KeyStoreException e) {
+            keyStore = null;
+        }
+
+        JWKGenerator<? extends JWK> generator;
+
+        if (KeyType.RSA.equals(spec.keyType())) {
+            generator = new RSAKeyGenerator(spec.size(), true);
+        } else if (KeyType.EC.equals(spec.keyType())) {
+            generator = new ECKeyGenerator(spec.curve());
+        } else {
+            generator = new OKPGenerator(spec.curve());
+        }
+
+        return generator.keyStore(keyStore).generate();
+    }
+
+    private static Thread lowPriorityThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    }
+
+    interface Generator {
+        JWK generate(Spec spec) throws JOSEException;
+    }
+
+    /**
+     * Type and size of a generated key. RSA keys are sized in bits, EC and OKP keys by curve.
+     */
+    public record Spec(KeyType keyType, int size, Curve curve) {
+
+        public static Spec rsa(int size) {
+            return new Spec(KeyType.RSA, size, null);
+        }
+
+        public static Spec ec(Curve curve) {
+            return new Spec(KeyType.EC, 0, curve);
+        }
+
+        public static Spec okp(Curve curve) {
+            return new Spec(KeyType.OKP, 0, curve);
+        }
+    }
+}
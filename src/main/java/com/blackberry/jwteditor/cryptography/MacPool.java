@@ -0,0 +1,52 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.cryptography;
+
+
+import javax.crypto.Mac;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread pool of Mac instances, avoiding a provider lookup for every HMAC computed in bulk
+ */
+public class MacPool {
+    private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Get this thread's Mac for an algorithm. The caller must initialise it before use and must not share it
+     * with other threads.
+     *
+     * @param algorithm JCA name of the MAC algorithm
+     * @return Mac for the algorithm
+     * @throws NoSuchAlgorithmException if the algorithm is unavailable
+     */
+    public static Mac mac(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, Mac> macs = MACS.get();
+        Mac mac = macs.get(algorithm);
+
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm);
+            macs.put(algorithm, mac);
+        }
+
+        return mac;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.cryptography;
+
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.impl.AESKW;
+import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
+import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * PBES2 decrypter which derives the key encryption key itself rather than through the JCA, so that a derivation with
+ * a large iteration count can be cancelled by interrupting the thread and can report its progress. Derived keys are
+ * not cached here: the key ring caches the unwrapped CEK per password key, invalidating it when the key changes.
+ */
+public class PBES2Decrypter implements JWEDecrypter {
+    private static final int PROGRESS_INTERVAL = 4096;
+    private static final Set<JWEAlgorithm> SUPPORTED_ALGORITHMS = Set.of(
+            JWEAlgorithm.PBES2_HS256_A128KW,
+            JWEAlgorithm.PBES2_HS384_A192KW,
+            JWEAlgorithm.PBES2_HS512_A256KW
+    );
+
+    private final String password;
+    private final JWEJCAContext jcaContext = new JWEJCAContext();
+    private volatile ProgressListener progressListener = (completed, total) -> {};
+
+    public PBES2Decrypter(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Set the listener notified as the key derivation progresses
+     * @param progressListener listener to notify, from the decrypting thread
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    @Override
+    public byte[] decrypt(JWEHeader header,
+                          Base64URL encryptedKey,
+                          Base64URL iv,
+                          Base64URL cipherText,
+                          Base64URL authTag) throws JOSEException {
+        SecretKey cek = unwrapCEK(header, encryptedKey);
+
+        return ContentCryptoProvider.decrypt(header, encryptedKey, iv, cipherText, authTag, cek, jcaContext);
+    }
+
+    /**
+     * Derive the key encryption key and unwrap the content encryption key, without decrypting any content
+     *
+     * @param header       parsed JWE header
+     * @param encryptedKey JWE encrypted key
+     * @return the unwrapped CEK
+     * @throws JOSEException if the header is invalid, the derivation is cancelled or unwrapping fails
+     */
+    public SecretKey unwrapCEK(JWEHeader header, Base64URL encryptedKey) throws JOSEException {
+        JWEAlgorithm algorithm = header.getAlgorithm();
+
+        if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            throw new JOSEException("Unsupported PBES2 algorithm: " + algorithm);
+        }
+
+        if (encryptedKey == null) {
+            throw new JOSEException("Missing JWE encrypted key");
+        }
+
+        if (header.getPBES2Salt() == null) {
+            throw new JOSEException("Missing JWE p2s header parameter");
+        }
+
+        if (header.getPBES2Count() < 1) {
+            throw new JOSEException("Missing or invalid JWE p2c header parameter");
+        }
+
+        SecretKey kek = deriveKEK(algorithm, header.getPBES2Salt().decode(), header.getPBES2Count());
+
+        return AESKW.unwrapCEK(kek, encryptedKey.decode(), jcaContext.getKeyEncryptionProvider());
+    }
+
+    /**
+     * PBKDF2 (RFC 8018) with the salt formatted as per RFC 7518 section 4.8.1.1. The key encryption key is never
+     * longer than the HMAC output, so a single block is derived.
+     */
+    private SecretKey deriveKEK(JWEAlgorithm algorithm, byte[] salt, int iterations) throws JOSEException {
+        PRF prf = PRF.of(algorithm);
+        byte[] algorithmName = algorithm.getName().getBytes(StandardCharsets.UTF_8);
+
+        try {
+            Mac mac = MacPool.mac(prf.macAlgorithm);
+            mac.init(new SecretKeySpec(password.getBytes(StandardCharsets.UTF_8), prf.macAlgorithm));
+
+            mac.update(algorithmName);
+            mac.update((byte) 0);
+            mac.update(salt);
+            mac.update(new byte[]{0, 0, 0, 1});
+
+            byte[] u = mac.doFinal();
+            byte[] block = u.clone();
+
+            for (int i = 1; i < iterations; i++) {
+                if (i % PROGRESS_INTERVAL == 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new JOSEException("PBES2 key derivation cancelled");
+                    }
+
+                    progressListener.onProgress(i, iterations);
+                }
+
+                mac.update(u);
+                mac.doFinal(u, 0);
+
+                for (int j = 0; j < block.length; j++) {
+                    block[j] ^= u[j];
+                }
+            }
+
+            progressListener.onProgress(iterations, iterations);
+
+            SecretKey kek = new SecretKeySpec(block, 0, prf.keyLength, "AES"); //NON-NLS
+
+            // The key spec holds its own copy of the derived key
+            Arrays.fill(block, (byte) 0);
+            Arrays.fill(u, (byte) 0);
+
+            return kek;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new JOSEException("PBES2 key derivation failed", e);
+        }
+    }
+
+    @Override
+    public Set<JWEAlgorithm> supportedJWEAlgorithms() {
+        return SUPPORTED_ALGORITHMS;
+    }
+
+    @Override
+    public Set<EncryptionMethod> supportedEncryptionMethods() {
+        return ContentCryptoProvider.SUPPORTED_ENCRYPTION_METHODS;
+    }
+
+    @Override
+    public JWEJCAContext getJCAContext() {
+        return jcaContext;
+    }
+
+    public interface ProgressListener {
+        void onProgress(int iterationsCompleted, int iterations);
+    }
+
+    private enum PRF {
+        HS256("HmacSHA256", 16), //NON-NLS
+        HS384("HmacSHA384", 24), //NON-NLS
+        HS512("HmacSHA512", 32); //NON-NLS
+
+        private final String macAlgorithm;
+        private final int keyLength;
+
+        PRF(String macAlgorithm, int keyLength) {
+            this.macAlgorithm = macAlgorithm;
+            this.keyLength = keyLength;
+        }
+
+        static PRF of(JWEAlgorithm algorithm) {
+            if (JWEAlgorithm.PBES2_HS256_A128KW.equals(algorithm)) {
+                return HS256;
+            }
+
+            if (JWEAlgorithm.PBES2_HS384_A192KW.equals(algorithm)) {
+                return HS384;
+            }
+
+            return HS512;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.cryptography;
+
+
+import java.security.Provider;
+import java.security.Security;
+
+import static org.bouncycastle.jce.provider.BouncyCastleProvider.PROVIDER_NAME;
+
+public class Providers {
+    private static volatile Provider bouncyCastle;
+
+    /**
+     * Look up the BouncyCastle provider, remembering it once it has been registered
+     *
+     * @return the BouncyCastle provider, or null if it is not registered
+     */
+    public static Provider bouncyCastle() {
+        Provider provider = bouncyCastle;
+
+        if (provider == null) {
+            provider = Security.getProvider(PROVIDER_NAME);
+            bouncyCastle = provider;
+        }
+
+        return provider;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.jose;
+
+
+import com.blackberry.jwteditor.cryptography.Providers;
+import com.blackberry.jwteditor.exceptions.DecryptionException;
+import com.blackberry.jwteditor.exceptions.EncryptionException;
+import com.blackberry.jwteditor.model.keys.JWKKey;
+import com.blackberry.jwteditor.model.keys.Key;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWECryptoParts;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.crypto.impl.AESKW;
+import com.nimbusds.jose.crypto.impl.ConcatKDF;
+import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
+import com.nimbusds.jose.crypto.impl.ECDH;
+import com.nimbusds.jose.crypto.utils.ECChecks;
+import com.nimbusds.jose.jca.JWEJCAContext;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.text.ParseException;
+import java.util.Optional;
+
+import static com.nimbusds.jose.JWEAlgorithm.*;
+
+/**
+ * Unwrapped content encryption key (CEK) for a JWE. Holding the CEK allows the JWE to be decrypted and re-encrypted
+ * with its original header and encrypted key, with only the content encryption performed per operation.
+ */
+public class ContentEncryptionKey {
+    private final JWEHeader header;
+    private final Base64URL encryptedKey;
+    private final SecretKey cek;
+    private final JWEJCAContext jcaContext;
+
+    private ContentEncryptionKey(JWEHeader header, Base64URL encryptedKey, SecretKey cek) {
+        this.header = header;
+        this.encryptedKey = encryptedKey;
+        this.cek = cek;
+        this.jcaContext = new JWEJCAContext();
+
+        // Try to use the BouncyCastle provider, but fall-back to default if this fails
+        Provider provider = Providers.bouncyCastle();
+        if (provider != null) {
+            jcaContext.setProvider(provider);
+        }
+    }
+
+    /**
+     * Unwrap the content encryption key of a JWE. Supports direct encryption, AES key wrap, RSA key encryption and
+     * ECDH-ES key agreement.
+     *
+     * @param jwe JWE containing the encrypted key
+     * @param key key to unwrap the CEK with
+     * @return the unwrapped CEK, or empty if the key or algorithm is unsupported or unwrapping fails
+     */
+    public static Optional<ContentEncryptionKey> unwrap(JWE jwe, Key key) {
+        try {
+            JWEHeader header = JWEHeader.parse(jwe.header().encoded());
+            Base64URL encryptedKey = DIR.equals(header.getAlgorithm()) ? null : jwe.encodedEncryptedKey();
+
+            return unwrapCEK(header, encryptedKey, key).map(cek -> new ContentEncryptionKey(header, encryptedKey, cek));
+        } catch (ParseException | DecryptionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Unwrap a content encryption key without decrypting any content. Supports direct encryption, AES key wrap, RSA
+     * key encryption and ECDH-ES key agreement.
+     *
+     * @param header       parsed JWE header
+     * @param encryptedKey JWE encrypted key, or null for direct encryption
+     * @param key          key to unwrap the CEK with
+     * @return the unwrapped CEK, or empty if the key or algorithm is unsupported
+     * @throws DecryptionException if unwrapping fails
+     */
+    public static Optional<SecretKey> unwrapCEK(JWEHeader header, Base64URL encryptedKey, Key key) throws DecryptionException {
+        if (!(key instanceof JWKKey jwkKey)) {
+            return Optional.empty();
+        }
+
+        Optional<SecretKey> cek;
+
+        try {
+            cek = unwrap(header, encryptedKey, jwkKey.getJWK());
+        } catch (JOSEException | GeneralSecurityException e) {
+            throw new DecryptionException("Unable to unwrap CEK");
+        }
+
+        if (cek.isPresent() && cek.get().getEncoded().length != header.getEncryptionMethod().cekBitLength() / 8) {
+            throw new DecryptionException("Unwrapped CEK has the wrong length");
+        }
+
+        return cek;
+    }
+
+    /**
+     * Decrypt a JWE encrypted with this CEK
+     *
+     * @param jwe JWE to decrypt
+     * @return the plaintext, typically a JWS or a JSON claims set
+     * @throws DecryptionException if decryption fails
+     */
+    public String decrypt(JWE jwe) throws DecryptionException {
+        try {
+            byte[] plaintext = ContentCryptoProvider.decrypt(
+                    header,
+                    encryptedKey,
+                    jwe.encodedIV(),
+                    jwe.encodedCiphertext(),
+                    jwe.encodedTag(),
+                    cek,
+                    jcaContext
+            );
+
+            return new String(plaintext, StandardCharsets.UTF_8);
+        } catch (JOSEException e) {
+            throw new DecryptionException("Unable to decrypt JWE");
+        }
+    }
+
+    /**
+     * Encrypt a plaintext using the original header, encrypted key and CEK with a fresh IV
+     *
+     * @param plaintext plaintext to encrypt, such as a serialized JWS
+     * @return the resulting JWE
+     * @throws EncryptionException if encryption fails
+     */
+    public JWE encrypt(String plaintext) throws EncryptionException {
+        try {
+            JWECryptoParts parts = ContentCryptoProvider.encrypt(
+                    header,
+                    plaintext.getBytes(StandardCharsets.UTF_8),
+                    cek,
+                    encryptedKey,
+                    jcaContext
+            );
+
+            return new JWE(
+                    header.toBase64URL(),
+                    encryptedKey == null ? Base64URL.encode(new byte[0]) : encryptedKey,
+                    parts.getInitializationVector(),
+                    parts.getCipherText(),
+                    parts.getAuthenticationTag()
+            );
+        } catch (JOSEException e) {
+            throw new EncryptionException(e.getMessage());
+        }
+    }
+
+    private static Optional<SecretKey> unwrap(JWEHeader header, Base64URL encryptedKey, JWK jwk) throws JOSEException, GeneralSecurityException {
+        JWEAlgorithm algorithm = header.getAlgorithm();
+
+        if (jwk instanceof OctetSequenceKey octetSequenceKey) {
+            SecretKey kek = new SecretKeySpec(octetSequenceKey.toByteArray(), "AES");
+
+            if (DIR.equals(algorithm)) {
+                return Optional.of(kek);
+            }
+
+            if (A128KW.equals(algorithm) || A192KW.equals(algorithm) || A256KW.equals(algorithm)) {
+                Cipher cipher = Cipher.getInstance("AESWrap");
+                cipher.init(Cipher.UNWRAP_MODE, kek);
+
+                return Optional.of((SecretKey) cipher.unwrap(encryptedKey.decode(), "AES", Cipher.SECRET_KEY));
+            }
+        }
+
+        if (jwk instanceof RSAKey rsaKey && rsaKey.isPrivate()) {
+            Cipher cipher;
+
+            //noinspection deprecation
+            if (RSA1_5.equals(algorithm)) {
+                cipher = Cipher.getInstance("RSA/ECB/PKCS1Padding");
+                cipher.init(Cipher.DECRYPT_MODE, rsaKey.toPrivateKey());
+            } else if (RSA_OAEP.equals(algorithm)) {
+                cipher = Cipher.getInstance("RSA/ECB/OAEPWithSHA-1AndMGF1Padding");
+                cipher.init(Cipher.DECRYPT_MODE, rsaKey.toPrivateKey());
+            } else if (RSA_OAEP_256.equals(algorithm)) {
+                cipher = Cipher.getInstance("RSA/ECB/OAEPWithSHA-256AndMGF1Padding");
+                cipher.init(
+                        Cipher.DECRYPT_MODE,
+                        rsaKey.toPrivateKey(),
+                        new OAEPParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT)
+                );
+            } else {
+                return Optional.empty();
+            }
+
+            return Optional.of(new SecretKeySpec(cipher.doFinal(encryptedKey.decode()), "AES"));
+        }
+
+        if (jwk instanceof ECKey ecKey && ecKey.isPrivate() && JWEAlgorithm.Family.ECDH_ES.contains(algorithm)) {
+            return Optional.of(unwrapECDH(header, encryptedKey, ecKey));
+        }
+
+        return Optional.empty();
+    }
+
+    private static SecretKey unwrapECDH(JWEHeader header, Base64URL encryptedKey, ECKey ecKey) throws JOSEException {
+        if (!(header.getEphemeralPublicKey() instanceof ECKey ephemeralKey)) {
+            throw new JOSEException("Missing or unsupported JWE epk header parameter");
+        }
+
+        ECPublicKey ephemeralPublicKey = ephemeralKey.toECPublicKey();
+        ECPrivateKey privateKey = ecKey.toECPrivateKey();
+
+        // Reject points off the key's curve, which would otherwise leak the private key through the shared secret
+        if (!ECChecks.isPointOnCurve(ephemeralPublicKey, privateKey)) {
+            throw new JOSEException("Invalid ephemeral public key: Point not on expected curve");
+        }
+
+        Provider provider = Providers.bouncyCastle();
+        SecretKey sharedSecret = ECDH.deriveSharedSecret(ephemeralPublicKey, privateKey, provider);
+        SecretKey sharedKey = ECDH.deriveSharedKey(header, sharedSecret, new ConcatKDF("SHA-256")); //NON-NLS
+
+        if (ECDH.resolveAlgorithmMode(header.getAlgorithm()) == ECDH.AlgorithmMode.DIRECT) {
+            return sharedKey;
+        }
+
+        return AESKW.unwrapCEK(sharedKey, encryptedKey.decode(), provider);
+    }
+}
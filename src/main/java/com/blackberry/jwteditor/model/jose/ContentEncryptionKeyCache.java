@@ -0,0 +1,178 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.jose;
+
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64URL;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.nimbusds.jose.JWEAlgorithm.DIR;
+
+/**
+ * Bounded, thread-safe cache of unwrapped content encryption keys (CEKs). A JWE whose encrypted key has already been
+ * unwrapped by a key can then be decrypted with the symmetric content encryption alone. Entries are keyed by the ID of
+ * the unwrapping key along with every header parameter that affects the unwrap, so must be invalidated when a key is
+ * removed or replaced. CEK bytes are zeroed once evicted or invalidated.
+ */
+public class ContentEncryptionKeyCache {
+    private final int maximumSize;
+    private final Map<CacheKey, byte[]> cache;
+
+    public ContentEncryptionKeyCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, byte[]> eldest) {
+                if (size() > ContentEncryptionKeyCache.this.maximumSize) {
+                    Arrays.fill(eldest.getValue(), (byte) 0);
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the CEK previously unwrapped from an encrypted key
+     *
+     * @param keyId        ID of the key that unwrapped the CEK
+     * @param header       parsed JWE header
+     * @param encryptedKey JWE encrypted key, empty for ECDH-ES direct key agreement
+     * @return copy of the cached CEK, or empty if it is not cached
+     */
+    public Optional<SecretKey> get(String keyId, JWEHeader header, Base64URL encryptedKey) {
+        if (!isCacheable(header)) {
+            return Optional.empty();
+        }
+
+        CacheKey cacheKey = CacheKey.from(keyId, header, encryptedKey);
+
+        synchronized (cache) {
+            byte[] cek = cache.get(cacheKey);
+            return cek == null ? Optional.empty() : Optional.of(new SecretKeySpec(cek, "AES")); //NON-NLS
+        }
+    }
+
+    /**
+     * Cache the CEK unwrapped from an encrypted key
+     *
+     * @param keyId        ID of the key that unwrapped the CEK
+     * @param header       parsed JWE header
+     * @param encryptedKey JWE encrypted key, empty for ECDH-ES direct key agreement
+     * @param cek          the unwrapped CEK
+     */
+    public void put(String keyId, JWEHeader header, Base64URL encryptedKey, SecretKey cek) {
+        if (maximumSize == 0 || !isCacheable(header)) {
+            return;
+        }
+
+        CacheKey cacheKey = CacheKey.from(keyId, header, encryptedKey);
+        byte[] encoded = cek.getEncoded();
+
+        synchronized (cache) {
+            byte[] previous = cache.put(cacheKey, encoded);
+
+            if (previous != null && previous != encoded) {
+                Arrays.fill(previous, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Discard every CEK unwrapped by a key
+     *
+     * @param keyId ID of the key that has been removed or replaced
+     */
+    public void invalidate(String keyId) {
+        synchronized (cache) {
+            Iterator<Map.Entry<CacheKey, byte[]>> entries = cache.entrySet().iterator();
+
+            while (entries.hasNext()) {
+                Map.Entry<CacheKey, byte[]> entry = entries.next();
+
+                if (Objects.equals(entry.getKey().keyId(), keyId)) {
+                    Arrays.fill(entry.getValue(), (byte) 0);
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.values().forEach(cek -> Arrays.fill(cek, (byte) 0));
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    // With direct encryption the key is the CEK, so there is nothing to unwrap
+    private static boolean isCacheable(JWEHeader header) {
+        return !DIR.equals(header.getAlgorithm());
+    }
+
+    /**
+     * The CEK length depends on enc for ECDH-ES, and the key agreement and PBES2 parameters feed into the derived key
+     * encryption key, so these are part of the key alongside alg and the encrypted key.
+     */
+    private record CacheKey(String keyId,
+                            JWEAlgorithm algorithm,
+                            EncryptionMethod encryptionMethod,
+                            Base64URL encryptedKey,
+                            String ephemeralPublicKey,
+                            Base64URL agreementPartyUInfo,
+                            Base64URL agreementPartyVInfo,
+                            Base64URL pbes2Salt,
+                            int pbes2Count) {
+
+        static CacheKey from(String keyId, JWEHeader header, Base64URL encryptedKey) {
+            JWK ephemeralPublicKey = header.getEphemeralPublicKey();
+
+            return new CacheKey(
+                    keyId,
+                    header.getAlgorithm(),
+                    header.getEncryptionMethod(),
+                    encryptedKey,
+                    ephemeralPublicKey == null ? null : ephemeralPublicKey.toJSONString(),
+                    header.getAgreementPartyUInfo(),
+                    header.getAgreementPartyVInfo(),
+                    header.getPBES2Salt(),
+                    header.getPBES2Count()
+            );
+        }
+    }
+}
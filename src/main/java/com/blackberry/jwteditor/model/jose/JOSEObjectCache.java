@@ -0,0 +1,72 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.jose;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, thread-safe cache of parsed JOSE object candidates. Parsed JOSE objects are immutable, so a single
+ * instance may be shared between components examining the same traffic. The least recently used entries are evicted
+ * once the cache is full.
+ */
+public class JOSEObjectCache {
+    private final Map<String, Optional<JOSEObject>> cache;
+
+    public JOSEObjectCache(int maximumSize) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<JOSEObject>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Parse a candidate JWE/JWS, reusing the result of any previous parse of the same candidate
+     *
+     * @param candidate compact serialization candidate
+     * @return the parsed JOSE object, or empty if the candidate is not a valid JWE/JWS
+     */
+    public Optional<JOSEObject> parse(String candidate) {
+        synchronized (cache) {
+            Optional<JOSEObject> joseObject = cache.get(candidate);
+
+            if (joseObject != null) {
+                return joseObject;
+            }
+        }
+
+        Optional<JOSEObject> joseObject = JOSEObjectFinder.parseJOSEObject(candidate);
+
+        synchronized (cache) {
+            cache.put(candidate, joseObject);
+        }
+
+        return joseObject;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
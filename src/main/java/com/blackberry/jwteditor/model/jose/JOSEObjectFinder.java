@@ -18,17 +18,20 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.jose;
 
+import com.blackberry.jwteditor.utils.ByteCharSequence;
 import com.nimbusds.jose.JWEObject;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jose.util.JSONObjectUtils;
 
 import java.text.ParseException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.nimbusds.jose.Header.MAX_HEADER_STRING_LENGTH;
 import static com.nimbusds.jose.HeaderParameterNames.ALGORITHM;
+import static java.util.Collections.emptyList;
 
 public class JOSEObjectFinder {
     public static final String BASE64_REGEX = "[A-Za-z0-9-_]";
@@ -55,6 +58,49 @@ public class JOSEObjectFinder {
         return joseObjects;
     }
 
+    /**
+     * Locate every occurrence of a JWE/JWS in compact form within raw message bytes
+     *
+     * @param data message bytes
+     * @return list of located JOSE objects, in order of occurrence, with byte offsets
+     */
+    public static List<LocatedJOSEObject> locateJOSEObjects(byte[] data) {
+        Map<String, Optional<JOSEObject>> parsedCandidates = new HashMap<>();
+        return locateJOSEObjects(data, candidate -> parsedCandidates.computeIfAbsent(candidate, JOSEObjectFinder::parseJWT));
+    }
+
+    /**
+     * Locate every occurrence of a JWE/JWS in compact form within raw message bytes, parsing candidates via a cache
+     * shared between messages
+     *
+     * @param data  message bytes
+     * @param cache cache of parsed candidates
+     * @return list of located JOSE objects, in order of occurrence, with byte offsets
+     */
+    public static List<LocatedJOSEObject> locateJOSEObjects(byte[] data, JOSEObjectCache cache) {
+        return locateJOSEObjects(data, cache::parse);
+    }
+
+    private static List<LocatedJOSEObject> locateJOSEObjects(byte[] data, Function<String, Optional<JOSEObject>> parser) {
+        List<LocatedJOSEObject> joseObjects = null;
+        Matcher m = JOSE_OBJECT_PATTERN.matcher(new ByteCharSequence(data));
+
+        while (m.find()) {
+            String candidate = m.group();
+            Optional<JOSEObject> joseObject = parser.apply(candidate);
+
+            if (joseObject.isPresent()) {
+                if (joseObjects == null) {
+                    joseObjects = new ArrayList<>();
+                }
+
+                joseObjects.add(new LocatedJOSEObject(m.start(), m.end(), candidate, joseObject.get()));
+            }
+        }
+
+        return joseObjects == null ? emptyList() : joseObjects;
+    }
+
     public static boolean containsJOSEObjects(String text) {
         Set<String> candidates = findCandidateJoseObjectsWithin(text);
 
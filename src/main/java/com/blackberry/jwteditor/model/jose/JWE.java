@@ -18,15 +18,18 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.jose;
 
+import com.blackberry.jwteditor.cryptography.Providers;
 import com.blackberry.jwteditor.exceptions.DecryptionException;
 import com.blackberry.jwteditor.model.keys.Key;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWEDecrypter;
 import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.crypto.impl.ContentCryptoProvider;
+import com.nimbusds.jose.jca.JWEJCAContext;
 import com.nimbusds.jose.util.Base64URL;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
+import javax.crypto.SecretKey;
 import java.security.Provider;
-import java.security.Security;
 import java.text.ParseException;
 import java.util.List;
 
@@ -40,6 +43,7 @@ public class JWE extends JOSEObject {
     private final Base64URL iv;
     private final Base64URL ciphertext;
     private final Base64URL tag;
+    private volatile JWEHeader parsedHeader;
 
     /**
      * Construct a JWE from encoded components
@@ -109,6 +113,39 @@ public class JWE extends JOSEObject {
         return iv.decode();
     }
 
+    public Base64URL encodedEncryptedKey() {
+        return encryptedKey;
+    }
+
+    Base64URL encodedIV() {
+        return iv;
+    }
+
+    Base64URL encodedCiphertext() {
+        return ciphertext;
+    }
+
+    Base64URL encodedTag() {
+        return tag;
+    }
+
+    /**
+     * Parse the JWE header, which is only done once per JWE
+     *
+     * @return the parsed header
+     * @throws ParseException if the header is not a valid JWE header
+     */
+    public JWEHeader parsedHeader() throws ParseException {
+        JWEHeader result = parsedHeader;
+
+        if (result == null) {
+            result = JWEHeader.parse(this.header.decoded());
+            parsedHeader = result;
+        }
+
+        return result;
+    }
+
     /**
      * Decrypt to a JWS using a JWK
      * @param key JWK to decrypt with
@@ -117,15 +154,40 @@ public class JWE extends JOSEObject {
      * @throws ParseException if parsing of plaintext as a JWS fails
      */
     public JWS decrypt(Key key) throws DecryptionException, ParseException {
-        // Parse the JWE header to get the decryption algorithms
-        JWEHeader header = JWEHeader.parse(this.header.decoded());
+        return decrypt(key, parsedHeader());
+    }
+
+    /**
+     * Decrypt to a JWS using a JWK and the already parsed JWE header
+     * @param key JWK to decrypt with
+     * @param header parsed header of this JWE
+     * @return result of the decryption as a JWS
+     * @throws DecryptionException if decryption fails
+     */
+    public JWS decrypt(Key key, JWEHeader header) throws DecryptionException {
+        JWEDecrypter decrypter;
 
         try {
             // Create a new decrypter with the header algs
-            JWEDecrypter decrypter = key.getDecrypter(header.getAlgorithm());
+            decrypter = key.getDecrypter(header.getAlgorithm());
+        } catch (Exception e) {
+            throw new DecryptionException("Unable to decrypt JWE");
+        }
+
+        return decrypt(decrypter, header);
+    }
 
+    /**
+     * Decrypt to a JWS using a decrypter created for the already parsed JWE header
+     * @param decrypter decrypter to use
+     * @param header parsed header of this JWE
+     * @return result of the decryption as a JWS
+     * @throws DecryptionException if decryption fails
+     */
+    public JWS decrypt(JWEDecrypter decrypter, JWEHeader header) throws DecryptionException {
+        try {
             // Try to use the BouncyCastle provider, but fall-back to default if this fails
-            Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+            Provider provider = Providers.bouncyCastle();
             if (provider != null) {
                 decrypter.getJCAContext().setProvider(provider);
             }
@@ -153,4 +215,31 @@ public class JWE extends JOSEObject {
             throw new DecryptionException("Unable to decrypt JWE");
         }
     }
+
+    /**
+     * Decrypt to a JWS using an already unwrapped content encryption key, performing only the content decryption
+     * @param cek unwrapped content encryption key
+     * @param header parsed header of this JWE
+     * @return result of the decryption as a JWS
+     * @throws DecryptionException if decryption fails
+     */
+    public JWS decrypt(SecretKey cek, JWEHeader header) throws DecryptionException {
+        JWEJCAContext jcaContext = new JWEJCAContext();
+
+        // Try to use the BouncyCastle provider, but fall-back to default if this fails
+        Provider provider = Providers.bouncyCastle();
+        if (provider != null) {
+            jcaContext.setProvider(provider);
+        }
+
+        try {
+            byte[] plaintext = ContentCryptoProvider.decrypt(header, encryptedKey, iv, ciphertext, tag, cek, jcaContext);
+
+            return JWSFactory.parse(new String(plaintext));
+        } catch (ParseException e) {
+            throw new DecryptionException("JWE contents are not a JWS");
+        } catch (JOSEException e) {
+            throw new DecryptionException("Unable to decrypt JWE");
+        }
+    }
 }
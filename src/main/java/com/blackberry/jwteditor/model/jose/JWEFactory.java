@@ -18,15 +18,14 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.jose;
 
+import com.blackberry.jwteditor.cryptography.Providers;
 import com.blackberry.jwteditor.exceptions.EncryptionException;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.util.Base64URL;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Provider;
-import java.security.Security;
 import java.text.ParseException;
 
 import static com.blackberry.jwteditor.utils.StringUtils.countOccurrences;
@@ -45,7 +44,7 @@ public class JWEFactory {
         }
 
         // Try to use the BouncyCastle provider, but fall-back to default if this fails
-        Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+        Provider provider = Providers.bouncyCastle();
         if (provider != null) {
             encrypter.getJCAContext().setProvider(provider);
         }
@@ -36,6 +36,7 @@ import static com.blackberry.jwteditor.model.jose.JWSVerifierFactory.verifierFor
 public class JWS extends JOSEObject {
     private final JWSClaims claims;
     private final Signature signature;
+    private volatile byte[] signingInput;
 
     /**
      * Construct a JWS from encoded components
@@ -83,22 +84,42 @@ public class JWS extends JOSEObject {
      * @throws VerificationException if verification process fails
      */
     public boolean verify(Key key, JWSHeader verificationInfo) throws VerificationException {
-        JWSVerifier verifier = verifierFor(key, verificationInfo.getAlgorithm());
-
-        // Build the signing input
-        // JWS signature input is the ASCII bytes of the base64 encoded header and payload concatenated with a '.'
-        byte[] headerBytes = header.toString().getBytes(StandardCharsets.US_ASCII);
-        byte[] payloadBytes = claims.encoded().toString().getBytes(StandardCharsets.US_ASCII);
-        byte[] signingInput = new byte[headerBytes.length + 1 + payloadBytes.length];
-        System.arraycopy(headerBytes, 0, signingInput, 0, headerBytes.length);
-        signingInput[headerBytes.length] = '.';
-        System.arraycopy(payloadBytes, 0, signingInput, headerBytes.length + 1, payloadBytes.length);
+        return verify(verifierFor(key, verificationInfo.getAlgorithm()), verificationInfo);
+    }
 
+    /**
+     * Verify JWS with an existing verifier, allowing a verifier to be reused across algorithms
+     *
+     * @param verifier         verifier for the key
+     * @param verificationInfo JWSHeader containing verification algorithm
+     * @return result of signature verification
+     * @throws VerificationException if verification process fails
+     */
+    public boolean verify(JWSVerifier verifier, JWSHeader verificationInfo) throws VerificationException {
         // Verify the payload with the key and the algorithm provided
         try {
-            return verifier.verify(verificationInfo, signingInput, signature.encoded());
+            return verifier.verify(verificationInfo, signingInput(), signature.encoded());
         } catch (JOSEException e) {
             throw new VerificationException(e.getMessage());
         }
     }
+
+    private byte[] signingInput() {
+        byte[] input = signingInput;
+
+        if (input == null) {
+            // Build the signing input
+            // JWS signature input is the ASCII bytes of the base64 encoded header and payload concatenated with a '.'
+            byte[] headerBytes = header.toString().getBytes(StandardCharsets.US_ASCII);
+            byte[] payloadBytes = claims.encoded().toString().getBytes(StandardCharsets.US_ASCII);
+            input = new byte[headerBytes.length + 1 + payloadBytes.length];
+            System.arraycopy(headerBytes, 0, input, 0, headerBytes.length);
+            input[headerBytes.length] = '.';
+            System.arraycopy(payloadBytes, 0, input, headerBytes.length + 1, payloadBytes.length);
+
+            signingInput = input;
+        }
+
+        return input;
+    }
 }
@@ -24,34 +24,27 @@ import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 
 import java.security.Provider;
-import java.security.Security;
 
-import static com.blackberry.jwteditor.model.jose.JWSVerifierFactory.BOUNCY_CASTLE_ONLY_ALGORITHMS;
-import static org.bouncycastle.jce.provider.BouncyCastleProvider.PROVIDER_NAME;
+import static com.blackberry.jwteditor.cryptography.Providers.bouncyCastle;
+import static com.blackberry.jwteditor.model.jose.JWSVerifierFactory.requiresBouncyCastle;
 
 class JWSSignerFactory {
 
     static JWSSigner signerFor(Key key, JWSAlgorithm algorithm) throws SigningException {
-        com.nimbusds.jose.JWSSigner signer;
+        Provider provider = requiresBouncyCastle(algorithm) ? bouncyCastleProvider() : null;
 
         try {
-            signer = key.getSigner();
+            return new JWSSigner(key.getSigner(provider));
         } catch (JOSEException e) {
             throw new SigningException(e.getMessage());
         }
+    }
 
-        if (BOUNCY_CASTLE_ONLY_ALGORITHMS.contains(algorithm)) {
-            try {
-                Provider provider = Security.getProvider(PROVIDER_NAME);
-
-                if (provider != null) {
-                    signer.getJCAContext().setProvider(provider);
-                }
-            } catch (Throwable t) {
-                throw new SigningException("Unable to load the BouncyCastle.", t);
-            }
+    private static Provider bouncyCastleProvider() throws SigningException {
+        try {
+            return bouncyCastle();
+        } catch (Throwable t) {
+            throw new SigningException("Unable to load the BouncyCastle.", t);
         }
-
-        return new JWSSigner(signer);
     }
 }
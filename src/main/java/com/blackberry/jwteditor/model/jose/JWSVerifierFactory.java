@@ -26,38 +26,35 @@ import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSVerifier;
 
 import java.security.Provider;
-import java.security.Security;
 import java.util.Set;
 
+import static com.blackberry.jwteditor.cryptography.Providers.bouncyCastle;
 import static com.nimbusds.jose.JWSAlgorithm.ES256K;
-import static org.bouncycastle.jce.provider.BouncyCastleProvider.PROVIDER_NAME;
 
-class JWSVerifierFactory {
+public class JWSVerifierFactory {
     static final Set<Algorithm> BOUNCY_CASTLE_ONLY_ALGORITHMS = Set.of(
             ES256K
     );
 
-    static JWSVerifier verifierFor(Key key, JWSAlgorithm algorithm) throws VerificationException {
-        JWSVerifier verifier;
+    public static JWSVerifier verifierFor(Key key, JWSAlgorithm algorithm) throws VerificationException {
+        Provider provider = requiresBouncyCastle(algorithm) ? bouncyCastleProvider() : null;
 
         try {
-            verifier = key.getVerifier();
+            return key.getVerifier(provider);
         } catch (JOSEException e) {
             throw new VerificationException(e.getMessage());
         }
+    }
 
-        if (BOUNCY_CASTLE_ONLY_ALGORITHMS.contains(algorithm)) {
-            try {
-                Provider provider = Security.getProvider(PROVIDER_NAME);
+    public static boolean requiresBouncyCastle(JWSAlgorithm algorithm) {
+        return BOUNCY_CASTLE_ONLY_ALGORITHMS.contains(algorithm);
+    }
 
-                if (provider != null) {
-                    verifier.getJCAContext().setProvider(provider);
-                }
-            } catch (Throwable t) {
-                throw new VerificationException("Unable to load the BouncyCastle.", t);
-            }
+    private static Provider bouncyCastleProvider() throws VerificationException {
+        try {
+            return bouncyCastle();
+        } catch (Throwable t) {
+            throw new VerificationException("Unable to load the BouncyCastle.", t);
         }
-
-        return verifier;
     }
 }
@@ -0,0 +1,31 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.jose;
+
+
+/**
+ * JOSE object found within a message, along with its byte offsets
+ *
+ * @param startOffset offset of the first byte of the compact serialization
+ * @param endOffset   offset after the last byte of the compact serialization
+ * @param original    the compact serialization as found within the message
+ * @param joseObject  the parsed JOSE object
+ */
+public record LocatedJOSEObject(int startOffset, int endOffset, String original, JOSEObject joseObject) {
+}
@@ -18,18 +18,53 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.keys;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64URL;
 import org.json.JSONObject;
 
+import java.security.Provider;
 import java.util.Map;
 
 abstract class AbstractJWKKey implements JWKKey {
     private final JWK jwk;
     private final KeyType keyType;
+    private final JCAObjectCache<JWSSigner> signers;
+    private final JCAObjectCache<JWSVerifier> verifiers;
+    private final Memoized<Base64URL> thumbprint;
 
     AbstractJWKKey(JWK jwk, KeyType keyType) {
         this.jwk = jwk;
         this.keyType = keyType;
+        this.signers = new JCAObjectCache<>(this::createSigner);
+        this.verifiers = new JCAObjectCache<>(this::createVerifier);
+        this.thumbprint = new Memoized<>(jwk::computeThumbprint);
+    }
+
+    abstract JWSSigner createSigner() throws JOSEException;
+
+    abstract JWSVerifier createVerifier() throws JOSEException;
+
+    @Override
+    public JWSSigner getSigner() throws JOSEException {
+        return signers.get();
+    }
+
+    @Override
+    public JWSSigner getSigner(Provider provider) throws JOSEException {
+        return signers.get(provider);
+    }
+
+    @Override
+    public JWSVerifier getVerifier() throws JOSEException {
+        return verifiers.get();
+    }
+
+    @Override
+    public JWSVerifier getVerifier(Provider provider) throws JOSEException {
+        return verifiers.get(provider);
     }
 
     @Override
@@ -42,6 +77,15 @@ abstract class AbstractJWKKey implements JWKKey {
         return keyType;
     }
 
+    @Override
+    public Base64URL getThumbprint() {
+        try {
+            return thumbprint.get();
+        } catch (JOSEException e) {
+            return null;
+        }
+    }
+
     @Override
     public String getID() {
         return jwk.getKeyID();
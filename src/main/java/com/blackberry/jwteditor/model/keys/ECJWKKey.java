@@ -25,12 +25,19 @@ import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.jwk.ECKey;
 
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+
 class ECJWKKey extends AbstractJWKKey {
     private final ECKey ecKey;
+    private final Memoized<ECPublicKey> publicKey;
+    private final Memoized<ECPrivateKey> privateKey;
 
     ECJWKKey(ECKey ecKey) {
         super(ecKey, KeyType.EC);
         this.ecKey = ecKey;
+        this.publicKey = new Memoized<>(ecKey::toECPublicKey);
+        this.privateKey = new Memoized<>(ecKey::toECPrivateKey);
     }
 
     @Override
@@ -61,22 +68,22 @@ class ECJWKKey extends AbstractJWKKey {
 
     @Override
     public JWEEncrypter getEncrypter(JWEAlgorithm kekAlgorithm) throws JOSEException {
-        return new ECDHEncrypter(ecKey.toECPublicKey());
+        return new ECDHEncrypter(publicKey.get());
     }
 
     @Override
     public JWEDecrypter getDecrypter(JWEAlgorithm kekAlgorithm) throws JOSEException {
-        return new ECDHDecrypter(ecKey.toECPrivateKey());
+        return new ECDHDecrypter(privateKey.get());
     }
 
     @Override
-    public JWSSigner getSigner() throws JOSEException {
-        return new ECDSASigner(ecKey.toECPrivateKey());
+    JWSSigner createSigner() throws JOSEException {
+        return new ECDSASigner(privateKey.get());
     }
 
     @Override
-    public JWSVerifier getVerifier() throws JOSEException {
-        return new ECDSAVerifier(ecKey.toECPublicKey());
+    JWSVerifier createVerifier() throws JOSEException {
+        return new ECDSAVerifier(publicKey.get());
     }
 
     @Override
@@ -0,0 +1,62 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.keys;
+
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jca.JCAAware;
+import com.nimbusds.jose.jca.JCAContext;
+
+import java.security.Provider;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of a key's signer or verifier, one per JCA provider. The cached objects are shared so must not be modified.
+ */
+class JCAObjectCache<T extends JCAAware<JCAContext>> {
+    private final Memoized.Initializer<T> factory;
+    private final Memoized<T> defaultInstance;
+    private final Map<Provider, T> providerInstances = new ConcurrentHashMap<>();
+
+    JCAObjectCache(Memoized.Initializer<T> factory) {
+        this.factory = factory;
+        this.defaultInstance = new Memoized<>(factory);
+    }
+
+    T get() throws JOSEException {
+        return defaultInstance.get();
+    }
+
+    T get(Provider provider) throws JOSEException {
+        if (provider == null) {
+            return get();
+        }
+
+        T instance = providerInstances.get(provider);
+
+        if (instance == null) {
+            instance = factory.initialize();
+            instance.getJCAContext().setProvider(provider);
+            providerInstances.put(provider, instance);
+        }
+
+        return instance;
+    }
+}
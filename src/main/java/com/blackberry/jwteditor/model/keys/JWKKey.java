@@ -19,10 +19,17 @@ limitations under the License.
 package com.blackberry.jwteditor.model.keys;
 
 import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64URL;
 
 public interface JWKKey extends Key {
 
     JWK getJWK();
 
     KeyType getKeyType();
+
+    /**
+     * Get the RFC 7638 SHA-256 thumbprint of the key
+     * @return thumbprint, or null if it cannot be computed
+     */
+    Base64URL getThumbprint();
 }
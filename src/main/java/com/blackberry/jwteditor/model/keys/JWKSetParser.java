@@ -19,26 +19,187 @@ limitations under the License.
 package com.blackberry.jwteditor.model.keys;
 
 import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
-import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.JWK;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
+/**
+ * Parser for JWK sets. The document is read a key at a time and each key is converted and emitted as soon as it has
+ * been read, so the set is never held in memory as JSON. Beyond the first few keys, conversion is done on the common
+ * pool while the document continues to be read.
+ */
 public class JWKSetParser {
+    private static final String KEYS = "keys";
+    private static final int PARALLEL_THRESHOLD = 64;
+    private static final int MAX_PENDING_CONVERSIONS = 256;
+
     public List<Key> parse(String json) throws ParseException {
-        return JWKSet.parse(json)
-                .getKeys()
-                .stream()
-                .map(jwk -> {
-                    try {
-                        return JWKKeyFactory.from(jwk);
-                    } catch (UnsupportedKeyException e) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .map(key -> (Key) key)
-                .toList();
+        return parse(new StringReader(json));
+    }
+
+    public List<Key> parse(Reader reader) throws ParseException {
+        List<Key> keys = new ArrayList<>();
+        parse(reader, keys::add);
+        return keys;
+    }
+
+    /**
+     * Parse a JWK set, passing each key to a consumer in document order. Keys already passed to the consumer should be
+     * discarded if a ParseException is thrown.
+     *
+     * @param reader      reader for the JWK set document
+     * @param keyConsumer consumer for the parsed keys, called on the calling thread
+     * @throws ParseException if the document is not a valid JWK set
+     */
+    public void parse(Reader reader, Consumer<Key> keyConsumer) throws ParseException {
+        KeyEmitter emitter = new KeyEmitter(keyConsumer);
+
+        try {
+            readKeys(new JSONTokener(reader), emitter);
+        } catch (JSONException e) {
+            throw new ParseException(e.getMessage(), 0);
+        }
+
+        emitter.finish();
+    }
+
+    private static void readKeys(JSONTokener tokener, KeyEmitter emitter) throws ParseException {
+        if (tokener.nextClean() != '{') {
+            throw new ParseException("JWK set must be a JSON object", 0);
+        }
+
+        boolean keysFound = false;
+
+        // Walk the members of the top level object, only materialising the entries of the keys array
+        char c = tokener.nextClean();
+
+        while (c != '}') {
+            tokener.back();
+            Object name = tokener.nextValue();
+
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected a ':' after a key");
+            }
+
+            if (KEYS.equals(name)) {
+                readKeyArray(tokener, emitter);
+                keysFound = true;
+            } else {
+                tokener.nextValue();
+            }
+
+            c = tokener.nextClean();
+
+            if (c == ',') {
+                c = tokener.nextClean();
+            } else if (c != '}') {
+                throw tokener.syntaxError("Expected a ',' or '}'");
+            }
+        }
+
+        if (!keysFound) {
+            throw new ParseException("Missing required \"keys\" member", 0);
+        }
+    }
+
+    private static void readKeyArray(JSONTokener tokener, KeyEmitter emitter) throws ParseException {
+        if (tokener.nextClean() != '[') {
+            throw new ParseException("The \"keys\" member must be a JSON array", 0);
+        }
+
+        char c = tokener.nextClean();
+
+        while (c != ']') {
+            tokener.back();
+
+            if (!(tokener.nextValue() instanceof JSONObject jwk)) {
+                throw new ParseException("The \"keys\" JSON array must contain JSON objects only", 0);
+            }
+
+            emitter.submit(jwk);
+            c = tokener.nextClean();
+
+            if (c == ',') {
+                c = tokener.nextClean();
+            } else if (c != ']') {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
+
+    private static Conversion convert(JSONObject json) {
+        try {
+            return new Conversion(JWKKeyFactory.from(JWK.parse(json.toMap())), null);
+        } catch (ParseException e) {
+            // Skip keys of unknown type, as nimbus does when parsing a JWK set
+            return e.getMessage() != null && e.getMessage().startsWith("Unsupported key type")
+                    ? new Conversion(null, null)
+                    : new Conversion(null, e);
+        } catch (UnsupportedKeyException e) {
+            return new Conversion(null, null);
+        }
+    }
+
+    private record Conversion(Key key, ParseException error) {
+    }
+
+    /**
+     * Converts keys as they are read, emitting them in document order. Small sets are converted on the calling thread.
+     */
+    private static class KeyEmitter {
+        private final Consumer<Key> keyConsumer;
+        private final Deque<ForkJoinTask<Conversion>> pending = new ArrayDeque<>();
+
+        private int submitted;
+        private int emitted;
+
+        private KeyEmitter(Consumer<Key> keyConsumer) {
+            this.keyConsumer = keyConsumer;
+        }
+
+        private void submit(JSONObject jwk) throws ParseException {
+            if (submitted++ < PARALLEL_THRESHOLD) {
+                emit(convert(jwk));
+                return;
+            }
+
+            pending.add(ForkJoinPool.commonPool().submit(() -> convert(jwk)));
+
+            // Emit whatever has been converted at the head of the queue, waiting only once too much is outstanding
+            while (!pending.isEmpty() && (pending.peek().isDone() || pending.size() > MAX_PENDING_CONVERSIONS)) {
+                emit(pending.poll().join());
+            }
+        }
+
+        private void finish() throws ParseException {
+            while (!pending.isEmpty()) {
+                emit(pending.poll().join());
+            }
+        }
+
+        private void emit(Conversion conversion) throws ParseException {
+            int position = emitted++;
+
+            if (conversion.error() != null) {
+                pending.forEach(task -> task.cancel(false));
+                throw new ParseException("Invalid JWK at position %d: %s".formatted(position, conversion.error().getMessage()), 0);
+            }
+
+            if (conversion.key() != null) {
+                keyConsumer.accept(conversion.key());
+            }
+        }
     }
 }
@@ -23,6 +23,7 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jose.jwk.JWK;
 import org.json.JSONObject;
 
+import java.security.Provider;
 import java.text.ParseException;
 
 /**
@@ -51,6 +52,22 @@ public interface Key {
     EncryptionMethod[] getContentEncryptionKeyAlgorithms(JWEAlgorithm keyEncryptionKeyAlgorithm);
     JWSSigner getSigner() throws JOSEException;
     JWSVerifier getVerifier() throws JOSEException;
+
+    /**
+     * Get a signer bound to a JCA provider. The returned signer may be shared so must not be modified.
+     * @param provider provider for the signer's JCA operations, or null for the default
+     * @return signer for this key
+     * @throws JOSEException if the key cannot sign
+     */
+    JWSSigner getSigner(Provider provider) throws JOSEException;
+
+    /**
+     * Get a verifier bound to a JCA provider. The returned verifier may be shared so must not be modified.
+     * @param provider provider for the verifier's JCA operations, or null for the default
+     * @return verifier for this key
+     * @throws JOSEException if the key cannot verify
+     */
+    JWSVerifier getVerifier(Provider provider) throws JOSEException;
     JWEEncrypter getEncrypter(JWEAlgorithm kekAlgorithm) throws JOSEException;
 
     JWEDecrypter getDecrypter(JWEAlgorithm kekAlgorithm) throws JOSEException;
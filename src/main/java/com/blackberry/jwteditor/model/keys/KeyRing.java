@@ -18,50 +18,552 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.keys;
 
+import com.blackberry.jwteditor.cryptography.PBES2Decrypter;
 import com.blackberry.jwteditor.exceptions.DecryptionException;
 import com.blackberry.jwteditor.exceptions.VerificationException;
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKey;
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKeyCache;
 import com.blackberry.jwteditor.model.jose.JWE;
 import com.blackberry.jwteditor.model.jose.JWS;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONException;
+import org.json.JSONObject;
 
+import javax.crypto.SecretKey;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
-import java.util.List;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.blackberry.jwteditor.model.jose.JWSVerifierFactory.verifierFor;
+import static com.nimbusds.jose.HeaderParameterNames.ALGORITHM;
+import static com.nimbusds.jose.HeaderParameterNames.KEY_ID;
+import static com.nimbusds.jose.HeaderParameterNames.X_509_CERT_SHA_1_THUMBPRINT;
+import static com.nimbusds.jose.HeaderParameterNames.X_509_CERT_SHA_256_THUMBPRINT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class KeyRing {
+    private static final long DECRYPTION_POLL_INTERVAL_MILLIS = 50;
+
     private final List<Key> keys;
+    private final ContentEncryptionKeyCache contentEncryptionKeyCache;
+    private final Map<JWSAlgorithm, JWSHeader> verificationHeaders = new ConcurrentHashMap<>();
 
     public KeyRing(List<Key> keys) {
+        this(keys, new ContentEncryptionKeyCache(0));
+    }
+
+    /**
+     * @param keys                      keys to verify and decrypt with
+     * @param contentEncryptionKeyCache cache of CEKs unwrapped by these keys, shared between key rings
+     */
+    public KeyRing(List<Key> keys, ContentEncryptionKeyCache contentEncryptionKeyCache) {
         this.keys = keys;
+        this.contentEncryptionKeyCache = contentEncryptionKeyCache;
     }
 
     public Optional<Key> findVerifyingKey(JWS jws) {
-        for (Key key : keys) {
-            for (JWSAlgorithm signingAlgorithm : key.getSigningAlgorithms()) {
-                JWSHeader verificationInfo = new JWSHeader.Builder(signingAlgorithm).build();
-                try {
-                    if (jws.verify(key, verificationInfo)) {
-                        return Optional.of(key);
-                    }
-                } catch (VerificationException e) {
-                    // Verification failed for this key & algorithm pair
-                }
+        for (VerificationCandidate candidate : verificationCandidates(jws)) {
+            if (verifies(jws, candidate)) {
+                return Optional.of(candidate.key());
             }
         }
 
         return Optional.empty();
     }
 
+    /**
+     * Find a verifying key by spreading the candidate key and algorithm pairs over a fork-join pool. Outstanding
+     * attempts are abandoned as soon as one pair verifies.
+     *
+     * @param jws              JWS to be verified
+     * @param pool             pool to run the verification attempts on
+     * @param progressListener listener notified, from pool threads, as attempts complete
+     * @return the key that verified the JWS, if any
+     */
+    public Optional<Key> findVerifyingKey(JWS jws, ForkJoinPool pool, VerificationProgressListener progressListener) {
+        List<VerificationCandidate> candidates = verificationCandidates(jws);
+
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+
+        VerificationSearch search = new VerificationSearch(candidates.size(), progressListener);
+        pool.invoke(new VerificationTask(jws, candidates, 0, candidates.size(), search));
+
+        return Optional.ofNullable(search.result.get());
+    }
+
     public Optional<JWS> attemptDecryption(JWE jwe) throws ParseException {
-        for (Key key : keys) {
+        JWEHeader header = jwe.parsedHeader();
+
+        for (Key key : decryptionCandidates(header)) {
             try {
-                return Optional.of(jwe.decrypt(key));
-            } catch (DecryptionException e) {
+                return Optional.of(decrypt(jwe, header, key, key.getDecrypter(header.getAlgorithm())));
+            } catch (JOSEException | DecryptionException e) {
                 //Decryption failed for this key
             }
         }
 
         return Optional.empty();
     }
+
+    /**
+     * Attempt decryption with each candidate key in parallel. The first key to decrypt the JWE wins and outstanding
+     * attempts are cancelled. An attempt still running once its budget has elapsed, such as PBES2 with a very large
+     * iteration count, is treated as having failed and is cancelled.
+     *
+     * @param jwe             JWE to be decrypted
+     * @param executorService executor to run the decryption attempts on
+     * @param attemptBudget   time allowed for each attempt once it has started
+     * @return result of the decryption, if any key succeeded
+     * @throws ParseException if the JWE header cannot be parsed
+     */
+    public Optional<JWS> attemptDecryption(JWE jwe, ExecutorService executorService, Duration attemptBudget) throws ParseException {
+        return attemptDecryption(jwe, executorService, attemptBudget, (completed, total) -> {});
+    }
+
+    /**
+     * Attempt decryption with each candidate key in parallel, reporting progress as attempts complete. PBES2 attempts
+     * report progress through their key derivation, weighted by the header's iteration count.
+     *
+     * @param jwe              JWE to be decrypted
+     * @param executorService  executor to run the decryption attempts on
+     * @param attemptBudget    time allowed for each attempt once it has started
+     * @param progressListener listener notified, from executor threads, as the attempts progress
+     * @return result of the decryption, if any key succeeded
+     * @throws ParseException if the JWE header cannot be parsed
+     */
+    public Optional<JWS> attemptDecryption(JWE jwe,
+                                           ExecutorService executorService,
+                                           Duration attemptBudget,
+                                           DecryptionProgressListener progressListener) throws ParseException {
+        JWEHeader header = jwe.parsedHeader();
+        List<Key> candidates = decryptionCandidates(header);
+        CompletionService<Optional<JWS>> completionService = new ExecutorCompletionService<>(executorService);
+        List<DecryptionAttempt> attempts = new ArrayList<>(candidates.size());
+        long attemptWeight = isPBES2(header.getAlgorithm()) ? Math.max(header.getPBES2Count(), 1) : 1;
+        DecryptionProgress progress = new DecryptionProgress(attemptWeight * candidates.size(), progressListener);
+
+        for (Key key : candidates) {
+            DecryptionAttempt attempt = new DecryptionAttempt(jwe, header, key, attemptBudget.toNanos(), attemptWeight, progress);
+            attempt.future = completionService.submit(attempt);
+            attempts.add(attempt);
+        }
+
+        try {
+            int outstanding = attempts.size();
+
+            while (outstanding > 0) {
+                Future<Optional<JWS>> completed = completionService.poll(DECRYPTION_POLL_INTERVAL_MILLIS, MILLISECONDS);
+
+                // Cancelled attempts are queued too, but were counted when they were cancelled
+                if (completed != null && !completed.isCancelled()) {
+                    outstanding--;
+
+                    Optional<JWS> result = completed.get();
+
+                    if (result.isPresent()) {
+                        return result;
+                    }
+                }
+
+                for (DecryptionAttempt attempt : attempts) {
+                    if (attempt.isOverBudget() && attempt.future.cancel(true)) {
+                        outstanding--;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Attempts report failure as an empty result, so this is unexpected
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            attempts.forEach(attempt -> attempt.future.cancel(true));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Select the keys able to decrypt a JWE with the header's alg and enc. Keys matching the header's kid are tried
+     * first, followed by the remaining keys in keystore order.
+     *
+     * @param header parsed JWE header
+     * @return candidate keys in the order they should be attempted
+     */
+    List<Key> decryptionCandidates(JWEHeader header) {
+        List<Key> keyIdMatches = new ArrayList<>();
+        List<Key> otherKeys = new ArrayList<>();
+
+        for (Key key : keys) {
+            if (!canDecrypt(key, header.getAlgorithm(), header.getEncryptionMethod())) {
+                continue;
+            }
+
+            if (header.getKeyID() != null && header.getKeyID().equals(key.getID())) {
+                keyIdMatches.add(key);
+            } else {
+                otherKeys.add(key);
+            }
+        }
+
+        keyIdMatches.addAll(otherKeys);
+
+        return keyIdMatches;
+    }
+
+    /**
+     * Order the key and algorithm pairs to attempt when verifying a JWS. Keys matching the header's kid are tried
+     * first, followed by keys matching a jwk, x5t or x5t#S256 thumbprint from the header, then keys supporting the
+     * header's alg, before falling back to every remaining pair. Each pair appears once.
+     *
+     * @param jws JWS to be verified
+     * @return candidates in the order they should be attempted
+     */
+    List<VerificationCandidate> verificationCandidates(JWS jws) {
+        VerificationHints hints = VerificationHints.from(jws);
+        Set<VerificationCandidate> candidates = new LinkedHashSet<>();
+
+        if (hints.keyId() != null) {
+            for (Key key : keys) {
+                if (hints.keyId().equals(key.getID())) {
+                    addCandidates(candidates, key, hints.algorithm());
+                }
+            }
+        }
+
+        if (hints.hasThumbprints()) {
+            for (Key key : keys) {
+                if (key instanceof JWKKey jwkKey && hints.matchesThumbprint(jwkKey)) {
+                    addCandidates(candidates, key, hints.algorithm());
+                }
+            }
+        }
+
+        if (hints.algorithm() != null) {
+            for (Key key : keys) {
+                if (Arrays.asList(key.getSigningAlgorithms()).contains(hints.algorithm())) {
+                    candidates.add(new VerificationCandidate(key, hints.algorithm()));
+                }
+            }
+        }
+
+        for (Key key : keys) {
+            addCandidates(candidates, key, null);
+        }
+
+        return new ArrayList<>(candidates);
+    }
+
+    private boolean verifies(JWS jws, VerificationCandidate candidate) {
+        JWSHeader verificationInfo = verificationHeaders.computeIfAbsent(
+                candidate.algorithm(),
+                algorithm -> new JWSHeader.Builder(algorithm).build()
+        );
+
+        try {
+            return jws.verify(verifierFor(candidate.key(), candidate.algorithm()), verificationInfo);
+        } catch (VerificationException e) {
+            // Verification failed for this key & algorithm pair
+            return false;
+        }
+    }
+
+    /**
+     * Decrypt using a CEK already unwrapped by the key where possible, otherwise unwrapping and caching it. Algorithms
+     * whose CEK cannot be unwrapped separately, such as OKP key agreement, are decrypted in one step by the decrypter.
+     */
+    private JWS decrypt(JWE jwe, JWEHeader header, Key key, JWEDecrypter decrypter) throws DecryptionException {
+        Base64URL encryptedKey = JWEAlgorithm.DIR.equals(header.getAlgorithm()) ? null : jwe.encodedEncryptedKey();
+        Optional<SecretKey> cek = contentEncryptionKeyCache.get(key.getID(), header, encryptedKey);
+
+        if (cek.isEmpty()) {
+            cek = unwrapCEK(header, encryptedKey, key, decrypter);
+            cek.ifPresent(unwrapped -> contentEncryptionKeyCache.put(key.getID(), header, encryptedKey, unwrapped));
+        }
+
+        return cek.isPresent() ? jwe.decrypt(cek.get(), header) : jwe.decrypt(decrypter, header);
+    }
+
+    private static Optional<SecretKey> unwrapCEK(JWEHeader header, Base64URL encryptedKey, Key key, JWEDecrypter decrypter) throws DecryptionException {
+        if (decrypter instanceof PBES2Decrypter pbes2Decrypter) {
+            try {
+                return Optional.of(pbes2Decrypter.unwrapCEK(header, encryptedKey));
+            } catch (JOSEException e) {
+                throw new DecryptionException("Unable to unwrap CEK");
+            }
+        }
+
+        return ContentEncryptionKey.unwrapCEK(header, encryptedKey, key);
+    }
+
+    private static boolean canDecrypt(Key key, JWEAlgorithm algorithm, EncryptionMethod encryptionMethod) {
+        return Arrays.asList(key.getKeyEncryptionKeyAlgorithms()).contains(algorithm)
+                && Arrays.asList(key.getContentEncryptionKeyAlgorithms(algorithm)).contains(encryptionMethod);
+    }
+
+    private static boolean isPBES2(JWEAlgorithm algorithm) {
+        return JWEAlgorithm.Family.PBES2.contains(algorithm);
+    }
+
+    private static void addCandidates(Set<VerificationCandidate> candidates, Key key, JWSAlgorithm preferredAlgorithm) {
+        JWSAlgorithm[] algorithms = key.getSigningAlgorithms();
+
+        if (preferredAlgorithm != null && Arrays.asList(algorithms).contains(preferredAlgorithm)) {
+            candidates.add(new VerificationCandidate(key, preferredAlgorithm));
+        }
+
+        for (JWSAlgorithm algorithm : algorithms) {
+            candidates.add(new VerificationCandidate(key, algorithm));
+        }
+    }
+
+    record VerificationCandidate(Key key, JWSAlgorithm algorithm) {
+    }
+
+    private class DecryptionAttempt implements Callable<Optional<JWS>> {
+        private final JWE jwe;
+        private final JWEHeader header;
+        private final Key key;
+        private final long budgetNanos;
+        private final long weight;
+        private final DecryptionProgress progress;
+
+        private volatile long startNanos;
+        private volatile boolean started;
+        private long reported;
+        private Future<Optional<JWS>> future;
+
+        private DecryptionAttempt(JWE jwe, JWEHeader header, Key key, long budgetNanos, long weight, DecryptionProgress progress) {
+            this.jwe = jwe;
+            this.header = header;
+            this.key = key;
+            this.budgetNanos = budgetNanos;
+            this.weight = weight;
+            this.progress = progress;
+        }
+
+        @Override
+        public Optional<JWS> call() {
+            startNanos = System.nanoTime();
+            started = true;
+
+            try {
+                JWEDecrypter decrypter = key.getDecrypter(header.getAlgorithm());
+
+                if (decrypter instanceof PBES2Decrypter pbes2Decrypter) {
+                    pbes2Decrypter.setProgressListener((iterationsCompleted, iterations) -> progressTo(iterationsCompleted));
+                }
+
+                return Optional.of(decrypt(jwe, header, key, decrypter));
+            } catch (JOSEException | DecryptionException e) {
+                return Optional.empty();
+            } finally {
+                progressTo(weight);
+            }
+        }
+
+        private boolean isOverBudget() {
+            return started && System.nanoTime() - startNanos > budgetNanos;
+        }
+
+        // Only called from the thread running the attempt
+        private void progressTo(long value) {
+            long capped = Math.min(value, weight);
+
+            if (capped > reported) {
+                progress.advance(capped - reported);
+                reported = capped;
+            }
+        }
+    }
+
+    private static class DecryptionProgress {
+        private final AtomicLong completed = new AtomicLong();
+        private final long total;
+        private final DecryptionProgressListener progressListener;
+
+        private DecryptionProgress(long total, DecryptionProgressListener progressListener) {
+            this.total = total;
+            this.progressListener = progressListener;
+        }
+
+        private void advance(long amount) {
+            progressListener.onProgress(completed.addAndGet(amount), total);
+        }
+    }
+
+    private static class VerificationSearch {
+        private final AtomicReference<Key> result = new AtomicReference<>();
+        private final AtomicInteger attempted = new AtomicInteger();
+        private final int total;
+        private final VerificationProgressListener progressListener;
+
+        private VerificationSearch(int total, VerificationProgressListener progressListener) {
+            this.total = total;
+            this.progressListener = progressListener;
+        }
+
+        private boolean isComplete() {
+            return result.get() != null;
+        }
+
+        private void attempted(Key key, boolean verified) {
+            if (verified) {
+                result.compareAndSet(null, key);
+            }
+
+            progressListener.onProgress(attempted.incrementAndGet(), total);
+        }
+    }
+
+    // ForkJoinTask is Serializable, but tasks are never serialized
+    @SuppressWarnings("serial")
+    private class VerificationTask extends RecursiveAction {
+        private static final int SEQUENTIAL_THRESHOLD = 8;
+
+        private final JWS jws;
+        private final List<VerificationCandidate> candidates;
+        private final int start;
+        private final int end;
+        private final VerificationSearch search;
+
+        private VerificationTask(JWS jws, List<VerificationCandidate> candidates, int start, int end, VerificationSearch search) {
+            this.jws = jws;
+            this.candidates = candidates;
+            this.start = start;
+            this.end = end;
+            this.search = search;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.isComplete()) {
+                return;
+            }
+
+            if (end - start <= SEQUENTIAL_THRESHOLD) {
+                for (int i = start; i < end && !search.isComplete(); i++) {
+                    VerificationCandidate candidate = candidates.get(i);
+                    search.attempted(candidate.key(), verifies(jws, candidate));
+                }
+
+                return;
+            }
+
+            // The first half runs on this thread, so the highest priority candidates are still attempted first
+            int middle = (start + end) >>> 1;
+
+            invokeAll(
+                    new VerificationTask(jws, candidates, start, middle, search),
+                    new VerificationTask(jws, candidates, middle, end, search)
+            );
+        }
+    }
+
+    private record VerificationHints(String keyId,
+                                     JWSAlgorithm algorithm,
+                                     Base64URL jwkThumbprint,
+                                     Base64URL x509Thumbprint,
+                                     Base64URL x509SHA256Thumbprint) {
+
+        static VerificationHints from(JWS jws) {
+            JSONObject header;
+
+            try {
+                header = jws.header().json();
+            } catch (JSONException e) {
+                return new VerificationHints(null, null, null, null, null);
+            }
+
+            String algorithm = header.optString(ALGORITHM, null);
+
+            return new VerificationHints(
+                    header.optString(KEY_ID, null),
+                    algorithm == null ? null : JWSAlgorithm.parse(algorithm),
+                    embeddedJWKThumbprint(header),
+                    base64URL(header.optString(X_509_CERT_SHA_1_THUMBPRINT, null)),
+                    base64URL(header.optString(X_509_CERT_SHA_256_THUMBPRINT, null))
+            );
+        }
+
+        boolean hasThumbprints() {
+            return jwkThumbprint != null || x509Thumbprint != null || x509SHA256Thumbprint != null;
+        }
+
+        @SuppressWarnings("deprecation")
+        boolean matchesThumbprint(JWKKey key) {
+            if (jwkThumbprint != null && jwkThumbprint.equals(key.getThumbprint())) {
+                return true;
+            }
+
+            // Only the x5t thumbprints need the JWK, which a stored key that can no longer be parsed does not have
+            if ((x509Thumbprint == null && x509SHA256Thumbprint == null) || !key.hasJWK()) {
+                return false;
+            }
+
+            JWK jwk = key.getJWK();
+
+            if (x509Thumbprint != null && x509Thumbprint.equals(x509Thumbprint(jwk, "SHA-1", jwk.getX509CertThumbprint()))) {
+                return true;
+            }
+
+            return x509SHA256Thumbprint != null && x509SHA256Thumbprint.equals(x509Thumbprint(jwk, "SHA-256", jwk.getX509CertSHA256Thumbprint()));
+        }
+
+        private static Base64URL embeddedJWKThumbprint(JSONObject header) {
+            JSONObject jwk = header.optJSONObject(HeaderParameterNames.JWK);
+
+            if (jwk == null) {
+                return null;
+            }
+
+            try {
+                return thumbprint(JWK.parse(jwk.toMap()));
+            } catch (ParseException e) {
+                return null;
+            }
+        }
+
+        private static Base64URL thumbprint(JWK jwk) {
+            try {
+                return jwk.computeThumbprint();
+            } catch (JOSEException e) {
+                return null;
+            }
+        }
+
+        private static Base64URL x509Thumbprint(JWK jwk, String digestAlgorithm, Base64URL declaredThumbprint) {
+            if (declaredThumbprint != null) {
+                return declaredThumbprint;
+            }
+
+            List<Base64> certificateChain = jwk.getX509CertChain();
+
+            if (certificateChain == null || certificateChain.isEmpty()) {
+                return null;
+            }
+
+            try {
+                byte[] digest = MessageDigest.getInstance(digestAlgorithm).digest(certificateChain.get(0).decode());
+                return Base64URL.encode(digest);
+            } catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+        }
+
+        private static Base64URL base64URL(String value) {
+            return value == null || value.isEmpty() ? null : new Base64URL(value);
+        }
+    }
 }
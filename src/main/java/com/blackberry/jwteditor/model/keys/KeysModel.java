@@ -19,36 +19,48 @@ limitations under the License.
 package com.blackberry.jwteditor.model.keys;
 
 import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKeyCache;
+import com.nimbusds.jose.util.Base64URL;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.*;
+import java.util.function.Predicate;
 
-import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.emptyList;
 
 /**
- * A container class for Key objects
+ * A container class for Key objects. Keys are held in insertion order, with an ID to position map and secondary
+ * indexes by key type, capability and JWK thumbprint so that lookups do not scan the keystore.
  */
 public class KeysModel implements KeysRepository {
-    private final Map<String, Key> keys;
+    private static final int CONTENT_ENCRYPTION_KEY_CACHE_SIZE = 256;
+
+    private final List<Key> keys;
+    private final Map<String, Integer> positions;
+    private final Map<Capability, Set<Key>> keysByCapability;
+    private final Map<KeyType, Set<Key>> keysByType;
+    private final Map<Base64URL, Set<Key>> keysByThumbprint;
+    private final ContentEncryptionKeyCache contentEncryptionKeyCache;
     private final Object lock;
 
     private final List<KeysModelListener> modelListeners;
 
     public KeysModel() {
-        this.keys = new LinkedHashMap<>();
+        this.keys = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.keysByCapability = new EnumMap<>(Capability.class);
+        this.keysByType = new EnumMap<>(KeyType.class);
+        this.keysByThumbprint = new HashMap<>();
+        this.contentEncryptionKeyCache = new ContentEncryptionKeyCache(CONTENT_ENCRYPTION_KEY_CACHE_SIZE);
         this.modelListeners = new ArrayList<>();
         this.lock = new Object();
     }
 
     public Iterable<Key> keys() {
         synchronized (lock) {
-            return unmodifiableCollection(keys.values());
+            return List.copyOf(keys);
         }
     }
 
@@ -82,7 +94,7 @@ public class KeysModel implements KeysRepository {
         JSONArray jsonArray = new JSONArray();
 
         synchronized (lock) {
-            keys.values().stream().map(Key::toJSONObject).forEach(jsonArray::put);
+            keys.stream().map(Key::toJSONObject).forEach(jsonArray::put);
         }
 
         return jsonArray.toString();
@@ -90,29 +102,39 @@ public class KeysModel implements KeysRepository {
 
     @Override
     public List<Key> getSigningKeys() {
-        synchronized (lock) {
-            return keys.values().stream().filter(Key::canSign).toList();
-        }
+        return keysWith(Capability.SIGN);
     }
 
     @Override
     public List<Key> getVerificationKeys() {
-        synchronized (lock) {
-            return keys.values().stream().filter(Key::canVerify).toList();
-        }
+        return keysWith(Capability.VERIFY);
     }
 
     @Override
     public List<Key> getEncryptionKeys() {
-        synchronized (lock) {
-            return keys.values().stream().filter(Key::canEncrypt).toList();
-        }
+        return keysWith(Capability.ENCRYPT);
     }
 
     @Override
     public List<Key> getDecryptionKeys() {
+        return keysWith(Capability.DECRYPT);
+    }
+
+    public List<Key> getKeys(KeyType keyType) {
+        synchronized (lock) {
+            return copyOf(keysByType.get(keyType));
+        }
+    }
+
+    /**
+     * Find the JWK keys with a given RFC 7638 thumbprint
+     *
+     * @param thumbprint SHA-256 JWK thumbprint
+     * @return keys with the thumbprint, in insertion order
+     */
+    public List<Key> getKeysWithThumbprint(Base64URL thumbprint) {
         synchronized (lock) {
-            return keys.values().stream().filter(Key::canDecrypt).toList();
+            return copyOf(keysByThumbprint.get(thumbprint));
         }
     }
 
@@ -120,7 +142,17 @@ public class KeysModel implements KeysRepository {
         Key oldKey;
 
         synchronized (lock) {
-            oldKey = keys.put(key.getID(), key);
+            Integer oldPosition = positions.get(key.getID());
+            oldKey = oldPosition == null ? null : keys.get(oldPosition);
+
+            // A replaced key moves to the end, matching where listeners append the new key
+            if (oldPosition != null) {
+                removeAt(oldPosition);
+            }
+
+            positions.put(key.getID(), keys.size());
+            keys.add(key);
+            index(key);
         }
 
         for (KeysModelListener modelListener : modelListeners) {
@@ -132,26 +164,61 @@ public class KeysModel implements KeysRepository {
         }
     }
 
-    private int findIndexOfKeyWithId(String id) {
-        int i = 0;
+    /**
+     * Add several keys, notifying listeners with a single batch insertion. Keys replacing one with the same ID are
+     * reported as a deletion of the old key first, as with {@link #addKey(Key)}.
+     *
+     * @param newKeys keys to add
+     */
+    public void addKeys(Collection<Key> newKeys) {
+        Map<String, Key> keysById = new LinkedHashMap<>();
+
+        // Later keys with the same ID replace earlier ones and move to their position, as sequential adds would
+        for (Key key : newKeys) {
+            keysById.remove(key.getID());
+            keysById.put(key.getID(), key);
+        }
+
+        List<Key> replacedKeys = new ArrayList<>();
+        List<Key> addedKeys = List.copyOf(keysById.values());
 
-        for (Key key : keys.values()) {
-            if (key.getID().equals(id)) {
-                return i;
+        if (addedKeys.isEmpty()) {
+            return;
+        }
+
+        synchronized (lock) {
+            for (Key key : addedKeys) {
+                Integer oldPosition = positions.get(key.getID());
+
+                if (oldPosition != null) {
+                    replacedKeys.add(keys.get(oldPosition));
+                    removeAt(oldPosition);
+                }
             }
 
-            i++;
+            for (Key key : addedKeys) {
+                positions.put(key.getID(), keys.size());
+                keys.add(key);
+                index(key);
+            }
         }
 
-        return -1;
+        for (KeysModelListener modelListener : modelListeners) {
+            replacedKeys.forEach(modelListener::notifyKeyDeleted);
+            modelListener.notifyKeysInserted(addedKeys);
+        }
     }
 
     public void deleteKey(String keyId) {
         int rowIndex;
 
         synchronized (lock) {
-            rowIndex = findIndexOfKeyWithId(keyId);
-            keys.remove(keyId);
+            Integer position = positions.get(keyId);
+            rowIndex = position == null ? -1 : position;
+
+            if (position != null) {
+                removeAt(position);
+            }
         }
 
         if (rowIndex >= 0) {
@@ -162,32 +229,167 @@ public class KeysModel implements KeysRepository {
     }
 
     public void deleteKeys(int[] indices) {
+        int[] rowIndices;
+
         synchronized (lock) {
-            List<String> idsToDelete = IntStream.of(indices).mapToObj(this::getKey).map(Key::getID).toList();
+            BitSet deleted = new BitSet(keys.size());
+
+            for (int index : indices) {
+                if (index >= 0 && index < keys.size()) {
+                    deleted.set(index);
+                }
+            }
 
-            for (String id : idsToDelete) {
-                deleteKey(id);
+            // Notify from the highest row down so that each index is still valid when it is reported
+            rowIndices = new int[deleted.cardinality()];
+
+            for (int i = deleted.length() - 1, j = 0; i >= 0; i = deleted.previousSetBit(i - 1)) {
+                rowIndices[j++] = i;
+            }
+
+            if (rowIndices.length == 0) {
+                return;
+            }
+
+            List<Key> retained = new ArrayList<>(keys.size() - rowIndices.length);
+
+            for (int i = 0; i < keys.size(); i++) {
+                Key key = keys.get(i);
+
+                if (deleted.get(i)) {
+                    positions.remove(key.getID());
+                    unindex(key);
+                } else {
+                    retained.add(key);
+                }
+            }
+
+            keys.clear();
+            keys.addAll(retained);
+            reindexPositionsFrom(0);
+        }
+
+        for (int rowIndex : rowIndices) {
+            for (KeysModelListener modelListener : this.modelListeners) {
+                modelListener.notifyKeyDeleted(rowIndex);
             }
         }
     }
 
     public Key getKey(int index) {
         synchronized (lock) {
-            String key = (String) keys.keySet().toArray()[index];
-            return keys.get(key);
+            return keys.get(index);
         }
     }
 
     @Override
     public Key getKey(String keyId) {
         synchronized (lock) {
-            return keys.get(keyId);
+            Integer position = positions.get(keyId);
+            return position == null ? null : keys.get(position);
         }
     }
 
+    /**
+     * Get the cache of CEKs unwrapped by keys in this model. Entries for a key are invalidated when it is removed or
+     * replaced.
+     *
+     * @return the CEK cache
+     */
+    @Override
+    public ContentEncryptionKeyCache getContentEncryptionKeyCache() {
+        return contentEncryptionKeyCache;
+    }
+
     public boolean keyExists(String keyId) {
         synchronized (lock) {
-            return keys.get(keyId) != null;
+            return positions.containsKey(keyId);
+        }
+    }
+
+    private List<Key> keysWith(Capability capability) {
+        synchronized (lock) {
+            return copyOf(keysByCapability.get(capability));
+        }
+    }
+
+    private void removeAt(int position) {
+        Key key = keys.remove(position);
+        positions.remove(key.getID());
+        unindex(key);
+        reindexPositionsFrom(position);
+    }
+
+    private void reindexPositionsFrom(int position) {
+        for (int i = position; i < keys.size(); i++) {
+            positions.put(keys.get(i).getID(), i);
+        }
+    }
+
+    private void index(Key key) {
+        for (Capability capability : Capability.values()) {
+            if (capability.test(key)) {
+                keysByCapability.computeIfAbsent(capability, c -> new LinkedHashSet<>()).add(key);
+            }
+        }
+
+        if (key instanceof JWKKey jwkKey) {
+            keysByType.computeIfAbsent(jwkKey.getKeyType(), t -> new LinkedHashSet<>()).add(key);
+
+            Base64URL thumbprint = jwkKey.getThumbprint();
+
+            if (thumbprint != null) {
+                keysByThumbprint.computeIfAbsent(thumbprint, t -> new LinkedHashSet<>()).add(key);
+            }
+        }
+    }
+
+    private void unindex(Key key) {
+        keysByCapability.values().forEach(indexedKeys -> indexedKeys.remove(key));
+        contentEncryptionKeyCache.invalidate(key.getID());
+
+        if (key instanceof JWKKey jwkKey) {
+            removeFromIndex(keysByType, jwkKey.getKeyType(), key);
+
+            Base64URL thumbprint = jwkKey.getThumbprint();
+
+            if (thumbprint != null) {
+                removeFromIndex(keysByThumbprint, thumbprint, key);
+            }
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<Key>> index, K indexKey, Key key) {
+        Set<Key> indexedKeys = index.get(indexKey);
+
+        if (indexedKeys != null) {
+            indexedKeys.remove(key);
+
+            if (indexedKeys.isEmpty()) {
+                index.remove(indexKey);
+            }
+        }
+    }
+
+    private static List<Key> copyOf(Set<Key> indexedKeys) {
+        return indexedKeys == null ? emptyList() : List.copyOf(indexedKeys);
+    }
+
+    private enum Capability implements Predicate<Key> {
+        SIGN(Key::canSign),
+        VERIFY(Key::canVerify),
+        ENCRYPT(Key::canEncrypt),
+        DECRYPT(Key::canDecrypt);
+
+        private final Predicate<Key> predicate;
+
+        Capability(Predicate<Key> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(Key key) {
+            return predicate.test(key);
         }
     }
 }
@@ -1,8 +1,14 @@
 package com.blackberry.jwteditor.model.keys;
 
+import java.util.List;
+
 public interface KeysModelListener {
     void notifyKeyInserted(Key key);
 
+    default void notifyKeysInserted(List<Key> keys) {
+        keys.forEach(this::notifyKeyInserted);
+    }
+
     void notifyKeyDeleted(int rowIndex);
 
     void notifyKeyDeleted(Key key);
@@ -33,6 +39,11 @@ public interface KeysModelListener {
             action.run();
         }
 
+        @Override
+        public void notifyKeysInserted(List<Key> keys) {
+            action.run();
+        }
+
         @Override
         public void notifyKeyDeleted(int rowIndex) {
             action.run();
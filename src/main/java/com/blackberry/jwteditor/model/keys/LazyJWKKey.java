@@ -0,0 +1,251 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.keys;
+
+
+import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONObject;
+
+import java.security.Provider;
+import java.text.ParseException;
+import java.util.Optional;
+
+/**
+ * JWK key loaded from storage whose JWK is only parsed on first use. Listing, indexing and describing the key is
+ * answered from metadata captured when the key was saved.
+ * <p>
+ * If the stored JWK can no longer be parsed, the key supports no algorithms, so it is never a candidate for signing,
+ * verification, encryption or decryption.
+ */
+public class LazyJWKKey implements JWKKey {
+    private static final JWSAlgorithm[] NO_SIGNING_ALGORITHMS = new JWSAlgorithm[0];
+    private static final JWEAlgorithm[] NO_KEY_ENCRYPTION_KEY_ALGORITHMS = new JWEAlgorithm[0];
+    private static final EncryptionMethod[] NO_CONTENT_ENCRYPTION_KEY_ALGORITHMS = new EncryptionMethod[0];
+
+    private final Metadata metadata;
+    private final String json;
+    private final Object lock = new Object();
+
+    private volatile JWKKey key;
+    private volatile Exception loadFailure;
+
+    public LazyJWKKey(Metadata metadata, String json) {
+        this.metadata = metadata;
+        this.json = json;
+    }
+
+    /**
+     * Parse the JWK if this has not been attempted already
+     * @return the parsed key, or empty if the stored JWK can no longer be parsed
+     */
+    public Optional<JWKKey> materialize() {
+        JWKKey result = key;
+
+        if (result == null && loadFailure == null) {
+            synchronized (lock) {
+                result = key;
+
+                if (result == null && loadFailure == null) {
+                    try {
+                        result = JWKKeyFactory.from(JWK.parse(json));
+                        key = result;
+                    } catch (ParseException | UnsupportedKeyException e) {
+                        loadFailure = e;
+                    }
+                }
+            }
+        }
+
+        return Optional.ofNullable(result);
+    }
+
+    public boolean isMaterialized() {
+        return key != null;
+    }
+
+    /**
+     * @return the reason the stored JWK could not be parsed, or empty if it has been parsed or not yet attempted
+     */
+    public Optional<Exception> loadFailure() {
+        return Optional.ofNullable(loadFailure);
+    }
+
+    @Override
+    public JWK getJWK() {
+        return materialize()
+                .orElseThrow(() -> new IllegalStateException("Unable to load key " + metadata.id(), loadFailure))
+                .getJWK();
+    }
+
+    @Override
+    public KeyType getKeyType() {
+        return metadata.keyType();
+    }
+
+    @Override
+    public Base64URL getThumbprint() {
+        return metadata.thumbprint();
+    }
+
+    @Override
+    public String getID() {
+        return metadata.id();
+    }
+
+    @Override
+    public String getDescription() {
+        return metadata.description();
+    }
+
+    @Override
+    public boolean isPublic() {
+        return metadata.isPublic();
+    }
+
+    @Override
+    public boolean isPrivate() {
+        return metadata.isPrivate();
+    }
+
+    @Override
+    public boolean canSign() {
+        return metadata.canSign() && loadFailure == null;
+    }
+
+    @Override
+    public boolean canVerify() {
+        return metadata.canVerify() && loadFailure == null;
+    }
+
+    @Override
+    public boolean canEncrypt() {
+        return metadata.canEncrypt() && loadFailure == null;
+    }
+
+    @Override
+    public boolean canDecrypt() {
+        return metadata.canDecrypt() && loadFailure == null;
+    }
+
+    @Override
+    public boolean hasJWK() {
+        return materialize().isPresent();
+    }
+
+    @Override
+    public boolean canConvertToPem() {
+        return metadata.canConvertToPem() && loadFailure == null;
+    }
+
+    @Override
+    public JWSAlgorithm[] getSigningAlgorithms() {
+        return materialize().map(JWKKey::getSigningAlgorithms).orElse(NO_SIGNING_ALGORITHMS);
+    }
+
+    @Override
+    public JWEAlgorithm[] getKeyEncryptionKeyAlgorithms() {
+        return materialize().map(JWKKey::getKeyEncryptionKeyAlgorithms).orElse(NO_KEY_ENCRYPTION_KEY_ALGORITHMS);
+    }
+
+    @Override
+    public EncryptionMethod[] getContentEncryptionKeyAlgorithms(JWEAlgorithm keyEncryptionKeyAlgorithm) {
+        return materialize()
+                .map(jwkKey -> jwkKey.getContentEncryptionKeyAlgorithms(keyEncryptionKeyAlgorithm))
+                .orElse(NO_CONTENT_ENCRYPTION_KEY_ALGORITHMS);
+    }
+
+    @Override
+    public JWSSigner getSigner() throws JOSEException {
+        return loadedKey().getSigner();
+    }
+
+    @Override
+    public JWSVerifier getVerifier() throws JOSEException {
+        return loadedKey().getVerifier();
+    }
+
+    @Override
+    public JWSSigner getSigner(Provider provider) throws JOSEException {
+        return loadedKey().getSigner(provider);
+    }
+
+    @Override
+    public JWSVerifier getVerifier(Provider provider) throws JOSEException {
+        return loadedKey().getVerifier(provider);
+    }
+
+    @Override
+    public JWEEncrypter getEncrypter(JWEAlgorithm kekAlgorithm) throws JOSEException {
+        return loadedKey().getEncrypter(kekAlgorithm);
+    }
+
+    @Override
+    public JWEDecrypter getDecrypter(JWEAlgorithm kekAlgorithm) throws JOSEException {
+        return loadedKey().getDecrypter(kekAlgorithm);
+    }
+
+    private JWKKey loadedKey() throws JOSEException {
+        return materialize().orElseThrow(() -> new JOSEException("Unable to load key " + metadata.id(), loadFailure));
+    }
+
+    @Override
+    public JSONObject toJSONObject() {
+        return new JSONObject(json);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s)", getID(), getDescription());
+    }
+
+    /**
+     * Details of a key needed to list and index it without parsing its JWK
+     */
+    public record Metadata(String id,
+                           String description,
+                           KeyType keyType,
+                           Base64URL thumbprint,
+                           boolean isPublic,
+                           boolean isPrivate,
+                           boolean canSign,
+                           boolean canVerify,
+                           boolean canEncrypt,
+                           boolean canDecrypt,
+                           boolean canConvertToPem) {
+
+        public static Metadata from(JWKKey key) {
+            return new Metadata(
+                    key.getID(),
+                    key.getDescription(),
+                    key.getKeyType(),
+                    key.getThumbprint(),
+                    key.isPublic(),
+                    key.isPrivate(),
+                    key.canSign(),
+                    key.canVerify(),
+                    key.canEncrypt(),
+                    key.canDecrypt(),
+                    key.canConvertToPem()
+            );
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.keys;
+
+
+import com.nimbusds.jose.JOSEException;
+
+/**
+ * Lazily computed value. Concurrent first calls may each compute the value, so initialisers must be side effect free.
+ */
+class Memoized<T> {
+    interface Initializer<T> {
+        T initialize() throws JOSEException;
+    }
+
+    private final Initializer<T> initializer;
+    private volatile T value;
+
+    Memoized(Initializer<T> initializer) {
+        this.initializer = initializer;
+    }
+
+    T get() throws JOSEException {
+        T result = value;
+
+        if (result == null) {
+            result = initializer.initialize();
+            value = result;
+        }
+
+        return result;
+    }
+}
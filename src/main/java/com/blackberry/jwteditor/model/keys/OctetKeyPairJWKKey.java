@@ -81,12 +81,12 @@ class OctetKeyPairJWKKey extends AbstractJWKKey {
     }
 
     @Override
-    public JWSSigner getSigner() throws JOSEException {
+    JWSSigner createSigner() throws JOSEException {
         return new OKPSigner(octetKeyPair);
     }
 
     @Override
-    public JWSVerifier getVerifier() throws JOSEException {
+    JWSVerifier createVerifier() throws JOSEException {
         return new OKPVerifier(octetKeyPair.toPublicJWK());
     }
 
@@ -73,13 +73,13 @@ class OctetSequenceKeyJWKKey extends AbstractJWKKey {
     }
 
     @Override
-    public JWSSigner getSigner() throws JOSEException {
+    JWSSigner createSigner() throws JOSEException {
         byte[] key = padKeyIfNecessary(octetSequenceKey);
         return new MACSigner(key);
     }
 
     @Override
-    public JWSVerifier getVerifier() throws JOSEException {
+    JWSVerifier createVerifier() throws JOSEException {
         byte[] key = padKeyIfNecessary(octetSequenceKey);
         return new MACVerifier(key);
     }
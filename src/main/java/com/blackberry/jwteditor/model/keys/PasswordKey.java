@@ -18,12 +18,14 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.keys;
 
+import com.blackberry.jwteditor.cryptography.PBES2Decrypter;
 import com.blackberry.jwteditor.utils.Utils;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.PasswordBasedDecrypter;
 import com.nimbusds.jose.crypto.PasswordBasedEncrypter;
 import org.json.JSONObject;
 
+import java.security.Provider;
+
 /**
  * Class for password-based secrets
  */
@@ -206,6 +208,16 @@ public class PasswordKey implements Key {
         throw new IllegalStateException("Unreachable - Passwords cannot be used to verify");
     }
 
+    @Override
+    public JWSSigner getSigner(Provider provider) {
+        return getSigner();
+    }
+
+    @Override
+    public JWSVerifier getVerifier(Provider provider) {
+        return getVerifier();
+    }
+
     /**
      * Get the appropriate encrypter for the key type
      *
@@ -223,7 +235,7 @@ public class PasswordKey implements Key {
      */
     @Override
     public JWEDecrypter getDecrypter(JWEAlgorithm kekAlgorithm) {
-        return new PasswordBasedDecrypter(password);
+        return new PBES2Decrypter(password);
     }
 
     /**
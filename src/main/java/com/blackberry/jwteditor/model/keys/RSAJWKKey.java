@@ -25,12 +25,19 @@ import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jose.jwk.RSAKey;
 
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+
 class RSAJWKKey extends AbstractJWKKey {
     private final RSAKey rsaKey;
+    private final Memoized<RSAPublicKey> publicKey;
+    private final Memoized<RSAPrivateKey> privateKey;
 
     RSAJWKKey(RSAKey rsaKey) {
         super(rsaKey, KeyType.RSA);
         this.rsaKey = rsaKey;
+        this.publicKey = new Memoized<>(rsaKey::toRSAPublicKey);
+        this.privateKey = new Memoized<>(rsaKey::toRSAPrivateKey);
     }
 
     @Override
@@ -60,24 +67,24 @@ class RSAJWKKey extends AbstractJWKKey {
 
     @Override
     public JWEEncrypter getEncrypter(JWEAlgorithm kekAlgorithm) throws JOSEException {
-        return new RSAEncrypter(rsaKey.toRSAPublicKey());
+        return new RSAEncrypter(publicKey.get());
     }
 
     @Override
     public JWEDecrypter getDecrypter(JWEAlgorithm kekAlgorithm) throws JOSEException {
-        return new RSADecrypter(rsaKey.toRSAPrivateKey());
+        return new RSADecrypter(privateKey.get());
     }
 
     @Override
-    public JWSSigner getSigner() throws JOSEException {
+    JWSSigner createSigner() throws JOSEException {
         // Allow < 2048-bit keys
         //noinspection deprecation
-        return new RSASSASigner(rsaKey.toRSAPrivateKey(), true);
+        return new RSASSASigner(privateKey.get(), true);
     }
 
     @Override
-    public JWSVerifier getVerifier() throws JOSEException {
-        return new RSASSAVerifier(rsaKey.toRSAPublicKey());
+    JWSVerifier createVerifier() throws JOSEException {
+        return new RSASSAVerifier(publicKey.get());
     }
 
     @Override
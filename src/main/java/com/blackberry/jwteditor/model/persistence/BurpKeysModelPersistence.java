@@ -18,26 +18,245 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.persistence;
 
+import burp.api.montoya.logging.Logging;
 import burp.api.montoya.persistence.Preferences;
-import com.blackberry.jwteditor.model.keys.KeysModel;
+import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
+import com.blackberry.jwteditor.model.keys.*;
+import com.blackberry.jwteditor.model.keys.KeysModelListener.InertKeysModelListener;
+import com.blackberry.jwteditor.model.keys.LazyJWKKey.Metadata;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Keystore persistence storing each key in its own Burp preference, alongside an index of key IDs. Saves are
+ * coalesced over a short window and written on a background thread, only touching the entries that changed.
+ * <p>
+ * The index also holds the metadata needed to list each JWK, so loading does not parse any JWKs. They are parsed on
+ * first use, or by a low priority background thread after loading, which logs any that can no longer be parsed.
+ */
 public class BurpKeysModelPersistence implements KeysModelPersistence {
-    private static final String KEYSTORE_SETTINGS_NAME = "com.blackberry.jwteditor.keystore";
+    static final String KEYSTORE_SETTINGS_NAME = "com.blackberry.jwteditor.keystore";
+    static final String KEYSTORE_INDEX_NAME = KEYSTORE_SETTINGS_NAME + ".index";
+    static final String KEYSTORE_KEY_PREFIX = KEYSTORE_SETTINGS_NAME + ".key.";
+    private static final long SAVE_DELAY_MILLIS = 500;
+    private static final String WARM_UP_THREAD_NAME = "JWT Editor keystore loader";
+    private static final String ID = "id"; //NON-NLS
+    private static final String KEY_TYPE = "kty"; //NON-NLS
+    private static final String DESCRIPTION = "description"; //NON-NLS
+    private static final String THUMBPRINT = "thumbprint"; //NON-NLS
+    private static final String PUBLIC = "public"; //NON-NLS
+    private static final String PRIVATE = "private"; //NON-NLS
+    private static final String SIGN = "sign"; //NON-NLS
+    private static final String VERIFY = "verify"; //NON-NLS
+    private static final String ENCRYPT = "encrypt"; //NON-NLS
+    private static final String DECRYPT = "decrypt"; //NON-NLS
+    private static final String PEM = "pem"; //NON-NLS
 
     private final Preferences preferences;
+    private final Logging logging;
+    private final ScheduledExecutorService executorService;
+    private final long saveDelayMillis;
+    private final Executor warmUpExecutor;
+    private final Object pendingLock = new Object();
+    private final Object writeLock = new Object();
+    private final Set<String> changedKeyIds = new HashSet<>();
+
+    private KeysModel pendingModel;
+    private ScheduledFuture<?> pendingSave;
+    private List<String> persistedKeyIds = new ArrayList<>();
+    private Map<String, JSONObject> persistedIndexEntries = new HashMap<>();
+    private boolean legacyKeystorePresent;
 
-    public BurpKeysModelPersistence(Preferences preferences) {
+    public BurpKeysModelPersistence(Preferences preferences, Logging logging) {
+        this(preferences, logging, newSingleThreadScheduledExecutor(), SAVE_DELAY_MILLIS, BurpKeysModelPersistence::startWarmUpThread);
+    }
+
+    BurpKeysModelPersistence(Preferences preferences,
+                             Logging logging,
+                             ScheduledExecutorService executorService,
+                             long saveDelayMillis,
+                             Executor warmUpExecutor) {
         this.preferences = preferences;
+        this.logging = logging;
+        this.executorService = executorService;
+        this.saveDelayMillis = saveDelayMillis;
+        this.warmUpExecutor = warmUpExecutor;
     }
 
     @Override
     public KeysModel loadOrCreateNew() {
+        String index = preferences.getString(KEYSTORE_INDEX_NAME);
+        KeysModel model = index == null ? loadLegacyKeystore() : loadKeyEntries(index);
+
+        // Track keys added or replaced so that only their entries are rewritten
+        model.addKeyModelListener(new InertKeysModelListener() {
+            @Override
+            public void notifyKeyInserted(Key key) {
+                synchronized (pendingLock) {
+                    changedKeyIds.add(key.getID());
+                }
+            }
+        });
+
+        return model;
+    }
+
+    @Override
+    public void save(KeysModel model) {
+        synchronized (pendingLock) {
+            pendingModel = model;
+
+            if (pendingSave == null) {
+                try {
+                    pendingSave = executorService.schedule(this::flush, saveDelayMillis, MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Already closed, the final flush has happened
+                }
+            }
+        }
+    }
+
+    /**
+     * Write any pending changes to the keystore immediately
+     */
+    public void flush() {
+        KeysModel model;
+        Set<String> changed;
+
+        synchronized (pendingLock) {
+            model = pendingModel;
+            changed = new HashSet<>(changedKeyIds);
+
+            pendingModel = null;
+            pendingSave = null;
+            changedKeyIds.clear();
+        }
+
+        if (model != null) {
+            synchronized (writeLock) {
+                write(model, changed);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        executorService.shutdown();
+    }
+
+    private void write(KeysModel model, Set<String> changedKeyIds) {
+        List<String> keyIds = new ArrayList<>();
+        Set<String> previousKeyIds = new HashSet<>(persistedKeyIds);
+        Map<String, JSONObject> indexEntries = new HashMap<>();
+        JSONArray index = new JSONArray();
+        boolean indexChanged = false;
+
+        // Write new and changed entries before the index, so the index never references a missing entry
+        for (Key key : model.keys()) {
+            String keyId = key.getID();
+            boolean keyChanged = changedKeyIds.contains(keyId) || !previousKeyIds.contains(keyId);
+            JSONObject indexEntry = keyChanged ? null : persistedIndexEntries.get(keyId);
+
+            if (keyChanged) {
+                preferences.setString(entryName(keyId), key.toJSONObject().toString());
+            }
+
+            if (indexEntry == null) {
+                indexEntry = indexEntry(key);
+                indexChanged = true;
+            }
+
+            keyIds.add(keyId);
+            indexEntries.put(keyId, indexEntry);
+            index.put(indexEntry);
+        }
+
+        if (indexChanged || !keyIds.equals(persistedKeyIds)) {
+            preferences.setString(KEYSTORE_INDEX_NAME, index.toString());
+        }
+
+        previousKeyIds.removeAll(keyIds);
+
+        for (String deletedKeyId : previousKeyIds) {
+            preferences.deleteString(entryName(deletedKeyId));
+        }
+
+        if (legacyKeystorePresent) {
+            preferences.deleteString(KEYSTORE_SETTINGS_NAME);
+            legacyKeystorePresent = false;
+        }
+
+        persistedKeyIds = keyIds;
+        persistedIndexEntries = indexEntries;
+    }
+
+    private KeysModel loadKeyEntries(String index) {
+        KeysModel model = new KeysModel();
+        List<LazyJWKKey> lazyKeys = new ArrayList<>();
+        JSONArray indexEntries;
+
+        try {
+            indexEntries = new JSONArray(index);
+        } catch (JSONException e) {
+            return model;
+        }
+
+        for (int i = 0; i < indexEntries.length(); i++) {
+            // Entries are either a bare key ID, or an object holding the key ID and, for JWKs, its metadata
+            JSONObject indexEntry = indexEntries.optJSONObject(i);
+            String keyId = indexEntry == null ? indexEntries.optString(i, null) : indexEntry.optString(ID, null);
+            String json = keyId == null ? null : preferences.getString(entryName(keyId));
+
+            if (json == null) {
+                continue;
+            }
+
+            // Skip entries that fail to load rather than discarding the whole keystore
+            try {
+                Key key;
+
+                if (indexEntry != null && indexEntry.has(KEY_TYPE)) {
+                    LazyJWKKey lazyKey = new LazyJWKKey(metadata(indexEntry), json);
+                    lazyKeys.add(lazyKey);
+                    key = lazyKey;
+                    persistedIndexEntries.put(keyId, indexEntry);
+                } else {
+                    key = Key.fromJSONObject(new JSONObject(json));
+                }
+
+                model.addKey(key);
+                persistedKeyIds.add(keyId);
+            } catch (JSONException | IllegalArgumentException | ParseException | UnsupportedKeyException ignored) {
+            }
+        }
+
+        if (!lazyKeys.isEmpty()) {
+            warmUpExecutor.execute(() -> warmUp(lazyKeys));
+        }
+
+        return model;
+    }
+
+    private KeysModel loadLegacyKeystore() {
         String json = preferences.getString(KEYSTORE_SETTINGS_NAME);
 
         // If this fails (empty), create a new keystore
         if (json != null) {
+            legacyKeystorePresent = true;
+
             try {
                 return KeysModel.parse(json);
             } catch (ParseException ignored) {
@@ -47,9 +266,63 @@ public class BurpKeysModelPersistence implements KeysModelPersistence {
         return new KeysModel();
     }
 
-    @Override
-    public void save(KeysModel model) {
-        // Serialise the keystore and save inside the active Burp session
-        preferences.setString(KEYSTORE_SETTINGS_NAME, model.serialize());
+    private static JSONObject indexEntry(Key key) {
+        JSONObject indexEntry = new JSONObject();
+        indexEntry.put(ID, key.getID());
+
+        if (key instanceof JWKKey jwkKey) {
+            Metadata metadata = Metadata.from(jwkKey);
+
+            indexEntry.put(KEY_TYPE, metadata.keyType().name());
+            indexEntry.put(DESCRIPTION, metadata.description());
+            indexEntry.put(THUMBPRINT, metadata.thumbprint() == null ? null : metadata.thumbprint().toString());
+            indexEntry.put(PUBLIC, metadata.isPublic());
+            indexEntry.put(PRIVATE, metadata.isPrivate());
+            indexEntry.put(SIGN, metadata.canSign());
+            indexEntry.put(VERIFY, metadata.canVerify());
+            indexEntry.put(ENCRYPT, metadata.canEncrypt());
+            indexEntry.put(DECRYPT, metadata.canDecrypt());
+            indexEntry.put(PEM, metadata.canConvertToPem());
+        }
+
+        return indexEntry;
+    }
+
+    private static Metadata metadata(JSONObject indexEntry) {
+        String thumbprint = indexEntry.optString(THUMBPRINT, null);
+
+        return new Metadata(
+                indexEntry.getString(ID),
+                indexEntry.getString(DESCRIPTION),
+                KeyType.valueOf(indexEntry.getString(KEY_TYPE)),
+                thumbprint == null ? null : new Base64URL(thumbprint),
+                indexEntry.getBoolean(PUBLIC),
+                indexEntry.getBoolean(PRIVATE),
+                indexEntry.getBoolean(SIGN),
+                indexEntry.getBoolean(VERIFY),
+                indexEntry.getBoolean(ENCRYPT),
+                indexEntry.getBoolean(DECRYPT),
+                indexEntry.getBoolean(PEM)
+        );
+    }
+
+    private void warmUp(List<LazyJWKKey> keys) {
+        for (LazyJWKKey key : keys) {
+            // A key that cannot be parsed stays in the keystore, but supports no algorithms
+            if (key.materialize().isEmpty()) {
+                logging.logToError("Unable to load key " + key.getID() + ": " + key.loadFailure().map(Exception::getMessage).orElse(""));
+            }
+        }
+    }
+
+    private static void startWarmUpThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, WARM_UP_THREAD_NAME);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static String entryName(String keyId) {
+        return KEYSTORE_KEY_PREFIX + Base64URL.encode(keyId == null ? "" : keyId);
     }
 }
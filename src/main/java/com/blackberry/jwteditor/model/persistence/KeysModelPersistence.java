@@ -24,4 +24,9 @@ public interface KeysModelPersistence {
     KeysModel loadOrCreateNew();
 
     void save(KeysModel keysModel);
+
+    /**
+     * Write any pending changes and stop saving in the background
+     */
+    void close();
 }
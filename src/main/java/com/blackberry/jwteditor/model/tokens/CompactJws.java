@@ -0,0 +1,131 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.text.ParseException;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Compact serialization of a stored JWS. The header segment is interned, as tokens from the same issuer usually share
+ * it, and the payload and signature are held as ASCII bytes. The JWS itself is only parsed again when needed.
+ * <p>
+ * Instances with the same serialization are equal, so they can be used as keys.
+ */
+final class CompactJws {
+    private final String header;
+    private final byte[] payloadAndSignature;
+    private final int hashCode;
+
+    private CompactJws(String header, byte[] payloadAndSignature) {
+        this.header = header;
+        this.payloadAndSignature = payloadAndSignature;
+        this.hashCode = 31 * header.hashCode() + Arrays.hashCode(payloadAndSignature);
+    }
+
+    /**
+     * Build from a compact serialization
+     *
+     * @param serialized compact serialization, which is Base64URL and so ASCII
+     * @return compact JWS
+     */
+    static CompactJws of(String serialized) {
+        int separator = serialized.indexOf('.');
+
+        if (separator < 0) {
+            return new CompactJws(serialized.intern(), new byte[0]);
+        }
+
+        return new CompactJws(
+                serialized.substring(0, separator).intern(),
+                serialized.substring(separator).getBytes(US_ASCII)
+        );
+    }
+
+    String header() {
+        return header;
+    }
+
+    String serialize() {
+        return header + new String(payloadAndSignature, US_ASCII);
+    }
+
+    /**
+     * Decode the payload alone, which is cheaper than parsing the whole JWS. The result is not retained.
+     *
+     * @return decoded payload
+     */
+    String decodedPayload() {
+        int end = 1;
+
+        while (end < payloadAndSignature.length && payloadAndSignature[end] != '.') {
+            end++;
+        }
+
+        // Skips the separator before the payload
+        String payload = end <= 1 ? "" : new String(payloadAndSignature, 1, end - 1, US_ASCII);
+
+        return new Base64URL(payload).decodeToString();
+    }
+
+    /**
+     * Parse the JWS. The result is not retained.
+     *
+     * @return JWS
+     */
+    JWS toJWS() {
+        try {
+            return JWSFactory.parse(serialize());
+        } catch (ParseException e) {
+            // Only built from the serialization of a parsed JWS
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof CompactJws other)) {
+            return false;
+        }
+
+        return hashCode == other.hashCode
+                && header.equals(other.header)
+                && Arrays.equals(payloadAndSignature, other.payloadAndSignature);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return serialize();
+    }
+}
@@ -20,21 +20,69 @@ package com.blackberry.jwteditor.model.tokens;
 
 import com.blackberry.jwteditor.model.jose.JWS;
 import com.blackberry.jwteditor.model.jose.JWSClaims;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
 
 import static com.blackberry.jwteditor.model.jose.ClaimsType.JSON;
 import static com.blackberry.jwteditor.utils.JSONUtils.prettyPrintJSON;
-
+import static com.nimbusds.jose.HeaderParameterNames.ALGORITHM;
+import static com.nimbusds.jose.HeaderParameterNames.KEY_ID;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * Token collected from the editor. Values shown in the tokens table are derived once on construction, so that painting
+ * and sorting rows never decodes or parses the JWS. The pretty printed claims are only built when first viewed.
+ * <p>
+ * Only the compact serialization of the JWS is kept, see {@link CompactJws}, and the JWS is parsed again when its
+ * claims are viewed or indexed. Hosts, paths and header values repeat across tokens, so are interned.
+ * <p>
+ * The host and path are those the token was first seen at. Later sightings are recorded in its occurrences.
+ */
 public class Token {
+    private static final String ISSUER = "iss"; //NON-NLS
+    private static final String SUBJECT = "sub"; //NON-NLS
+    private static final String EXPIRATION_TIME = "exp"; //NON-NLS
+
     private final int id;
     private final String host;
     private final String path;
-    private final JWS jws;
+    private final CompactJws jws;
+    private final String algorithm;
+    private final String keyId;
+    private final String issuer;
+    private final String subject;
+    private final Long expiry;
+    private final int claimsLength;
+    private final int claimCount;
+    private final TokenOccurrences occurrences;
+
+    private volatile String prettyPrintedClaims;
 
     public Token(int id, String host, String path, JWS jws) {
-        this.host = host;
-        this.path = path;
-        this.jws = jws;
+        this(id, host, path, jws, new TokenOccurrences(host, path, currentTimeMillis()));
+    }
+
+    public Token(int id, String host, String path, JWS jws, TokenOccurrences occurrences) {
+        this.occurrences = occurrences;
+        this.host = intern(host);
+        this.path = intern(path);
+        this.jws = CompactJws.of(jws.serialize());
         this.id = id;
+
+        JSONObject header = parseObject(jws.header().decoded());
+        this.algorithm = header.optString(ALGORITHM, "").intern();
+        this.keyId = header.optString(KEY_ID, "").intern();
+
+        JWSClaims claims = jws.claims();
+        String decodedClaims = claims.decoded();
+        JSONObject claimsJson = claims.type() == JSON ? parseObject(decodedClaims) : new JSONObject();
+        this.issuer = claimsJson.optString(ISSUER, "").intern();
+        this.subject = claimsJson.optString(SUBJECT, "");
+        this.expiry = claimsJson.opt(EXPIRATION_TIME) instanceof Number exp ? exp.longValue() : null;
+        this.claimsLength = decodedClaims.getBytes(StandardCharsets.UTF_8).length;
+        this.claimCount = claimsJson.length();
     }
 
     public int id() {
@@ -50,21 +98,87 @@ public class Token {
     }
 
     public String algorithm() {
-        return jws.header().algorithm();
+        return algorithm;
     }
 
     public String keyId() {
-        return jws.header().keyId();
+        return keyId;
+    }
+
+    public String issuer() {
+        return issuer;
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    /**
+     * Get the exp claim
+     *
+     * @return expiry in seconds since the epoch, or null if the token has no numeric exp claim
+     */
+    public Long expiry() {
+        return expiry;
+    }
+
+    /**
+     * Get the size of the decoded claims
+     *
+     * @return length of the decoded claims in bytes
+     */
+    public int claimsLength() {
+        return claimsLength;
+    }
+
+    public int claimCount() {
+        return claimCount;
     }
 
     public String jws() {
         return jws.serialize();
     }
 
+    public TokenOccurrences occurrences() {
+        return occurrences;
+    }
+
     public String claims() {
-        JWSClaims claims = jws.claims();
-        String decodedClaim = claims.decoded();
+        String result = prettyPrintedClaims;
+
+        if (result == null) {
+            JWSClaims claims = jws.toJWS().claims();
+            String decodedClaim = claims.decoded();
+
+            result = claims.type() == JSON ? prettyPrintJSON(decodedClaim) : decodedClaim;
+            prettyPrintedClaims = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse the claims for indexing, decoding only the payload rather than the whole JWS. The result is not retained.
+     *
+     * @return claims, or an empty object if the claims are not a JSON object
+     */
+    JSONObject claimsJson() {
+        return parseObject(jws.decodedPayload());
+    }
+
+    CompactJws compactJws() {
+        return jws;
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
 
-        return claims.type() == JSON ? prettyPrintJSON(decodedClaim) : decodedClaim;
+    private static JSONObject parseObject(String json) {
+        try {
+            return new JSONObject(json);
+        } catch (JSONException e) {
+            return new JSONObject();
+        }
     }
 }
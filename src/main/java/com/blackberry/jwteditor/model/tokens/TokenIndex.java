@@ -0,0 +1,475 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences.Endpoint;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import static java.util.Collections.newSetFromMap;
+import static java.util.Locale.ROOT;
+
+/**
+ * Inverted index over the fields and claims of tokens, updated as tokens are added and deleted. Each token is given an
+ * ordinal, and each term maps to the sorted ordinals of the tokens containing it. Terms are held in sorted order, so a
+ * query term matches every indexed term that it is a prefix of. Once the ordinals of deleted tokens outnumber those of
+ * the remaining tokens, the remaining tokens are renumbered, so the ordinal space stays proportional to the tokens
+ * indexed rather than to every token ever indexed.
+ * <p>
+ * Adding, updating and deleting tokens only records the change, so the model's write path does not pay for indexing.
+ * Changes are coalesced per token and applied by the next query, off the EDT. A token added and deleted before any
+ * query is never indexed.
+ * <p>
+ * A query is a list of whitespace separated terms, all of which must match. Matching ignores case.
+ * <ul>
+ *     <li>{@code host:}, {@code path:}, {@code alg:}, {@code kid:} or {@code iss:} followed by a prefix of that field</li>
+ *     <li>{@code claim:} followed by a prefix of a claim name</li>
+ *     <li>a claim name, {@code =} and a prefix of the claim's value, such as {@code sub=admin}</li>
+ *     <li>{@code exp:expired}, {@code exp:valid} or {@code exp:none}</li>
+ *     <li>any other term matches a prefix of any field, claim name or claim value</li>
+ * </ul>
+ */
+class TokenIndex {
+    private static final int MAX_TERM_LENGTH = 256;
+    private static final int MIN_TOKENS_LENGTH = 16;
+    private static final String HOST = "host:"; //NON-NLS
+    private static final String PATH = "path:"; //NON-NLS
+    private static final String ALGORITHM = "alg:"; //NON-NLS
+    private static final String KEY_ID = "kid:"; //NON-NLS
+    private static final String ISSUER = "iss:"; //NON-NLS
+    private static final String CLAIM = "claim:"; //NON-NLS
+    private static final String EXPIRY = "exp:"; //NON-NLS
+    private static final String EXPIRED = "expired"; //NON-NLS
+    private static final String VALID = "valid"; //NON-NLS
+    private static final String NONE = "none"; //NON-NLS
+    private static final List<String> FIELDS = List.of(HOST, PATH, ALGORITHM, KEY_ID, ISSUER, CLAIM);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> fieldTerms = new TreeMap<>();
+    private final NavigableMap<String, Postings> valueTerms = new TreeMap<>();
+    private final NavigableMap<Long, Postings> expiries = new TreeMap<>();
+    private final Map<Token, Integer> ordinals = new IdentityHashMap<>();
+
+    // Changes not yet applied, at most one per token, in the order the tokens were first changed. Token does not
+    // override equals, so tokens are compared by identity.
+    private final Map<Token, Change> pending = new LinkedHashMap<>();
+
+    private Postings noExpiry = new Postings();
+    private Token[] tokens = new Token[MIN_TOKENS_LENGTH];
+    private int nextOrdinal;
+
+    void add(Token token) {
+        synchronized (pending) {
+            // A token deleted and added again is still indexed, so only its endpoints may need indexing
+            pending.put(token, pending.get(token) == Change.REMOVE ? Change.UPDATE : Change.ADD);
+        }
+    }
+
+    /**
+     * Index any new hosts and paths a token has been seen at
+     *
+     * @param token token whose occurrences have changed
+     */
+    void update(Token token) {
+        synchronized (pending) {
+            // A token still to be added is indexed with all of its endpoints
+            pending.putIfAbsent(token, Change.UPDATE);
+        }
+    }
+
+    void remove(Token token) {
+        synchronized (pending) {
+            if (pending.get(token) == Change.ADD) {
+                pending.remove(token);
+            } else {
+                pending.put(token, Change.REMOVE);
+            }
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+
+        try {
+            synchronized (pending) {
+                pending.clear();
+            }
+
+            fieldTerms.clear();
+            valueTerms.clear();
+            expiries.clear();
+            ordinals.clear();
+            noExpiry = new Postings();
+            tokens = new Token[MIN_TOKENS_LENGTH];
+            nextOrdinal = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of ordinals in use, including those of deleted tokens not yet renumbered
+     *
+     * @return ordinal count
+     */
+    int ordinalCount() {
+        lock.writeLock().lock();
+
+        try {
+            applyPendingChanges();
+            return nextOrdinal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the tokens matching a query
+     *
+     * @param query query terms
+     * @param nowSeconds current time, in seconds since the epoch, used to match expiry
+     * @return predicate accepting the matching tokens
+     */
+    Predicate<Token> search(String query, long nowSeconds) {
+        String[] queryTerms = query.toLowerCase(ROOT).trim().split("\\s+");
+
+        if (queryTerms.length == 1 && queryTerms[0].isEmpty()) {
+            return token -> true;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            applyPendingChanges();
+
+            // Downgraded, so that other queries may run once the changes are applied
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            BitSet matches = null;
+
+            for (String queryTerm : queryTerms) {
+                BitSet termMatches = match(queryTerm, nowSeconds);
+
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+
+                if (matches.isEmpty()) {
+                    break;
+                }
+            }
+
+            Set<Token> matchingTokens = newSetFromMap(new IdentityHashMap<>(matches.cardinality()));
+
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                matchingTokens.add(tokens[ordinal]);
+            }
+
+            return matchingTokens::contains;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet match(String queryTerm, long nowSeconds) {
+        BitSet matches = new BitSet(nextOrdinal);
+
+        if (queryTerm.startsWith(EXPIRY)) {
+            String state = queryTerm.substring(EXPIRY.length());
+
+            if (EXPIRED.startsWith(state)) {
+                expiries.headMap(nowSeconds, false).values().forEach(postings -> postings.addTo(matches));
+            }
+
+            if (VALID.startsWith(state)) {
+                expiries.tailMap(nowSeconds, true).values().forEach(postings -> postings.addTo(matches));
+            }
+
+            if (NONE.startsWith(state)) {
+                noExpiry.addTo(matches);
+            }
+        } else if (queryTerm.indexOf('=') > 0 || FIELDS.stream().anyMatch(queryTerm::startsWith)) {
+            prefixMatches(fieldTerms, queryTerm).forEach(postings -> postings.addTo(matches));
+        } else {
+            prefixMatches(valueTerms, queryTerm).forEach(postings -> postings.addTo(matches));
+        }
+
+        return matches;
+    }
+
+    // Callers must hold the write lock
+    private void applyPendingChanges() {
+        Map<Token, Change> changes;
+
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        changes.forEach((token, change) -> {
+            switch (change) {
+                case ADD -> indexToken(token);
+                case UPDATE -> indexEndpoints(token);
+                case REMOVE -> removeToken(token);
+            }
+        });
+    }
+
+    private void indexToken(Token token) {
+        int ordinal = nextOrdinal++;
+
+        if (ordinal == tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokens.length * 2);
+        }
+
+        tokens[ordinal] = token;
+        ordinals.put(token, ordinal);
+
+        index(Terms.of(token), ordinal);
+
+        if (token.expiry() == null) {
+            noExpiry.add(ordinal);
+        } else {
+            expiries.computeIfAbsent(token.expiry(), expiry -> new Postings()).add(ordinal);
+        }
+    }
+
+    private void indexEndpoints(Token token) {
+        Integer ordinal = ordinals.get(token);
+
+        if (ordinal != null) {
+            index(Terms.ofEndpoints(token), ordinal);
+        }
+    }
+
+    private void removeToken(Token token) {
+        Integer ordinal = ordinals.remove(token);
+
+        if (ordinal == null) {
+            return;
+        }
+
+        Terms terms = Terms.of(token);
+
+        tokens[ordinal] = null;
+        terms.fieldTerms().forEach(term -> remove(fieldTerms, term, ordinal));
+        terms.valueTerms().forEach(term -> remove(valueTerms, term, ordinal));
+
+        if (token.expiry() == null) {
+            noExpiry.remove(ordinal);
+        } else {
+            remove(expiries, token.expiry(), ordinal);
+        }
+
+        if (nextOrdinal - ordinals.size() > ordinals.size()) {
+            renumber();
+        }
+    }
+
+    // Callers must hold the write lock. Ordinals keep their order, so postings remain sorted.
+    private void renumber() {
+        int[] renumbered = new int[nextOrdinal];
+        Token[] remaining = new Token[Math.max(MIN_TOKENS_LENGTH, 2 * ordinals.size())];
+        int live = 0;
+
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (tokens[ordinal] != null) {
+                renumbered[ordinal] = live;
+                remaining[live] = tokens[ordinal];
+                ordinals.put(tokens[ordinal], live++);
+            }
+        }
+
+        fieldTerms.values().forEach(postings -> postings.renumber(renumbered));
+        valueTerms.values().forEach(postings -> postings.renumber(renumbered));
+        expiries.values().forEach(postings -> postings.renumber(renumbered));
+        noExpiry.renumber(renumbered);
+
+        tokens = remaining;
+        nextOrdinal = live;
+    }
+
+    private void index(Terms terms, int ordinal) {
+        terms.fieldTerms().forEach(term -> fieldTerms.computeIfAbsent(term, t -> new Postings()).add(ordinal));
+        terms.valueTerms().forEach(term -> valueTerms.computeIfAbsent(term, t -> new Postings()).add(ordinal));
+    }
+
+    private static Collection<Postings> prefixMatches(NavigableMap<String, Postings> terms, String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+    }
+
+    private static <K> void remove(Map<K, Postings> terms, K term, int ordinal) {
+        Postings postings = terms.get(term);
+
+        if (postings != null) {
+            postings.remove(ordinal);
+
+            if (postings.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private enum Change {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+
+    private record Terms(Set<String> fieldTerms, Set<String> valueTerms) {
+        static Terms ofEndpoints(Token token) {
+            Terms terms = new Terms(new HashSet<>(), new HashSet<>());
+
+            for (Endpoint endpoint : token.occurrences().endpoints()) {
+                terms.add(HOST, endpoint.host());
+                terms.add(PATH, endpoint.path());
+            }
+
+            return terms;
+        }
+
+        static Terms of(Token token) {
+            Terms terms = ofEndpoints(token);
+
+            terms.add(ALGORITHM, token.algorithm());
+            terms.add(KEY_ID, token.keyId());
+            terms.add(ISSUER, token.issuer());
+
+            JSONObject claims = token.claimsJson();
+
+            for (String name : claims.keySet()) {
+                terms.add(CLAIM, name);
+
+                Object value = claims.opt(name);
+
+                if (value instanceof JSONArray array) {
+                    array.forEach(element -> terms.addClaimValue(name, element));
+                } else {
+                    terms.addClaimValue(name, value);
+                }
+            }
+
+            return terms;
+        }
+
+        private void add(String field, String value) {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+
+            String term = normalize(value);
+
+            fieldTerms.add(field + term);
+            valueTerms.add(term);
+        }
+
+        private void addClaimValue(String name, Object value) {
+            // Nested objects are found by claim name only
+            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                String term = normalize(value.toString());
+
+                fieldTerms.add(normalize(name) + "=" + term);
+                valueTerms.add(term);
+            }
+        }
+
+        private static String normalize(String value) {
+            String term = value.toLowerCase(ROOT);
+            return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+        }
+    }
+
+    /**
+     * Sorted ordinals of the tokens containing a term. Ordinals are assigned in increasing order, so adding a new token
+     * appends.
+     */
+    private static class Postings {
+        private int[] ordinals = new int[2];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] >= ordinal) {
+                int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+
+                if (index >= 0) {
+                    return;
+                }
+
+                insert(-index - 1, ordinal);
+            } else {
+                insert(size, ordinal);
+            }
+        }
+
+        void remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+
+            if (index >= 0) {
+                System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Replace each ordinal, using an order preserving mapping
+         *
+         * @param renumbered new ordinal of each current ordinal
+         */
+        void renumber(int[] renumbered) {
+            for (int i = 0; i < size; i++) {
+                ordinals[i] = renumbered[ordinals[i]];
+            }
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ordinals[i]);
+            }
+        }
+
+        private void insert(int index, int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+
+            System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+            ordinals[index] = ordinal;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Where and when a token has been seen. Repeated sightings of a token are merged into its occurrences rather than being
+ * stored as further tokens. At most {@link #MAX_ENDPOINTS} distinct host and path pairs are kept.
+ */
+public class TokenOccurrences {
+    static final int MAX_ENDPOINTS = 256;
+
+    private final Set<Endpoint> endpoints;
+
+    private int count;
+    private long firstSeen;
+    private long lastSeen;
+
+    public TokenOccurrences(String host, String path, long seen) {
+        this(1, seen, seen, List.of(new Endpoint(host, path)));
+    }
+
+    public TokenOccurrences(int count, long firstSeen, long lastSeen, Collection<Endpoint> endpoints) {
+        this.count = count;
+        this.firstSeen = firstSeen;
+        this.lastSeen = lastSeen;
+        this.endpoints = new LinkedHashSet<>();
+
+        endpoints.stream().limit(MAX_ENDPOINTS).forEach(this.endpoints::add);
+    }
+
+    /**
+     * Merge the sightings of another occurrence of the same token into this one
+     *
+     * @param other occurrences to merge
+     */
+    void merge(TokenOccurrences other) {
+        int otherCount;
+        long otherFirstSeen;
+        long otherLastSeen;
+        List<Endpoint> otherEndpoints;
+
+        synchronized (other) {
+            otherCount = other.count;
+            otherFirstSeen = other.firstSeen;
+            otherLastSeen = other.lastSeen;
+            otherEndpoints = List.copyOf(other.endpoints);
+        }
+
+        synchronized (this) {
+            count += otherCount;
+            firstSeen = Math.min(firstSeen, otherFirstSeen);
+            lastSeen = Math.max(lastSeen, otherLastSeen);
+
+            for (Endpoint endpoint : otherEndpoints) {
+                if (endpoints.size() == MAX_ENDPOINTS) {
+                    break;
+                }
+
+                endpoints.add(endpoint);
+            }
+        }
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Get when the token was first seen
+     *
+     * @return milliseconds since the epoch
+     */
+    public synchronized long firstSeen() {
+        return firstSeen;
+    }
+
+    /**
+     * Get when the token was last seen
+     *
+     * @return milliseconds since the epoch
+     */
+    public synchronized long lastSeen() {
+        return lastSeen;
+    }
+
+    /**
+     * Get the distinct host and path pairs the token was seen at
+     *
+     * @return pairs in the order they were first seen
+     */
+    public synchronized List<Endpoint> endpoints() {
+        return List.copyOf(endpoints);
+    }
+
+    public record Endpoint(String host, String path) {
+        // Many tokens are seen at the same endpoints
+        public Endpoint {
+            host = host == null ? null : host.intern();
+            path = path == null ? null : path.intern();
+        }
+    }
+}
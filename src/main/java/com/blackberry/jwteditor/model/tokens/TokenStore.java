@@ -0,0 +1,72 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import java.util.Arrays;
+
+/**
+ * Append-only store of tokens held in fixed size chunks. Appends are made by one writer at a time and published by a
+ * volatile write of the size, so readers never lock. Elements below the published size are never modified, so a
+ * snapshot is simply the chunk directory and size read at one instant. Deletion builds a new store.
+ */
+class TokenStore {
+    static final int CHUNK_SIZE = 1024;
+
+    private volatile Token[][] chunks;
+    private volatile int size;
+
+    TokenStore() {
+        this.chunks = new Token[1][];
+    }
+
+    /**
+     * Append a token. Callers must ensure appends are not concurrent.
+     *
+     * @param token token to append
+     */
+    void append(Token token) {
+        int index = size;
+        int chunkIndex = index / CHUNK_SIZE;
+        Token[][] directory = chunks;
+
+        if (chunkIndex == directory.length) {
+            directory = Arrays.copyOf(directory, directory.length * 2);
+            chunks = directory;
+        }
+
+        if (directory[chunkIndex] == null) {
+            directory[chunkIndex] = new Token[CHUNK_SIZE];
+        }
+
+        directory[chunkIndex][index % CHUNK_SIZE] = token;
+
+        // Publishes the token, and any new chunk, to readers
+        size = index + 1;
+    }
+
+    TokensSnapshot snapshot() {
+        // Read the size first, so the directory read afterwards holds at least that many tokens
+        int snapshotSize = size;
+        return new TokensSnapshot(this, chunks, snapshotSize);
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -18,31 +18,88 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.tokens;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
-import static java.util.Collections.unmodifiableList;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.newSetFromMap;
 
+/**
+ * Tokens collected from the editor. Tokens are appended to a chunked store, so reading a consistent snapshot never
+ * locks and stays cheap with hundreds of thousands of tokens. Writers are serialised by a lock, and deletion replaces
+ * the store so that existing snapshots are unaffected.
+ * <p>
+ * Tokens are keyed by their compact serialization. Adding a token that is already present merges its occurrences
+ * into the existing token instead of adding another. Tokens are also indexed by their fields and claims for filtering.
+ */
 public class TokensModel implements TokenRepository {
-    private final List<Token> tokens;
     private final Object lock;
     private final List<TokensModelListener> modelListeners;
+    private final Map<CompactJws, Token> tokensBySerialization;
+    private final TokenIndex index;
+
+    private volatile TokenStore store;
 
     public TokensModel() {
-        this(new ArrayList<>());
+        this(emptyList());
     }
 
-    public TokensModel(List<Token> tokens) {
-        this.tokens = tokens;
+    public TokensModel(Collection<Token> tokens) {
+        this.store = new TokenStore();
         this.lock = new Object();
         this.modelListeners = new CopyOnWriteArrayList<>();
+        this.tokensBySerialization = new ConcurrentHashMap<>();
+        this.index = new TokenIndex();
+
+        tokens.forEach(this::appendOrMerge);
     }
 
-    public List<Token> tokens() {
-        synchronized (lock) {
-            return unmodifiableList(tokens);
-        }
+    /**
+     * Get the tokens currently in the model
+     *
+     * @return immutable snapshot of the tokens
+     */
+    public TokensSnapshot tokens() {
+        return store.snapshot();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Find a token by its compact serialization
+     *
+     * @param serializedJws compact serialization of the JWS
+     * @return the token, or null if it is not in the model
+     */
+    public Token find(String serializedJws) {
+        return tokensBySerialization.get(CompactJws.of(serializedJws));
+    }
+
+    /**
+     * Check whether a token is in the model
+     *
+     * @param token token to look for
+     * @return true if this token, rather than only one with the same serialization, is in the model
+     */
+    public boolean contains(Token token) {
+        return tokensBySerialization.get(token.compactJws()) == token;
+    }
+
+    /**
+     * Find the tokens matching a filter query, such as {@code host:example.com alg:hs256 exp:valid}. Terms match
+     * prefixes of the host, path, algorithm, key ID, issuer, claim names and claim values, using an index maintained
+     * as tokens are added and deleted. See {@link TokenIndex} for the full syntax.
+     *
+     * @param query filter query
+     * @return predicate accepting the tokens matching the query when it was run
+     */
+    public Predicate<Token> filter(String query) {
+        return index.search(query, currentTimeMillis() / 1000);
     }
 
     public void addTokensModelListener(TokensModelListener modelListener) {
@@ -51,12 +108,136 @@ public class TokensModel implements TokenRepository {
 
     @Override
     public void add(Token token) {
+        Token existing;
+
+        synchronized (lock) {
+            existing = appendOrMerge(token);
+        }
+
+        for (TokensModelListener modelListener : modelListeners) {
+            if (existing == null) {
+                modelListener.notifyTokenInserted(token);
+            } else {
+                modelListener.notifyTokenRepeated(existing, token);
+            }
+        }
+    }
+
+    /**
+     * Add several tokens, notifying listeners with a single batch insertion
+     *
+     * @param tokens tokens to add
+     */
+    public void addAll(List<Token> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        List<Token> inserted = new ArrayList<>(tokens.size());
+        List<Token> repeated = new ArrayList<>();
+        List<Token> existing = new ArrayList<>();
+
+        synchronized (lock) {
+            for (Token token : tokens) {
+                Token merged = appendOrMerge(token);
+
+                if (merged == null) {
+                    inserted.add(token);
+                } else {
+                    repeated.add(token);
+                    existing.add(merged);
+                }
+            }
+        }
+
+        for (TokensModelListener modelListener : modelListeners) {
+            if (!inserted.isEmpty()) {
+                modelListener.notifyTokensInserted(inserted);
+            }
+
+            for (int i = 0; i < repeated.size(); i++) {
+                modelListener.notifyTokenRepeated(existing.get(i), repeated.get(i));
+            }
+        }
+    }
+
+    /**
+     * Delete a token
+     *
+     * @param token token to delete
+     */
+    public void delete(Token token) {
+        deleteAll(List.of(token));
+    }
+
+    /**
+     * Delete several tokens, rebuilding the store once
+     *
+     * @param tokens tokens to delete, ignoring any not in the model
+     */
+    public void deleteAll(Collection<Token> tokens) {
+        Set<Token> toDelete = newSetFromMap(new IdentityHashMap<>());
+        toDelete.addAll(tokens);
+
+        List<Integer> indices = new ArrayList<>();
+        List<Token> deleted = new ArrayList<>();
+
+        synchronized (lock) {
+            TokensSnapshot snapshot = store.snapshot();
+            TokenStore retained = new TokenStore();
+
+            for (int i = 0; i < snapshot.size(); i++) {
+                Token token = snapshot.get(i);
+
+                if (toDelete.contains(token)) {
+                    indices.add(i);
+                    deleted.add(token);
+                    tokensBySerialization.remove(token.compactJws(), token);
+                    index.remove(token);
+                } else {
+                    retained.append(token);
+                }
+            }
+
+            if (deleted.isEmpty()) {
+                return;
+            }
+
+            store = retained;
+        }
+
+        // Highest index first, so that each index is still valid after the deletions reported before it
+        for (TokensModelListener modelListener : modelListeners) {
+            for (int i = deleted.size() - 1; i >= 0; i--) {
+                modelListener.notifyTokenDeleted(indices.get(i), deleted.get(i));
+            }
+        }
+    }
+
+    public void clear() {
         synchronized (lock) {
-            tokens.add(token);
+            store = new TokenStore();
+            tokensBySerialization.clear();
+            index.clear();
         }
 
         for (TokensModelListener modelListener : modelListeners) {
-            modelListener.notifyTokenInserted(token);
+            modelListener.notifyTokensCleared();
+        }
+    }
+
+    // Callers must hold the lock. Returns the token merged into, or null if the token was appended.
+    private Token appendOrMerge(Token token) {
+        Token existing = tokensBySerialization.putIfAbsent(token.compactJws(), token);
+
+        if (existing == null) {
+            store.append(token);
+            index.add(token);
+        } else if (existing != token) {
+            existing.occurrences().merge(token.occurrences());
+            index.update(existing);
         }
+
+        return existing;
     }
 }
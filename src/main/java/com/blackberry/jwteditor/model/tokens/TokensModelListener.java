@@ -18,8 +18,16 @@ limitations under the License.
 
 package com.blackberry.jwteditor.model.tokens;
 
+import java.util.List;
+
 public interface TokensModelListener {
     void notifyTokenInserted(Token token);
 
-    void notifyTokenDeleted(int index);
+    void notifyTokensInserted(List<Token> tokens);
+
+    void notifyTokenDeleted(int index, Token token);
+
+    void notifyTokenRepeated(Token token, Token repeat);
+
+    void notifyTokensCleared();
 }
@@ -0,0 +1,63 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable view of the tokens in a {@link TokensModel} at one instant. Taking a snapshot is constant time and reads
+ * of it never block, however many tokens are added or deleted afterwards.
+ */
+public final class TokensSnapshot extends AbstractList<Token> implements RandomAccess {
+    private final TokenStore store;
+    private final Token[][] chunks;
+    private final int size;
+
+    TokensSnapshot(TokenStore store, Token[][] chunks, int size) {
+        this.store = store;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    @Override
+    public Token get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        return chunks[index / TokenStore.CHUNK_SIZE][index % TokenStore.CHUNK_SIZE];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether a later snapshot only differs from this one by tokens appended after it. If not, tokens have since been
+     * deleted or cleared.
+     *
+     * @param later snapshot taken after this one
+     * @return true if this snapshot is a prefix of the later one
+     */
+    public boolean isPrefixOf(TokensSnapshot later) {
+        return store == later.store && size <= later.size;
+    }
+}
@@ -18,6 +18,7 @@ limitations under the License.
 
 package com.blackberry.jwteditor.operations.weak;
 
+import com.blackberry.jwteditor.cryptography.MacPool;
 import com.blackberry.jwteditor.model.jose.JWS;
 import com.blackberry.jwteditor.model.keys.JWKKey;
 import com.blackberry.jwteditor.model.keys.JWKKeyFactory;
@@ -27,18 +28,46 @@ import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64URL;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 class WeakSecretTester {
+    private static final Map<JWSAlgorithm, String> MAC_ALGORITHMS = Map.of(
+            JWSAlgorithm.HS256, "HmacSHA256",
+            JWSAlgorithm.HS384, "HmacSHA384",
+            JWSAlgorithm.HS512, "HmacSHA512"
+    );
+
     private final JWS jws;
     private final JWSHeader verificationInfo;
+    private final String macAlgorithm;
+    private final byte[] signingInput;
+    private final byte[] signature;
 
     public WeakSecretTester(JWS jws) {
         this.jws = jws;
 
         JWSAlgorithm algorithm = JWSAlgorithm.parse(jws.header().algorithm());
         this.verificationInfo = new JWSHeader.Builder(algorithm).build();
+        this.macAlgorithm = MAC_ALGORITHMS.get(algorithm);
+        this.signingInput = "%s.%s".formatted(jws.header().encoded(), jws.claims().encoded()).getBytes(US_ASCII);
+        this.signature = jws.signature().data();
     }
 
     boolean isSecretCorrect(String secret) throws Exception {
+        if (macAlgorithm != null && !secret.isEmpty()) {
+            // Compute the HMAC directly with this thread's pooled Mac rather than building a key and verifier per secret
+            Mac mac = MacPool.mac(macAlgorithm);
+            mac.init(new SecretKeySpec(secret.getBytes(UTF_8), macAlgorithm));
+
+            return MessageDigest.isEqual(mac.doFinal(signingInput), signature);
+        }
+
         Base64URL encodedSecret = Base64URL.encode(secret);
 
         JWK key = new OctetSequenceKey.Builder(encodedSecret).build();
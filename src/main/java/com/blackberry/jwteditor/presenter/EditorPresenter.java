@@ -20,6 +20,7 @@ package com.blackberry.jwteditor.presenter;
 
 import burp.api.montoya.collaborator.CollaboratorPayloadGenerator;
 import burp.api.montoya.logging.Logging;
+import burp.config.DecryptionConfig;
 import com.blackberry.jwteditor.model.jose.*;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.blackberry.jwteditor.model.keys.KeyRing;
@@ -35,12 +36,17 @@ import com.blackberry.jwteditor.view.editor.Attack;
 import com.blackberry.jwteditor.view.editor.EditorMode;
 import com.blackberry.jwteditor.view.editor.EditorView;
 import com.blackberry.jwteditor.view.weak.WeakKeyAttackDialog;
+import com.nimbusds.jose.JWEHeader;
 import com.nimbusds.jose.util.Base64URL;
 import org.json.JSONException;
 
+import javax.swing.SwingWorker;
 import java.text.ParseException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.blackberry.jwteditor.model.jose.ClaimsType.JSON;
 import static com.blackberry.jwteditor.model.jose.ClaimsType.TEXT;
@@ -53,10 +59,12 @@ import static com.blackberry.jwteditor.view.dialog.operations.SigningPanel.Mode.
 import static com.blackberry.jwteditor.view.dialog.operations.SigningPanel.Mode.NORMAL;
 
 public class EditorPresenter {
+    private static final Duration DECRYPTION_ATTEMPT_BUDGET = Duration.ofSeconds(10);
 
     private final KeysRepository keysRepository;
     private final TokenRepository tokenRepository;
     private final TokenIdGenerator tokenIdGenerator;
+    private final DecryptionConfig decryptionConfig;
     private final EditorView view;
     private final CollaboratorPayloadGenerator collaboratorPayloadGenerator;
     private final Logging logging;
@@ -72,13 +80,15 @@ public class EditorPresenter {
             Logging logging,
             KeysRepository keysRepository,
             TokenRepository tokenRepository,
-            TokenIdGenerator tokenIdGenerator) {
+            TokenIdGenerator tokenIdGenerator,
+            DecryptionConfig decryptionConfig) {
         this.view = view;
         this.collaboratorPayloadGenerator = collaboratorPayloadGenerator;
         this.logging = logging;
         this.keysRepository = keysRepository;
         this.tokenRepository = tokenRepository;
         this.tokenIdGenerator = tokenIdGenerator;
+        this.decryptionConfig = decryptionConfig;
         this.model = new EditorModel();
         this.messageDialogFactory = new MessageDialogFactory(view.uiComponent());
         this.lastSigningKeys = new LastSigningKeys();
@@ -264,8 +274,41 @@ public class EditorPresenter {
         }
 
         KeyRing keyRing = new KeyRing(keys);
-        Optional<Key> key = keyRing.findVerifyingKey(getJWS());
+        JWS jws = getJWS();
+
+        view.setVerificationInProgress(true);
+
+        // Verify on a fork-join pool as a large keystore may take a while, delivering the result back on the EDT
+        new SwingWorker<Optional<Key>, Integer>() {
+            @Override
+            protected Optional<Key> doInBackground() {
+                return keyRing.findVerifyingKey(
+                        jws,
+                        ForkJoinPool.commonPool(),
+                        (attempted, total) -> publish(100 * attempted / total)
+                );
+            }
 
+            @Override
+            protected void process(List<Integer> percentages) {
+                view.setVerificationProgress(percentages.get(percentages.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                view.setVerificationInProgress(false);
+
+                try {
+                    onVerificationComplete(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    logging.logToError(e);
+                    onVerificationComplete(Optional.empty());
+                }
+            }
+        }.execute();
+    }
+
+    private void onVerificationComplete(Optional<Key> key) {
         String messageKey = key.isPresent() ? "editor_view_message_verified" : "editor_view_message_not_verified";
         Object[] args = key.map(value -> new String[]{value.getID()}).orElseGet(() -> new String[0]);
 
@@ -304,20 +347,73 @@ public class EditorPresenter {
             return;
         }
 
-        // Attempt to decrypt the contents of the editor with all available keys
+        JWE jwe = getJWE();
+
+        JWEHeader header;
+
+        // Parse the header up front so that an invalid header is reported before any keys are tried
         try {
-            List<Key> keys = keysRepository.getDecryptionKeys();
-            Optional<JWS> jws = new KeyRing(keys).attemptDecryption(getJWE());
-
-            // If decryption was successful, set the contents of the editor to the decrypted JWS and set the editor mode to JWS
-            if (jws.isPresent()) {
-                setJWS(jws.get());
-            } else {
-                messageDialogFactory.showWarningDialog("error_title_unable_to_decrypt", "error_decryption_all_keys_failed");
-            }
+            header = jwe.parsedHeader();
         } catch (ParseException e) {
             messageDialogFactory.showWarningDialog("error_title_unable_to_decrypt", "error_decryption_invalid_header");
+            return;
         }
+
+        // Refuse PBES2 iteration counts above the configured limit, as each key would spend that many HMAC rounds
+        int iterationLimit = decryptionConfig.pbes2IterationLimit();
+
+        if (header.getPBES2Count() > iterationLimit) {
+            messageDialogFactory.showWarningDialog(
+                    "error_title_unable_to_decrypt",
+                    "error_decryption_pbes2_iteration_limit",
+                    header.getPBES2Count(),
+                    iterationLimit
+            );
+            return;
+        }
+
+        KeyRing keyRing = new KeyRing(keysRepository.getDecryptionKeys(), keysRepository.getContentEncryptionKeyCache());
+
+        view.setDecryptionInProgress(true);
+
+        // Attempt to decrypt the contents of the editor with all suitable keys in parallel, off the EDT
+        new SwingWorker<Optional<JWS>, Integer>() {
+            @Override
+            protected Optional<JWS> doInBackground() throws ParseException {
+                return keyRing.attemptDecryption(
+                        jwe,
+                        ForkJoinPool.commonPool(),
+                        DECRYPTION_ATTEMPT_BUDGET,
+                        (completed, total) -> publish((int) (100 * completed / total))
+                );
+            }
+
+            @Override
+            protected void process(List<Integer> percentages) {
+                view.setDecryptionProgress(percentages.get(percentages.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                view.setDecryptionInProgress(false);
+
+                Optional<JWS> jws;
+
+                try {
+                    jws = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    logging.logToError(e);
+                    jws = Optional.empty();
+                }
+
+                // If decryption was successful, set the contents of the editor to the decrypted JWS and set the editor mode to JWS
+                if (jws.isPresent()) {
+                    setJWS(jws.get());
+                } else {
+                    messageDialogFactory.showWarningDialog("error_title_unable_to_decrypt", "error_decryption_all_keys_failed");
+                }
+            }
+        }.execute();
     }
 
     /**
@@ -65,6 +65,12 @@ public class KeysPresenter {
                 keysModelPersistence.save(keysModel);
             }
 
+            @Override
+            public void notifyKeysInserted(List<Key> keys) {
+                view.addKeys(keys);
+                keysModelPersistence.save(keysModel);
+            }
+
             @Override
             public void notifyKeyDeleted(Key key) {
                 if (key != null) {
@@ -151,7 +157,7 @@ public class KeysPresenter {
         JWKSImportDialog dialog = new JWKSImportDialog(view.getParent(), model, rstaFactory);
         dialog.display();
 
-        dialog.getKeys().forEach(model::addKey);
+        model.addKeys(dialog.getKeys());
     }
 
     /**
@@ -0,0 +1,62 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.utils;
+
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Read-only view of a byte array as ISO-8859-1 characters. Each character index equals its byte offset, allowing
+ * ASCII patterns to be matched against raw message bytes without decoding or copying them.
+ */
+public class ByteCharSequence implements CharSequence {
+    private final byte[] data;
+    private final int start;
+    private final int end;
+
+    public ByteCharSequence(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    private ByteCharSequence(byte[] data, int start, int end) {
+        this.data = data;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (data[start + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteCharSequence(data, this.start + start, this.start + end);
+    }
+
+    @Override
+    public String toString() {
+        return new String(data, start, end - start, ISO_8859_1);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.utils;
+
+
+import org.json.JSONObject;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Serialized JSON split around placeholder string values. Values are substituted into the precomputed segments,
+ * avoiding reparsing and reserializing the JSON. Instances are immutable and safe to share between threads.
+ */
+public class JSONTemplate {
+    public static final String PLACEHOLDER = UUID.randomUUID().toString().replace("-", "");
+
+    private static final Pattern QUOTED_PLACEHOLDER = Pattern.compile(Pattern.quote(JSONObject.quote(PLACEHOLDER)));
+
+    private final String[] segments;
+    private final int segmentsByteLength;
+
+    private JSONTemplate(String[] segments) {
+        this.segments = segments;
+
+        int byteLength = 0;
+
+        for (String segment : segments) {
+            byteLength += utf8Length(segment);
+        }
+
+        this.segmentsByteLength = byteLength;
+    }
+
+    /**
+     * Build a template from a JSON object in which the substitutable values have been set to {@link #PLACEHOLDER}
+     *
+     * @param jsonObject JSON object containing placeholder values
+     * @return the template
+     */
+    public static JSONTemplate from(JSONObject jsonObject) {
+        return new JSONTemplate(QUOTED_PLACEHOLDER.split(jsonObject.toString(), -1));
+    }
+
+    /**
+     * Build the JSON with every placeholder replaced by the given string value
+     *
+     * @param value replacement value
+     * @return JSON string
+     */
+    public String with(String value) {
+        String quotedValue = JSONObject.quote(value);
+        StringBuilder builder = new StringBuilder(segments[0]);
+
+        for (int i = 1; i < segments.length; i++) {
+            builder.append(quotedValue).append(segments[i]);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Build the UTF-8 encoded JSON with every placeholder replaced by the given string value
+     *
+     * @param value replacement value
+     * @return UTF-8 encoded JSON
+     */
+    public byte[] bytesWith(String value) {
+        return with(value).getBytes(UTF_8);
+    }
+
+    /**
+     * Calculate the UTF-8 encoded length of the JSON with placeholders replaced, without building it
+     *
+     * @param value replacement value
+     * @return length in bytes
+     */
+    public int byteLengthWith(String value) {
+        return segmentsByteLength + (segments.length - 1) * utf8Length(JSONObject.quote(value));
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                // Each half of a valid surrogate pair contributes two of its four bytes, lone surrogates encode as '?'
+                boolean paired = Character.isHighSurrogate(c)
+                        ? i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))
+                        : i > 0 && Character.isHighSurrogate(value.charAt(i - 1));
+                length += paired ? 2 : 1;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+}
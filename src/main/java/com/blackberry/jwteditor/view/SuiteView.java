@@ -20,6 +20,7 @@ package com.blackberry.jwteditor.view;
 
 import burp.api.montoya.ui.UserInterface;
 import burp.config.BurpConfig;
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
 import com.blackberry.jwteditor.model.keys.KeysModel;
 import com.blackberry.jwteditor.model.persistence.KeysModelPersistence;
 import com.blackberry.jwteditor.model.tokens.TokensModel;
@@ -38,6 +39,7 @@ public class SuiteView {
     private final KeysModel keysModel;
     private final TokensModel tokensModel;
     private final RstaFactory rstaFactory;
+    private final KeyGenerationPool keyGenerationPool;
     private final BurpConfig burpConfig;
     private final UserInterface userInterface;
     private final boolean isProVersion;
@@ -53,6 +55,7 @@ public class SuiteView {
             KeysModel keysModel,
             TokensModel tokensModel,
             RstaFactory rstaFactory,
+            KeyGenerationPool keyGenerationPool,
             BurpConfig burpConfig,
             UserInterface userInterface,
             boolean isProVersion) {
@@ -61,6 +64,7 @@ public class SuiteView {
         this.keysModel = keysModel;
         this.tokensModel = tokensModel;
         this.rstaFactory = rstaFactory;
+        this.keyGenerationPool = keyGenerationPool;
         this.burpConfig = burpConfig;
         this.userInterface = userInterface;
         this.isProVersion = isProVersion;
@@ -87,7 +91,8 @@ public class SuiteView {
                 parent,
                 keysModelPersistence,
                 keysModel,
-                rstaFactory
+                rstaFactory,
+                keyGenerationPool
         );
         configView = new ConfigView(burpConfig, userInterface, isProVersion, keysModel);
         tokensView = new TokensView(tokensModel, rstaFactory);
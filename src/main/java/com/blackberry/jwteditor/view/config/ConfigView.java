@@ -35,6 +35,8 @@ public class ConfigView {
     private ProxyConfigView proxyConfigView;
     private ScannerConfigView scannerConfigView;
     private IntruderConfigView intruderConfigView;
+    private DecryptionConfigView decryptionConfigView;
+    private KeyGenerationConfigView keyGenerationConfigView;
 
     public ConfigView(BurpConfig burpConfig, UserInterface userInterface, boolean isProVersion, KeysModel keysModel) {
         this.burpConfig = burpConfig;
@@ -47,5 +49,7 @@ public class ConfigView {
         proxyConfigView = new ProxyConfigView(userInterface, burpConfig.proxyConfig());
         intruderConfigView = new IntruderConfigView(userInterface, new IntruderConfigModel(keysModel, burpConfig.intruderConfig()));
         scannerConfigView = new ScannerConfigView(userInterface, burpConfig.scannerConfig(), isProVersion);
+        decryptionConfigView = new DecryptionConfigView(userInterface, burpConfig.decryptionConfig());
+        keyGenerationConfigView = new KeyGenerationConfigView(userInterface, burpConfig.keyGenerationConfig());
     }
 }
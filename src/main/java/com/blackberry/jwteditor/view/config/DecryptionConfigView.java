@@ -0,0 +1,44 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.view.config;
+
+
+import burp.api.montoya.ui.UserInterface;
+import burp.config.DecryptionConfig;
+
+import javax.swing.*;
+
+import static java.awt.Font.BOLD;
+
+
+class DecryptionConfigView {
+    private static final int ITERATION_LIMIT_STEP = 100_000;
+
+    private JPanel mainPanel;
+    private JSpinner spinnerIterationLimit;
+    private JLabel decryptionLabel;
+
+    DecryptionConfigView(UserInterface userInterface, DecryptionConfig decryptionConfig) {
+        spinnerIterationLimit.setModel(new SpinnerNumberModel(decryptionConfig.pbes2IterationLimit(), 1, Integer.MAX_VALUE, ITERATION_LIMIT_STEP));
+        spinnerIterationLimit.addChangeListener(e -> decryptionConfig.setPbes2IterationLimit((Integer) spinnerIterationLimit.getValue()));
+
+        decryptionLabel.setFont(decryptionLabel.getFont().deriveFont(BOLD));
+        userInterface.applyThemeToComponent(mainPanel);
+    }
+}
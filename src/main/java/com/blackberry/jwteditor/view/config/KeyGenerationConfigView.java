@@ -0,0 +1,54 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.view.config;
+
+
+import burp.api.montoya.ui.UserInterface;
+import burp.config.KeyGenerationConfig;
+
+import javax.swing.*;
+
+import static java.awt.Font.BOLD;
+
+
+class KeyGenerationConfigView {
+    private static final int MAX_POOL_STOCK_SIZE = 100;
+
+    private JPanel mainPanel;
+    private JLabel keyGenerationLabel;
+    private JCheckBox checkBoxEnablePool;
+    private JSpinner spinnerPoolStockSize;
+
+    KeyGenerationConfigView(UserInterface userInterface, KeyGenerationConfig keyGenerationConfig) {
+        checkBoxEnablePool.setSelected(keyGenerationConfig.enablePool());
+
+        checkBoxEnablePool.addActionListener(e -> {
+            spinnerPoolStockSize.setEnabled(checkBoxEnablePool.isSelected());
+            keyGenerationConfig.setEnablePool(checkBoxEnablePool.isSelected());
+        });
+
+        spinnerPoolStockSize.setModel(new SpinnerNumberModel(keyGenerationConfig.poolStockSize(), 1, MAX_POOL_STOCK_SIZE, 1));
+        spinnerPoolStockSize.setEnabled(keyGenerationConfig.enablePool());
+        spinnerPoolStockSize.addChangeListener(e -> keyGenerationConfig.setPoolStockSize((Integer) spinnerPoolStockSize.getValue()));
+
+        keyGenerationLabel.setFont(keyGenerationLabel.getFont().deriveFont(BOLD));
+        userInterface.applyThemeToComponent(mainPanel);
+    }
+}
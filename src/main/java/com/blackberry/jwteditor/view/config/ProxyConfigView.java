@@ -29,10 +29,14 @@ import static java.awt.Font.BOLD;
 
 
 class ProxyConfigView {
+    private static final int HARVEST_MAX_TOKENS_STEP = 1_000;
+
     private JPanel mainPanel;
     private JCheckBox checkBoxHighlightJWT;
     private JComboBox comboBoxHighlightColor;
     private JLabel proxyLabel;
+    private JCheckBox checkBoxHarvestTokens;
+    private JSpinner spinnerHarvestMaxTokens;
 
     ProxyConfigView(UserInterface userInterface, ProxyConfig proxyConfig) {
         checkBoxHighlightJWT.setSelected(proxyConfig.highlightJWT());
@@ -47,6 +51,17 @@ class ProxyConfigView {
         comboBoxHighlightColor.setEnabled(proxyConfig.highlightJWT());
         comboBoxHighlightColor.addActionListener(e -> proxyConfig.setHighlightColor((HighlightColor) comboBoxHighlightColor.getSelectedItem()));
 
+        checkBoxHarvestTokens.setSelected(proxyConfig.harvestTokens());
+
+        checkBoxHarvestTokens.addActionListener(e -> {
+            spinnerHarvestMaxTokens.setEnabled(checkBoxHarvestTokens.isSelected());
+            proxyConfig.setHarvestTokens(checkBoxHarvestTokens.isSelected());
+        });
+
+        spinnerHarvestMaxTokens.setModel(new SpinnerNumberModel(proxyConfig.harvestMaxTokens(), 1, Integer.MAX_VALUE, HARVEST_MAX_TOKENS_STEP));
+        spinnerHarvestMaxTokens.setEnabled(proxyConfig.harvestTokens());
+        spinnerHarvestMaxTokens.addChangeListener(e -> proxyConfig.setHarvestMaxTokens((Integer) spinnerHarvestMaxTokens.getValue()));
+
         proxyLabel.setFont(proxyLabel.getFont().deriveFont(BOLD));
         userInterface.applyThemeToComponent(mainPanel);
 
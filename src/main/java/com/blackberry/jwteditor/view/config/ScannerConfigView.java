@@ -31,6 +31,8 @@ class ScannerConfigView {
     private JPanel mainPanel;
     private JCheckBox checkBoxHeaderInsertionPoint;
     private JTextField scannerParameterName;
+    private JCheckBox checkBoxClaimInsertionPoints;
+    private JTextField claimIncludeList;
     private JLabel scannerLabel;
 
     ScannerConfigView(UserInterface userInterface, ScannerConfig scannerConfig, boolean isProVersion) {
@@ -48,6 +50,19 @@ class ScannerConfigView {
                 new DocumentAdapter(e -> scannerConfig.setInsertionPointLocationParameterName(scannerParameterName.getText()))
         );
 
+        checkBoxClaimInsertionPoints.setEnabled(isProVersion);
+        checkBoxClaimInsertionPoints.setSelected(scannerConfig.enableClaimInsertionPoints());
+        checkBoxClaimInsertionPoints.addActionListener(e -> {
+            scannerConfig.setEnableClaimInsertionPoints(checkBoxClaimInsertionPoints.isSelected());
+            claimIncludeList.setEnabled(checkBoxClaimInsertionPoints.isSelected());
+        });
+
+        claimIncludeList.setEnabled(scannerConfig.enableClaimInsertionPoints());
+        claimIncludeList.setText(scannerConfig.claimIncludeList());
+        claimIncludeList.getDocument().addDocumentListener(
+                new DocumentAdapter(e -> scannerConfig.setClaimIncludeList(claimIncludeList.getText()))
+        );
+
         scannerLabel.setFont(scannerLabel.getFont().deriveFont(BOLD));
         userInterface.applyThemeToComponent(mainPanel);
     }
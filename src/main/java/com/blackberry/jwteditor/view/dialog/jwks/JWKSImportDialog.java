@@ -24,6 +24,7 @@ import com.blackberry.jwteditor.model.keys.KeysModel;
 import com.blackberry.jwteditor.utils.Utils;
 import com.blackberry.jwteditor.view.rsta.RstaFactory;
 import com.blackberry.jwteditor.view.utils.DebouncingDocumentAdapter;
+import com.blackberry.jwteditor.view.utils.DocumentReader;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 
 import javax.swing.*;
@@ -94,9 +95,10 @@ public class JWKSImportDialog extends JDialog {
         labelError.setText(" ");
         keys.clear();
 
-        if (!textAreaKeysJson.getText().isEmpty()) {
+        if (textAreaKeysJson.getDocument().getLength() > 0) {
             try {
-                List<Key> parsedKeys = new JWKSetParser().parse(textAreaKeysJson.getText());
+                // Read the document directly, as pasted key sets can be several megabytes
+                List<Key> parsedKeys = new JWKSetParser().parse(new DocumentReader(textAreaKeysJson.getDocument()));
                 keys.addAll(parsedKeys);
                 buttonImport.setEnabled(true);
             } catch (ParseException e) {
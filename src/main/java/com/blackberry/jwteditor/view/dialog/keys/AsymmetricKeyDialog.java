@@ -18,6 +18,7 @@ limitations under the License.
 
 package com.blackberry.jwteditor.view.dialog.keys;
 
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
 import com.blackberry.jwteditor.exceptions.PemException;
 import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
 import com.blackberry.jwteditor.model.keys.JWKKeyFactory;
@@ -49,6 +50,7 @@ import static javax.swing.SwingUtilities.invokeLater;
 public class AsymmetricKeyDialog extends KeyDialog {
     private final AsymmetricKeyDialogMode mode;
     private final RstaFactory rstaFactory;
+    private final KeyGenerationPool keyGenerationPool;
 
     private Color textAreaKeyInitialBackgroundColor;
     private Color textAreaKeyInitialCurrentLineHighlightColor;
@@ -70,12 +72,14 @@ public class AsymmetricKeyDialog extends KeyDialog {
             Window parent,
             KeysModel keysModel,
             RstaFactory rstaFactory,
+            KeyGenerationPool keyGenerationPool,
             AsymmetricKeyDialogMode mode,
             JWK jwk) {
         super(parent, mode.resourceTitleId(), jwk == null ? null : jwk.getKeyID(), keysModel);
 
         this.mode = mode;
         this.rstaFactory = rstaFactory;
+        this.keyGenerationPool = keyGenerationPool;
         this.jwk = jwk;
 
         setContentPane(contentPane);
@@ -254,11 +258,11 @@ public class AsymmetricKeyDialog extends KeyDialog {
 
         enableOrDisableControls(false);
 
-        // Generate the new key on a background thread as this may be long running
+        // Take the new key from the pool on a background thread, as generating it may be long running if none is in stock
         new SwingWorker<JWK, Void>() {
             @Override
             protected JWK doInBackground() throws Exception {
-                return mode.generateNewKey(keyId, parameters);
+                return mode.generateNewKey(keyGenerationPool, keyId, parameters);
             }
 
             /**
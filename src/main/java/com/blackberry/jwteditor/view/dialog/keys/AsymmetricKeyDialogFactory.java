@@ -18,6 +18,7 @@ limitations under the License.
 
 package com.blackberry.jwteditor.view.dialog.keys;
 
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
 import com.blackberry.jwteditor.model.keys.KeysModel;
 import com.blackberry.jwteditor.view.rsta.RstaFactory;
 import com.nimbusds.jose.jwk.ECKey;
@@ -32,14 +33,18 @@ public class AsymmetricKeyDialogFactory {
     private final Window parent;
     private final KeysModel keysModel;
     private final RstaFactory rstaFactory;
+    private final KeyGenerationPool keyGenerationPool;
 
-    public AsymmetricKeyDialogFactory(Window parent, KeysModel keysModel, RstaFactory rstaFactory) {
+    public AsymmetricKeyDialogFactory(Window parent, KeysModel keysModel, RstaFactory rstaFactory, KeyGenerationPool keyGenerationPool) {
         this.parent = parent;
         this.keysModel = keysModel;
         this.rstaFactory = rstaFactory;
+        this.keyGenerationPool = keyGenerationPool;
     }
 
     public AsymmetricKeyDialog rsaKeyDialog() {
+        // Start stocking the dialog's default key size while the user fills it in
+        keyGenerationPool.prime(RSA.defaultSpec());
         return rsaKeyDialog(null);
     }
 
@@ -48,12 +53,14 @@ public class AsymmetricKeyDialogFactory {
                 parent,
                 keysModel,
                 rstaFactory,
+                keyGenerationPool,
                 RSA,
                 rsaKey
         );
     }
 
     public AsymmetricKeyDialog ecKeyDialog() {
+        keyGenerationPool.prime(EC.defaultSpec());
         return ecKeyDialog(null);
     }
 
@@ -62,12 +69,14 @@ public class AsymmetricKeyDialogFactory {
                 parent,
                 keysModel,
                 rstaFactory,
+                keyGenerationPool,
                 EC,
                 ecKey
         );
     }
 
     public AsymmetricKeyDialog okpDialog() {
+        keyGenerationPool.prime(OKP.defaultSpec());
         return okpDialog(null);
     }
 
@@ -76,6 +85,7 @@ public class AsymmetricKeyDialogFactory {
                 parent,
                 keysModel,
                 rstaFactory,
+                keyGenerationPool,
                 OKP,
                 octetKeyPair
         );
@@ -18,19 +18,12 @@ limitations under the License.
 
 package com.blackberry.jwteditor.view.dialog.keys;
 
-import com.blackberry.jwteditor.cryptography.okp.OKPGenerator;
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool.Spec;
 import com.blackberry.jwteditor.exceptions.PemException;
 import com.blackberry.jwteditor.utils.PEMUtils;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.jwk.*;
-import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
-import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
-
-import java.security.KeyStore;
-import java.security.KeyStoreException;
-import java.security.Provider;
-import java.security.Security;
 
 enum AsymmetricKeyDialogMode {
     EC(
@@ -107,17 +100,19 @@ enum AsymmetricKeyDialogMode {
         };
     }
 
-    JWK generateNewKey(String keyId, Object keyParameter) throws KeyStoreException, JOSEException {
-
-        Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+    JWK generateNewKey(KeyGenerationPool keyGenerationPool, String keyId, Object keyParameter) throws JOSEException {
+        return keyGenerationPool.take(spec(keyParameter), keyId);
+    }
 
-        // Force using the BC provider, but fall-back to default if this fails
-        KeyStore keyStore = provider == null ? null : KeyStore.getInstance(KeyStore.getDefaultType(), provider);
+    Spec defaultSpec() {
+        return spec(defaultOption);
+    }
 
+    private Spec spec(Object keyParameter) {
         return switch (this) {
-            case EC -> new ECKeyGenerator((Curve) keyParameter).keyStore(keyStore).keyID(keyId).generate();
-            case RSA -> new RSAKeyGenerator((Integer) keyParameter, true).keyStore(keyStore).keyID(keyId).generate();
-            case OKP -> new OKPGenerator((Curve) keyParameter).keyStore(keyStore).keyID(keyId).generate();
+            case EC -> Spec.ec((Curve) keyParameter);
+            case RSA -> Spec.rsa((Integer) keyParameter);
+            case OKP -> Spec.okp((Curve) keyParameter);
         };
     }
 
@@ -18,6 +18,7 @@ limitations under the License.
 
 package com.blackberry.jwteditor.view.dialog.keys;
 
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
 import com.blackberry.jwteditor.model.keys.JWKKey;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.blackberry.jwteditor.model.keys.KeysModel;
@@ -36,11 +37,11 @@ public class KeysDialogFactory {
     private final AsymmetricKeyDialogFactory asymmetricKeyDialogFactory;
     private final Window window;
 
-    public KeysDialogFactory(KeysModel model, RstaFactory rstaFactory, Window window) {
+    public KeysDialogFactory(KeysModel model, RstaFactory rstaFactory, KeyGenerationPool keyGenerationPool, Window window) {
         this.model = model;
         this.rstaFactory = rstaFactory;
         this.window = window;
-        this.asymmetricKeyDialogFactory = new AsymmetricKeyDialogFactory(window, model, rstaFactory);
+        this.asymmetricKeyDialogFactory = new AsymmetricKeyDialogFactory(window, model, rstaFactory, keyGenerationPool);
     }
 
     public KeyDialog dialogFor(Key key) {
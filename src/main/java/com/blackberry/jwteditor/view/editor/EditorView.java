@@ -21,6 +21,7 @@ package com.blackberry.jwteditor.view.editor;
 import burp.api.montoya.collaborator.CollaboratorPayloadGenerator;
 import burp.api.montoya.logging.Logging;
 import burp.api.montoya.ui.Selection;
+import burp.config.DecryptionConfig;
 import com.blackberry.jwteditor.model.jose.ClaimsType;
 import com.blackberry.jwteditor.model.jose.Information;
 import com.blackberry.jwteditor.model.keys.KeysRepository;
@@ -46,6 +47,7 @@ import java.awt.*;
 import java.util.List;
 
 import static com.blackberry.jwteditor.model.jose.ClaimsType.JSON;
+import static com.blackberry.jwteditor.view.editor.EditorMode.JWE;
 import static com.blackberry.jwteditor.view.editor.EditorMode.JWS;
 import static java.awt.Color.RED;
 import static java.awt.EventQueue.invokeLater;
@@ -109,6 +111,7 @@ public abstract class EditorView {
             KeysRepository keysRepository,
             TokenRepository tokenRepository,
             TokenIdGenerator tokenIdGenerator,
+            DecryptionConfig decryptionConfig,
             RstaFactory rstaFactory,
             HexCodeAreaFactory hexAreaCodeFactory,
             CollaboratorPayloadGenerator collaboratorPayloadGenerator,
@@ -127,7 +130,8 @@ public abstract class EditorView {
                 logging,
                 keysRepository,
                 tokenRepository,
-                tokenIdGenerator
+                tokenIdGenerator,
+                decryptionConfig
         );
         this.informationPanel = informationPanelFactory.build();
         this.attackMenuFactory = new EditorViewAttackMenuFactory(presenter, isProVersion);
@@ -534,4 +538,38 @@ public abstract class EditorView {
     public void setInformation(List<Information> information) {
         informationPanel.updateInformation(information);
     }
+
+    /**
+     * Disable the Verify button while a verification runs in the background
+     * @param inProgress whether verification is running
+     */
+    public void setVerificationInProgress(boolean inProgress) {
+        buttonVerify.setEnabled(!inProgress && mode == JWS);
+        buttonVerify.setText(Utils.getResourceString("verify"));
+    }
+
+    /**
+     * Show the progress of a background verification on the Verify button
+     * @param percentage percentage of key and algorithm pairs attempted
+     */
+    public void setVerificationProgress(int percentage) {
+        buttonVerify.setText(Utils.getResourceString("editor_view_verify_progress").formatted(percentage));
+    }
+
+    /**
+     * Disable the Decrypt button while a decryption runs in the background
+     * @param inProgress whether decryption is running
+     */
+    public void setDecryptionInProgress(boolean inProgress) {
+        buttonDecrypt.setEnabled(!inProgress && editable && mode == JWE);
+        buttonDecrypt.setText(Utils.getResourceString("decrypt"));
+    }
+
+    /**
+     * Show the progress of a background decryption on the Decrypt button
+     * @param percentage percentage of the decryption work completed
+     */
+    public void setDecryptionProgress(int percentage) {
+        buttonDecrypt.setText(Utils.getResourceString("editor_view_decrypt_progress").formatted(percentage));
+    }
 }
@@ -24,6 +24,7 @@ import burp.api.montoya.http.message.HttpRequestResponse;
 import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.logging.Logging;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedEditor;
+import burp.config.DecryptionConfig;
 import com.blackberry.jwteditor.model.keys.KeysRepository;
 import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
 import com.blackberry.jwteditor.model.tokens.TokenRepository;
@@ -39,6 +40,7 @@ abstract class HttpEditorView extends EditorView implements ExtensionProvidedEdi
             KeysRepository keysRepository,
             TokenRepository tokenRepository,
             TokenIdGenerator tokenIdGenerator,
+            DecryptionConfig decryptionConfig,
             RstaFactory rstaFactory,
             HexCodeAreaFactory hexAreaCodeFactory,
             CollaboratorPayloadGenerator collaboratorPayloadGenerator,
@@ -50,6 +52,7 @@ abstract class HttpEditorView extends EditorView implements ExtensionProvidedEdi
                 keysRepository,
                 tokenRepository,
                 tokenIdGenerator,
+                decryptionConfig,
                 rstaFactory,
                 hexAreaCodeFactory,
                 collaboratorPayloadGenerator,
@@ -23,6 +23,7 @@ import burp.api.montoya.http.message.HttpRequestResponse;
 import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.logging.Logging;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedHttpRequestEditor;
+import burp.config.DecryptionConfig;
 import com.blackberry.jwteditor.model.keys.KeysRepository;
 import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
 import com.blackberry.jwteditor.model.tokens.TokenRepository;
@@ -38,6 +39,7 @@ public class HttpRequestEditorView extends HttpEditorView implements ExtensionPr
             KeysRepository keysRepository,
             TokenRepository tokenRepository,
             TokenIdGenerator tokenIdGenerator,
+            DecryptionConfig decryptionConfig,
             RstaFactory rstaFactory,
             CollaboratorPayloadGenerator collaboratorPayloadGenerator,
             HexCodeAreaFactory hexAreaCodeFactory,
@@ -49,6 +51,7 @@ public class HttpRequestEditorView extends HttpEditorView implements ExtensionPr
                 keysRepository,
                 tokenRepository,
                 tokenIdGenerator,
+                decryptionConfig,
                 rstaFactory,
                 hexAreaCodeFactory,
                 collaboratorPayloadGenerator,
@@ -23,6 +23,7 @@ import burp.api.montoya.http.message.HttpRequestResponse;
 import burp.api.montoya.http.message.responses.HttpResponse;
 import burp.api.montoya.logging.Logging;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedHttpResponseEditor;
+import burp.config.DecryptionConfig;
 import com.blackberry.jwteditor.model.keys.KeysRepository;
 import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
 import com.blackberry.jwteditor.model.tokens.TokenRepository;
@@ -38,6 +39,7 @@ public class HttpResponseEditorView extends HttpEditorView implements ExtensionP
             KeysRepository keysRepository,
             TokenRepository tokenRepository,
             TokenIdGenerator tokenIdGenerator,
+            DecryptionConfig decryptionConfig,
             RstaFactory rstaFactory,
             CollaboratorPayloadGenerator collaboratorPayloadGenerator,
             HexCodeAreaFactory hexAreaCodeFactory,
@@ -49,6 +51,7 @@ public class HttpResponseEditorView extends HttpEditorView implements ExtensionP
                 keysRepository,
                 tokenRepository,
                 tokenIdGenerator,
+                decryptionConfig,
                 rstaFactory,
                 hexAreaCodeFactory,
                 collaboratorPayloadGenerator,
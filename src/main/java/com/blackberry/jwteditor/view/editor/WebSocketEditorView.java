@@ -24,6 +24,7 @@ import burp.api.montoya.http.message.requests.HttpRequest;
 import burp.api.montoya.logging.Logging;
 import burp.api.montoya.ui.contextmenu.WebSocketMessage;
 import burp.api.montoya.ui.editor.extension.ExtensionProvidedWebSocketMessageEditor;
+import burp.config.DecryptionConfig;
 import com.blackberry.jwteditor.model.keys.KeysRepository;
 import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
 import com.blackberry.jwteditor.model.tokens.TokenRepository;
@@ -39,6 +40,7 @@ public class WebSocketEditorView extends EditorView implements ExtensionProvided
     public WebSocketEditorView(KeysRepository keysRepository,
                                TokenRepository tokenRepository,
                                TokenIdGenerator tokenIdGenerator,
+                               DecryptionConfig decryptionConfig,
                                RstaFactory rstaFactory,
                                CollaboratorPayloadGenerator collaboratorPayloadGenerator,
                                HexCodeAreaFactory hexAreaCodeFactory,
@@ -50,6 +52,7 @@ public class WebSocketEditorView extends EditorView implements ExtensionProvided
                 keysRepository,
                 tokenRepository,
                 tokenIdGenerator,
+                decryptionConfig,
                 rstaFactory,
                 hexAreaCodeFactory,
                 collaboratorPayloadGenerator,
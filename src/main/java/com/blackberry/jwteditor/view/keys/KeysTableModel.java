@@ -41,6 +41,16 @@ class KeysTableModel extends GenericTableModel {
         fireTableRowsInserted(nextRowIndex, nextRowIndex);
     }
 
+    void addKeys(List<Key> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        int firstRowIndex = data.size();
+        data.addAll(keys);
+        fireTableRowsInserted(firstRowIndex, data.size() - 1);
+    }
+
     void deleteKey(Key key) {
         int index = data.indexOf(key);
         deleteRow(index);
@@ -18,6 +18,7 @@ limitations under the License.
 
 package com.blackberry.jwteditor.view.keys;
 
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.blackberry.jwteditor.model.keys.KeysModel;
 import com.blackberry.jwteditor.model.persistence.KeysModelPersistence;
@@ -35,6 +36,7 @@ import java.awt.*;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.List;
 
 import static com.blackberry.jwteditor.view.keys.KeysTableColumnConfiguration.KeysTableColumns.columnWidthPercentages;
 
@@ -68,7 +70,8 @@ public class KeysView {
             Window parent,
             KeysModelPersistence keysModelPersistence,
             KeysModel keysModel,
-            RstaFactory rstaFactory) {
+            RstaFactory rstaFactory,
+            KeyGenerationPool keyGenerationPool) {
         this.parent = parent;
 
         keysTableModel = new KeysTableModel(keysModel.keys());
@@ -81,6 +84,7 @@ public class KeysView {
                 new KeysDialogFactory(
                         keysModel,
                         rstaFactory,
+                        keyGenerationPool,
                         parent
                 ),
                 rstaFactory
@@ -249,6 +253,10 @@ public class KeysView {
         keysTableModel.addKey(key);
     }
 
+    public void addKeys(List<Key> keys) {
+        keysTableModel.addKeys(keys);
+    }
+
     public void deleteKey(int rowIndex) {
         keysTableModel.deleteRow(rowIndex);
     }
@@ -27,10 +27,11 @@ public class TokensTableColumnConfiguration implements TableColumnConfiguration
 
     enum TokensTableColumns {
         ID("id", 5, String.class),
-        HOST("host", 35, String.class),
-        PATH("path", 35, String.class),
+        HOST("host", 32, String.class),
+        PATH("path", 32, String.class),
         ALGORITHM("algorithm", 5, String.class),
-        KEY_ID("key_id", 20, String.class);
+        KEY_ID("key_id", 20, String.class),
+        OCCURRENCES("occurrences", 6, Integer.class);
 
         private final String label;
         private final int widthPercentage;
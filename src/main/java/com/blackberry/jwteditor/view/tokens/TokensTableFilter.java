@@ -0,0 +1,121 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.view.tokens;
+
+import com.blackberry.jwteditor.model.tokens.Token;
+
+import javax.swing.*;
+import javax.swing.table.TableRowSorter;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Filters the rows of the tokens table. Queries are run off the EDT, with at most one in flight, and the latest query
+ * is run again once it completes if the query or the tokens changed meanwhile. Results for a superseded query are
+ * discarded.
+ */
+class TokensTableFilter {
+    private final TokensTableModel tableModel;
+    private final TableRowSorter<TokensTableModel> rowSorter;
+    private final Function<String, Predicate<Token>> search;
+
+    // Only accessed on the EDT
+    private String query = "";
+    private SwingWorker<Predicate<Token>, Void> worker;
+    private boolean rerun;
+
+    TokensTableFilter(TokensTableModel tableModel,
+                      TableRowSorter<TokensTableModel> rowSorter,
+                      Function<String, Predicate<Token>> search) {
+        this.tableModel = tableModel;
+        this.rowSorter = rowSorter;
+        this.search = search;
+
+        // New tokens are only in the index, so refresh the filter when the rows change
+        tableModel.addTableModelListener(e -> {
+            if (!query.isBlank()) {
+                run();
+            }
+        });
+    }
+
+    void setQuery(String query) {
+        this.query = query;
+
+        if (query.isBlank()) {
+            rowSorter.setRowFilter(null);
+        }
+
+        run();
+    }
+
+    private void run() {
+        if (worker != null) {
+            rerun = true;
+            return;
+        }
+
+        if (query.isBlank()) {
+            return;
+        }
+
+        String workerQuery = query;
+
+        worker = new SwingWorker<>() {
+            @Override
+            protected Predicate<Token> doInBackground() {
+                return search.apply(workerQuery);
+            }
+
+            @Override
+            protected void done() {
+                worker = null;
+
+                try {
+                    Predicate<Token> predicate = get();
+
+                    if (workerQuery.equals(query)) {
+                        rowSorter.setRowFilter(rowFilter(predicate));
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    rowSorter.setRowFilter(null);
+                }
+
+                if (rerun) {
+                    rerun = false;
+                    run();
+                }
+            }
+        };
+
+        worker.execute();
+    }
+
+    private RowFilter<TokensTableModel, Integer> rowFilter(Predicate<Token> predicate) {
+        return new RowFilter<>() {
+            @Override
+            public boolean include(Entry<? extends TokensTableModel, ? extends Integer> entry) {
+                Token token = tableModel.tokenAt(entry.getIdentifier());
+                return token != null && predicate.test(token);
+            }
+        };
+    }
+}
@@ -20,33 +20,76 @@ package com.blackberry.jwteditor.view.tokens;
 
 import com.blackberry.jwteditor.model.tokens.Token;
 import com.blackberry.jwteditor.model.tokens.TokensModelListener;
+import com.blackberry.jwteditor.model.tokens.TokensSnapshot;
 import com.blackberry.jwteditor.view.tokens.TokensTableColumnConfiguration.TokensTableColumns;
 import com.blackberry.jwteditor.view.utils.table.GenericTableModel;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import static java.awt.EventQueue.invokeLater;
+
+/**
+ * Table model over a snapshot of the tokens, only read and replaced on the EDT. Model changes from any thread schedule
+ * a single refresh, so a burst of additions is reported to the table as one range of inserted rows, and a burst of
+ * repeated tokens as one update of the existing rows. Deletions are reported as ranges of deleted rows, so that the
+ * table keeps its selection, unless there are so many separate ranges that one data change is cheaper.
+ */
 class TokensTableModel extends GenericTableModel {
-    private final List<Token> tokens;
+    private static final int MAX_DELETED_RANGES = 100;
+
+    private final Supplier<TokensSnapshot> tokensSupplier;
+    private final AtomicBoolean refreshPending;
+    private final AtomicBoolean rowsUpdated;
+
+    private TokensSnapshot snapshot;
+    private List<Token> tokens;
 
-    TokensTableModel(List<Token> tokens, Consumer<TokensModelListener> listenerConsumer) {
+    TokensTableModel(Supplier<TokensSnapshot> tokensSupplier, Consumer<TokensModelListener> listenerConsumer) {
         super(new TokensTableColumnConfiguration());
 
-        this.tokens = tokens;
+        this.tokensSupplier = tokensSupplier;
+        this.refreshPending = new AtomicBoolean();
+        this.rowsUpdated = new AtomicBoolean();
+        this.snapshot = tokensSupplier.get();
+        this.tokens = snapshot;
 
         listenerConsumer.accept(new TokensModelListener() {
             @Override
             public void notifyTokenInserted(Token token) {
-                fireTableRowsInserted(tokens.size() - 1, tokens.size() - 1);
+                scheduleRefresh();
+            }
+
+            @Override
+            public void notifyTokensInserted(List<Token> tokens) {
+                scheduleRefresh();
+            }
+
+            @Override
+            public void notifyTokenDeleted(int index, Token token) {
+                scheduleRefresh();
             }
 
             @Override
-            public void notifyTokenDeleted(int index) {
-                fireTableRowsDeleted(index, index);
+            public void notifyTokensCleared() {
+                scheduleRefresh();
+            }
+
+            @Override
+            public void notifyTokenRepeated(Token token, Token repeat) {
+                rowsUpdated.set(true);
+                scheduleRefresh();
             }
         });
     }
 
+    Token tokenAt(int rowIndex) {
+        return rowIndex < 0 || rowIndex >= tokens.size() ? null : tokens.get(rowIndex);
+    }
+
     @Override
     public int getRowCount() {
         return tokens.size();
@@ -54,11 +97,12 @@ class TokensTableModel extends GenericTableModel {
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        if (rowIndex < 0 || rowIndex >= tokens.size()) {
+        Token token = tokenAt(rowIndex);
+
+        if (token == null) {
             return null;
         }
 
-        Token token = tokens.get(rowIndex);
         TokensTableColumns column = TokensTableColumns.fromIndex(columnIndex);
 
         return switch (column) {
@@ -67,6 +111,77 @@ class TokensTableModel extends GenericTableModel {
             case PATH -> token.path();
             case ALGORITHM -> token.algorithm();
             case KEY_ID -> token.keyId();
+            case OCCURRENCES -> token.occurrences().count();
         };
     }
+
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            invokeLater(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        // Cleared before taking the snapshot, so any change made after it schedules another refresh
+        refreshPending.set(false);
+
+        boolean updated = rowsUpdated.getAndSet(false);
+        TokensSnapshot previous = snapshot;
+        snapshot = tokensSupplier.get();
+
+        if (!previous.isPrefixOf(snapshot) && !deleteRows(previous, snapshot)) {
+            tokens = snapshot;
+            fireTableDataChanged();
+            return;
+        }
+
+        int previousSize = tokens.size();
+        tokens = snapshot;
+
+        if (updated && previousSize > 0) {
+            fireTableRowsUpdated(0, previousSize - 1);
+        }
+
+        if (tokens.size() > previousSize) {
+            fireTableRowsInserted(previousSize, tokens.size() - 1);
+        }
+    }
+
+    /**
+     * Report the rows of the previous snapshot missing from the current one as deleted. The model only deletes tokens
+     * or appends them, so the current snapshot is the previous one with some tokens removed and others appended.
+     *
+     * @param previous snapshot the table currently shows
+     * @param current  snapshot taken since
+     * @return true if deletions were reported and the rows are now a prefix of the current snapshot, false if there
+     * were too many separate deletions to report individually
+     */
+    private boolean deleteRows(TokensSnapshot previous, TokensSnapshot current) {
+        List<int[]> ranges = new ArrayList<>();
+        int retained = 0;
+
+        for (int i = 0; i < previous.size(); i++) {
+            if (retained < current.size() && previous.get(i) == current.get(retained)) {
+                retained++;
+            } else if (!ranges.isEmpty() && ranges.getLast()[1] == i - 1) {
+                ranges.getLast()[1] = i;
+            } else if (ranges.size() == MAX_DELETED_RANGES) {
+                return false;
+            } else {
+                ranges.add(new int[]{i, i});
+            }
+        }
+
+        // Rows are removed one range at a time, highest first, so each event matches the rows the table is shown
+        List<Token> rows = new ArrayList<>(previous);
+        tokens = rows;
+
+        for (int i = ranges.size() - 1; i >= 0; i--) {
+            int[] range = ranges.get(i);
+            rows.subList(range[0], range[1] + 1).clear();
+            fireTableRowsDeleted(range[0], range[1]);
+        }
+
+        return true;
+    }
 }
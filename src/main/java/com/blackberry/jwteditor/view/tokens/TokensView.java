@@ -20,7 +20,9 @@ package com.blackberry.jwteditor.view.tokens;
 
 import com.blackberry.jwteditor.model.tokens.Token;
 import com.blackberry.jwteditor.model.tokens.TokensModel;
+import com.blackberry.jwteditor.utils.Utils;
 import com.blackberry.jwteditor.view.rsta.RstaFactory;
+import com.blackberry.jwteditor.view.utils.DocumentAdapter;
 import com.blackberry.jwteditor.view.utils.RunEDTActionOnFirstRenderHierarchyListener;
 import com.blackberry.jwteditor.view.utils.table.PercentageBasedColumnWidthTable;
 import com.blackberry.jwteditor.view.utils.table.RowHeightDecoratingTableCellRenderer;
@@ -28,7 +30,7 @@ import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 
 import javax.swing.*;
 import javax.swing.table.TableCellRenderer;
-import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
 
 import static com.blackberry.jwteditor.view.tokens.TokensTableColumnConfiguration.TokensTableColumns.columnWidthPercentages;
 import static javax.swing.ListSelectionModel.SINGLE_SELECTION;
@@ -41,6 +43,7 @@ public class TokensView {
     private JTable tokenTable;
     private RSyntaxTextArea textAreaPayload;
     private JSplitPane splitPane;
+    private JTextField textFieldFilter;
 
     public TokensView(TokensModel tokensModel, RstaFactory rstaFactory) {
         this.rstaFactory = rstaFactory;
@@ -50,9 +53,18 @@ public class TokensView {
                 () -> splitPane.setDividerLocation(0.5)
         ));
 
-        TableModel tokensTableModel = new TokensTableModel(tokensModel.tokens(), tokensModel::addTokensModelListener);
+        TokensTableModel tokensTableModel = new TokensTableModel(tokensModel::tokens, tokensModel::addTokensModelListener);
         tokenTable.setModel(tokensTableModel);
 
+        TableRowSorter<TokensTableModel> rowSorter = new TableRowSorter<>(tokensTableModel);
+        tokenTable.setRowSorter(rowSorter);
+
+        TokensTableFilter tableFilter = new TokensTableFilter(tokensTableModel, rowSorter, tokensModel::filter);
+        textFieldFilter.setToolTipText(Utils.getResourceString("tokens_filter_tooltip"));
+        textFieldFilter.getDocument().addDocumentListener(
+                new DocumentAdapter(e -> tableFilter.setQuery(textFieldFilter.getText()))
+        );
+
         ListSelectionModel selectionModel = tokenTable.getSelectionModel();
         selectionModel.setSelectionMode(SINGLE_SELECTION);
         selectionModel.addListSelectionListener(e -> {
@@ -60,13 +72,34 @@ public class TokensView {
                 return;
             }
 
-            Token token = tokensModel.tokens().get(selectionModel.getMinSelectionIndex());
-            textAreaPayload.setText(token.claims());
+            Token token = tokenAtViewRow(tokensTableModel, selectionModel.getMinSelectionIndex());
+            textAreaPayload.setText(token == null ? "" : token.claims());
+        });
+
+        JMenuItem menuItemDelete = new JMenuItem(Utils.getResourceString("delete"));
+        menuItemDelete.addActionListener(e -> {
+            Token token = tokenAtViewRow(tokensTableModel, tokenTable.getSelectedRow());
+
+            if (token != null) {
+                tokensModel.delete(token);
+            }
         });
 
+        JMenuItem menuItemClear = new JMenuItem(Utils.getResourceString("tokens_menu_clear"));
+        menuItemClear.addActionListener(e -> tokensModel.clear());
+
+        JPopupMenu popupMenu = new JPopupMenu();
+        popupMenu.add(menuItemDelete);
+        popupMenu.add(menuItemClear);
+        tokenTable.setComponentPopupMenu(popupMenu);
+
         textAreaPayload.setEditable(false);
     }
 
+    private Token tokenAtViewRow(TokensTableModel tokensTableModel, int viewRow) {
+        return viewRow < 0 ? null : tokensTableModel.tokenAt(tokenTable.convertRowIndexToModel(viewRow));
+    }
+
     private void createUIComponents() {
         textAreaPayload = rstaFactory.buildDefaultTextArea();
         tokenTable = new PercentageBasedColumnWidthTable(columnWidthPercentages());
@@ -0,0 +1,71 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.view.utils;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader over the text of a Swing document, reading from the document's own storage rather than a copy of its text.
+ * The document must not be modified while it is being read.
+ */
+public class DocumentReader extends Reader {
+    private final Document document;
+    private final Segment segment;
+
+    private int position;
+
+    public DocumentReader(Document document) {
+        this.document = document;
+        this.segment = new Segment();
+        this.segment.setPartialReturn(true);
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int remaining = document.getLength() - position;
+
+        if (remaining <= 0) {
+            return -1;
+        }
+
+        try {
+            document.getText(position, Math.min(length, remaining), segment);
+        } catch (BadLocationException e) {
+            throw new IOException(e);
+        }
+
+        System.arraycopy(segment.array, segment.offset, buffer, offset, segment.count);
+        position += segment.count;
+
+        return segment.count;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -21,6 +21,7 @@ package burp.api.montoya.core;
 import java.util.Iterator;
 import java.util.regex.Pattern;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class FakeByteArray implements ByteArray {
@@ -119,7 +120,11 @@ public class FakeByteArray implements ByteArray {
 
     @Override
     public int indexOf(String searchTerm, boolean caseSensitive) {
-        throw new UnsupportedOperationException();
+        if (!caseSensitive) {
+            throw new UnsupportedOperationException();
+        }
+
+        return new String(data, ISO_8859_1).indexOf(searchTerm);
     }
 
     @Override
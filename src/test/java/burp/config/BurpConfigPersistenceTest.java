@@ -30,10 +30,12 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.util.stream.Stream;
 
 import static burp.config.BurpConfigPersistence.BURP_SETTINGS_NAME;
+import static burp.config.KeyGenerationConfig.DEFAULT_POOL_STOCK_SIZE;
 import static burp.intruder.FuzzLocation.HEADER;
 import static burp.intruder.FuzzLocation.PAYLOAD;
 import static burp.proxy.HighlightColor.CYAN;
 import static burp.proxy.HighlightColor.RED;
+import static burp.proxy.ProxyConfig.DEFAULT_HARVEST_MAX_TOKENS;
 import static burp.proxy.ProxyConfig.DEFAULT_HIGHLIGHT_COLOR;
 import static com.nimbusds.jose.JWSAlgorithm.ES256;
 import static com.nimbusds.jose.JWSAlgorithm.EdDSA;
@@ -54,6 +56,8 @@ class BurpConfigPersistenceTest {
         assertThat(burpConfig.proxyConfig()).isNotNull();
         assertThat(burpConfig.proxyConfig().highlightJWT()).isTrue();
         assertThat(burpConfig.proxyConfig().highlightColor()).isEqualTo(DEFAULT_HIGHLIGHT_COLOR);
+        assertThat(burpConfig.proxyConfig().harvestTokens()).isFalse();
+        assertThat(burpConfig.proxyConfig().harvestMaxTokens()).isEqualTo(DEFAULT_HARVEST_MAX_TOKENS);
         assertThat(burpConfig.intruderConfig()).isNotNull();
         assertThat(burpConfig.intruderConfig().fuzzParameter()).isEqualTo("name");
         assertThat(burpConfig.intruderConfig().resign()).isFalse();
@@ -61,11 +65,16 @@ class BurpConfigPersistenceTest {
         assertThat(burpConfig.scannerConfig()).isNotNull();
         assertThat(burpConfig.scannerConfig().enableHeaderJWSInsertionPointLocation()).isFalse();
         assertThat(burpConfig.scannerConfig().insertionPointLocationParameterName()).isEqualTo("kid");
+        assertThat(burpConfig.scannerConfig().enableClaimInsertionPoints()).isFalse();
+        assertThat(burpConfig.scannerConfig().claimIncludeList()).isEqualTo("*");
+        assertThat(burpConfig.decryptionConfig().pbes2IterationLimit()).isEqualTo(1000000);
+        assertThat(burpConfig.keyGenerationConfig().enablePool()).isFalse();
+        assertThat(burpConfig.keyGenerationConfig().poolStockSize()).isEqualTo(DEFAULT_POOL_STOCK_SIZE);
     }
 
     @Test
     void givenDefaultConfig_whenSaved_thenJsonCorrect() {
-        String expectedJson = "{\"scanner_insertion_point_provider_enabled\":false,\"intruder_payload_processor_parameter_name\":\"name\",\"proxy_history_highlight_color\":\"GREEN\",\"proxy_listener_enabled\":true,\"scanner_insertion_point_provider_parameter_name\":\"kid\",\"intruder_payload_processor_resign\":false,\"intruder_payload_processor_fuzz_location\":\"PAYLOAD\"}";
+        String expectedJson = "{\"scanner_claim_insertion_points_enabled\":false,\"proxy_harvest_tokens\":false,\"key_generation_pool_stock_size\":2,\"intruder_payload_processor_parameter_name\":\"name\",\"key_generation_pool_enabled\":false,\"proxy_history_highlight_color\":\"GREEN\",\"scanner_insertion_point_provider_parameter_name\":\"kid\",\"intruder_payload_processor_resign\":false,\"intruder_payload_processor_fuzz_location\":\"PAYLOAD\",\"proxy_harvest_max_tokens\":10000,\"scanner_insertion_point_provider_enabled\":false,\"decryption_pbes2_iteration_limit\":1000000,\"proxy_listener_enabled\":true,\"scanner_claim_insertion_points_include_list\":\"*\"}";
         BurpConfigPersistence configPersistence = new BurpConfigPersistence(callbacks);
 
         configPersistence.save(new BurpConfig());
@@ -397,6 +406,54 @@ class BurpConfigPersistenceTest {
         assertThat(burpConfig.scannerConfig().insertionPointLocationParameterName()).isEqualTo(insertionPointParameterName);
     }
 
+    @Test
+    void givenValidScannerClaimSavedConfig_whenLoadOrCreateCalled_thenAppropriateConfigReturned() {
+        String json = "{\"scanner_claim_insertion_points_enabled\":true,\"scanner_claim_insertion_points_include_list\":\"header:kid, payload:sub\"}";
+        BurpConfigPersistence configPersistence = new BurpConfigPersistence(callbacks);
+        when(callbacks.getString(BURP_SETTINGS_NAME)).thenReturn(json);
+
+        BurpConfig burpConfig = configPersistence.loadOrCreateNew();
+
+        assertThat(burpConfig.scannerConfig().enableClaimInsertionPoints()).isTrue();
+        assertThat(burpConfig.scannerConfig().claimIncludeList()).isEqualTo("header:kid, payload:sub");
+    }
+
+    @Test
+    void givenDecryptionConfig_whenLoadOrCreateCalled_thenIterationLimitLoaded() {
+        String json = "{\"decryption_pbes2_iteration_limit\":5000}";
+        BurpConfigPersistence configPersistence = new BurpConfigPersistence(callbacks);
+        when(callbacks.getString(BURP_SETTINGS_NAME)).thenReturn(json);
+
+        BurpConfig burpConfig = configPersistence.loadOrCreateNew();
+
+        assertThat(burpConfig.decryptionConfig().pbes2IterationLimit()).isEqualTo(5000);
+    }
+
+    @Test
+    void givenKeyGenerationConfig_whenLoadOrCreateCalled_thenPoolSettingsLoaded() {
+        String json = "{\"key_generation_pool_enabled\":true,\"key_generation_pool_stock_size\":5}";
+        BurpConfigPersistence configPersistence = new BurpConfigPersistence(callbacks);
+        when(callbacks.getString(BURP_SETTINGS_NAME)).thenReturn(json);
+
+        BurpConfig burpConfig = configPersistence.loadOrCreateNew();
+
+        assertThat(burpConfig.keyGenerationConfig().enablePool()).isTrue();
+        assertThat(burpConfig.keyGenerationConfig().poolStockSize()).isEqualTo(5);
+        assertThat(burpConfig.keyGenerationConfig().effectivePoolStockSize()).isEqualTo(5);
+    }
+
+    @Test
+    void givenHarvestConfig_whenLoadOrCreateCalled_thenHarvestSettingsLoaded() {
+        String json = "{\"proxy_harvest_tokens\":true,\"proxy_harvest_max_tokens\":500}";
+        BurpConfigPersistence configPersistence = new BurpConfigPersistence(callbacks);
+        when(callbacks.getString(BURP_SETTINGS_NAME)).thenReturn(json);
+
+        BurpConfig burpConfig = configPersistence.loadOrCreateNew();
+
+        assertThat(burpConfig.proxyConfig().harvestTokens()).isTrue();
+        assertThat(burpConfig.proxyConfig().harvestMaxTokens()).isEqualTo(500);
+    }
+
     @Test
     void givenValidConfig_whenLoadOrCreateCalled_thenAppropriateConfigReturned() {
         String json = "{\"proxy_history_highlight_color\":\"cyan\",\"proxy_listener_enabled\":false,\"intruder_payload_processor_parameter_name\":\"iss\",\"intruder_payload_processor_fuzz_location\":\"header\",\"scanner_insertion_point_provider_enabled\": true,\"scanner_insertion_point_provider_parameter_name\": \"x5u\"}";
@@ -419,7 +476,7 @@ class BurpConfigPersistenceTest {
 
     @Test
     void givenValidConfig_whenRoundTripped_thenJsonIsCorrect() {
-        String json = "{\"scanner_insertion_point_provider_enabled\":false,\"intruder_payload_processor_parameter_name\":\"name\",\"proxy_history_highlight_color\":\"GREEN\",\"proxy_listener_enabled\":true,\"scanner_insertion_point_provider_parameter_name\":\"kid\",\"intruder_payload_processor_resign\":false,\"intruder_payload_processor_fuzz_location\":\"PAYLOAD\"}";
+        String json = "{\"scanner_claim_insertion_points_enabled\":false,\"proxy_harvest_tokens\":false,\"key_generation_pool_stock_size\":2,\"intruder_payload_processor_parameter_name\":\"name\",\"key_generation_pool_enabled\":false,\"proxy_history_highlight_color\":\"GREEN\",\"scanner_insertion_point_provider_parameter_name\":\"kid\",\"intruder_payload_processor_resign\":false,\"intruder_payload_processor_fuzz_location\":\"PAYLOAD\",\"proxy_harvest_max_tokens\":10000,\"scanner_insertion_point_provider_enabled\":false,\"decryption_pbes2_iteration_limit\":1000000,\"proxy_listener_enabled\":true,\"scanner_claim_insertion_points_include_list\":\"*\"}";
         BurpConfigPersistence configPersistence = new BurpConfigPersistence(callbacks);
         when(callbacks.getString(BURP_SETTINGS_NAME)).thenReturn(json);
 
@@ -0,0 +1,79 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.intruder;
+
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static burp.intruder.FuzzLocation.HEADER;
+import static burp.intruder.FuzzLocation.PAYLOAD;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class FuzzTargetTest {
+
+    private static Stream<Arguments> fuzzParameterData() {
+        return Stream.of(
+                arguments("name", List.of(new FuzzTarget(PAYLOAD, List.of("name")))),
+                arguments("/name", List.of(new FuzzTarget(PAYLOAD, List.of("name")))),
+                arguments("/a~1b/m~0n/0", List.of(new FuzzTarget(PAYLOAD, List.of("a/b", "m~n", "0")))),
+                arguments("header:kid", List.of(new FuzzTarget(HEADER, List.of("kid")))),
+                arguments("header:/kid, payload:/roles/0", List.of(new FuzzTarget(HEADER, List.of("kid")), new FuzzTarget(PAYLOAD, List.of("roles", "0")))),
+                arguments("https://example.com/roles", List.of(new FuzzTarget(PAYLOAD, List.of("https://example.com/roles")))),
+                arguments(" , ", List.of())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("fuzzParameterData")
+    void testParsingOfFuzzParameter(String fuzzParameter, List<FuzzTarget> expectedTargets) {
+        List<FuzzTarget> targets = FuzzTarget.parse(fuzzParameter, PAYLOAD);
+
+        assertThat(targets).isEqualTo(expectedTargets);
+    }
+
+    @Test
+    void givenNestedPointer_whenValueReplaced_thenNestedValueUpdated() {
+        JSONObject json = new JSONObject("{\"user\":{\"roles\":[\"user\",\"guest\"]}}");
+        FuzzTarget target = FuzzTarget.parse("/user/roles/1", PAYLOAD).getFirst();
+
+        boolean replaced = target.replaceValue(json, "admin");
+
+        assertThat(replaced).isTrue();
+        assertThat(json.getJSONObject("user").getJSONArray("roles").getString(1)).isEqualTo("admin");
+    }
+
+    @Test
+    void givenPointerToMissingValue_whenValueReplaced_thenJsonUnchanged() {
+        JSONObject json = new JSONObject("{\"user\":{\"roles\":[\"user\",\"guest\"]}}");
+        FuzzTarget target = FuzzTarget.parse("/user/roles/01", PAYLOAD).getFirst();
+
+        boolean replaced = target.replaceValue(json, "admin");
+
+        assertThat(replaced).isFalse();
+        assertThat(json.similar(new JSONObject("{\"user\":{\"roles\":[\"user\",\"guest\"]}}"))).isTrue();
+    }
+}
@@ -19,6 +19,7 @@ limitations under the License.
 package burp.persistence;
 
 import com.blackberry.jwteditor.model.tokens.Token;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences.Endpoint;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
@@ -126,4 +127,28 @@ class TokenDeserializationTest {
         assertThat(token.keyId()).isEqualTo("");
         assertThat(token.claims()).isEqualToIgnoringWhitespace("{\"name\": \"John Doe\"}");
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenJsonObjectWithoutOccurrences_whenDeserialize_thenSeenOnceAtHostAndPath() {
+        String json = "{\"id\": 101, \"host\": \"host\", path: \"path\", \"jws\": \"eyJhbGciOiJub25lIiwidHlwIjoiSldUIn0.eyJuYW1lIjoiSm9obiBEb2UifQ.\"}";
+
+        Token token = TokenPersistence.deserialize(new JSONObject(json));
+
+        assertThat(token.occurrences().count()).isEqualTo(1);
+        assertThat(token.occurrences().firstSeen()).isZero();
+        assertThat(token.occurrences().lastSeen()).isZero();
+        assertThat(token.occurrences().endpoints()).containsExactly(new Endpoint("host", "path"));
+    }
+
+    @Test
+    void givenJsonObjectWithOccurrences_whenDeserialize_thenOccurrencesRestored() {
+        String json = "{\"id\": 101, \"host\": \"host\", \"path\": \"path\", \"jws\": \"eyJhbGciOiJub25lIiwidHlwIjoiSldUIn0.eyJuYW1lIjoiSm9obiBEb2UifQ.\", \"count\": 3, \"firstSeen\": 1000, \"lastSeen\": 3000, \"endpoints\": [[\"host\", \"path\"], [\"other\", \"/\"]]}";
+
+        Token token = TokenPersistence.deserialize(new JSONObject(json));
+
+        assertThat(token.occurrences().count()).isEqualTo(3);
+        assertThat(token.occurrences().firstSeen()).isEqualTo(1000);
+        assertThat(token.occurrences().lastSeen()).isEqualTo(3000);
+        assertThat(token.occurrences().endpoints()).containsExactly(new Endpoint("host", "path"), new Endpoint("other", "/"));
+    }
+}
@@ -23,12 +23,15 @@ import burp.api.montoya.core.FakeAnnotations;
 import burp.api.montoya.core.FakeByteArray;
 import burp.api.montoya.utilities.ByteUtils;
 import burp.api.montoya.utilities.FakeByteUtils;
+import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
+import com.blackberry.jwteditor.model.tokens.TokensModel;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.stream.Stream;
 
+import static burp.api.montoya.logging.StubLogging.LOGGING;
 import static burp.proxy.HighlightColor.GREEN;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
@@ -36,7 +39,9 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 class AnnotationsModifierTest {
     private final ProxyConfig config = new ProxyConfig();
     private final ByteUtils byteUtils = new FakeByteUtils();
-    private final AnnotationsModifier annotationsModifier = new AnnotationsModifier(config, byteUtils);
+    private final TokensModel tokensModel = new TokensModel();
+    private final TokenHarvester tokenHarvester = new TokenHarvester(config, tokensModel, new TokenIdGenerator(), LOGGING);
+    private final AnnotationsModifier annotationsModifier = new AnnotationsModifier(config, byteUtils, tokenHarvester);
 
     private static Stream<Arguments> data() {
         return Stream.of(
@@ -52,7 +57,7 @@ class AnnotationsModifierTest {
         config.setHighlightColor(GREEN);
         config.setHighlightJWT(true);
 
-        annotationsModifier.updateAnnotationsIfApplicable(annotations, data);
+        annotationsModifier.updateAnnotationsIfApplicable(annotations, data, "host", "/");
 
         assertThat(annotations.highlightColor()).isEqualTo(GREEN.burpColor);
         assertThat(annotations.notes()).isEqualTo(expectedComment);
@@ -65,7 +70,7 @@ class AnnotationsModifierTest {
         config.setHighlightColor(GREEN);
         config.setHighlightJWT(true);
 
-        annotationsModifier.updateAnnotationsIfApplicable(annotations, new FakeByteArray(data));
+        annotationsModifier.updateAnnotationsIfApplicable(annotations, new FakeByteArray(data), "host", "/");
 
         assertThat(annotations.highlightColor()).isEqualTo(GREEN.burpColor);
         assertThat(annotations.notes()).isEqualTo(expectedComment);
@@ -78,7 +83,7 @@ class AnnotationsModifierTest {
         config.setHighlightColor(GREEN);
         config.setHighlightJWT(false);
 
-        annotationsModifier.updateAnnotationsIfApplicable(annotations, data);
+        annotationsModifier.updateAnnotationsIfApplicable(annotations, data, "host", "/");
 
         assertThat(annotations.highlightColor()).isNull();
         assertThat(annotations.notes()).isNull();
@@ -91,9 +96,33 @@ class AnnotationsModifierTest {
         config.setHighlightColor(GREEN);
         config.setHighlightJWT(false);
 
-        annotationsModifier.updateAnnotationsIfApplicable(annotations, new FakeByteArray(data));
+        annotationsModifier.updateAnnotationsIfApplicable(annotations, new FakeByteArray(data), "host", "/");
 
         assertThat(annotations.highlightColor()).isNull();
         assertThat(annotations.notes()).isNull();
     }
-}
\ No newline at end of file
+
+    @MethodSource("data")
+    @ParameterizedTest
+    void givenJWTStrings_whenHarvestTokensTrueAndHighlightJWTFalse_thenOnlyJWSHarvested(String data, String expectedComment) {
+        Annotations annotations = new FakeAnnotations();
+        config.setHighlightJWT(false);
+        config.setHarvestTokens(true);
+
+        annotationsModifier.updateAnnotationsIfApplicable(annotations, data, "host", "/");
+        tokenHarvester.harvestQueued();
+
+        assertThat(annotations.notes()).isNull();
+        assertThat(tokensModel.size()).isEqualTo(expectedComment.startsWith("1 JWTs") ? 1 : 0);
+    }
+
+    @MethodSource("data")
+    @ParameterizedTest
+    void givenJWTStrings_whenHarvestTokensFalse_thenNothingHarvested(String data, String expectedComment) {
+        config.setHarvestTokens(false);
+
+        annotationsModifier.updateAnnotationsIfApplicable(new FakeAnnotations(), data, "host", "/");
+
+        assertThat(tokenHarvester.harvestQueued()).isFalse();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2024 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.proxy;
+
+import burp.api.montoya.logging.Logging;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.blackberry.jwteditor.model.tokens.Token;
+import com.blackberry.jwteditor.model.tokens.TokenIdGenerator;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences.Endpoint;
+import com.blackberry.jwteditor.model.tokens.TokensModel;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static burp.api.montoya.logging.StubLogging.LOGGING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TokenHarvesterTest {
+    private final ProxyConfig config = new ProxyConfig();
+    private final TokensModel tokensModel = new TokensModel();
+    private final AtomicLong clock = new AtomicLong(1000);
+    private final TokenHarvester harvester = new TokenHarvester(config, tokensModel, new TokenIdGenerator(), LOGGING, clock::get, 8);
+
+    @Test
+    void givenNewTokens_whenHarvested_thenAddedToModel() {
+        harvester.offer("host", "/a", List.of(jws(1), jws(2)));
+
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.tokens()).extracting(Token::id).containsExactly(1, 2);
+        assertThat(tokensModel.tokens()).extracting(Token::path).containsExactly("/a", "/a");
+    }
+
+    @Test
+    void givenRepeatedSightings_whenHarvested_thenOccurrencesMergedWithoutUsingIds() {
+        harvester.offer("host", "/a", List.of(jws(1)));
+        harvester.harvestQueued();
+        clock.set(2000);
+        harvester.offer("host", "/b", List.of(jws(1)));
+        clock.set(3000);
+        harvester.offer("other", "/a", List.of(jws(1), jws(2)));
+
+        harvester.harvestQueued();
+
+        Token token = tokensModel.find(jws(1).serialize());
+        assertThat(tokensModel.tokens()).extracting(Token::id).containsExactly(1, 2);
+        assertThat(token.occurrences().count()).isEqualTo(3);
+        assertThat(token.occurrences().firstSeen()).isEqualTo(1000);
+        assertThat(token.occurrences().lastSeen()).isEqualTo(3000);
+        assertThat(token.occurrences().endpoints()).containsExactly(new Endpoint("host", "/a"), new Endpoint("host", "/b"), new Endpoint("other", "/a"));
+    }
+
+    @Test
+    void givenBatchFailsOnConsumerThread_whenMoreTokensOffered_thenFailureLoggedAndHarvestingContinues() {
+        TokensModel failingModel = spy(new TokensModel());
+        doThrow(new IllegalStateException()).doCallRealMethod().when(failingModel).addAll(anyList());
+        Logging logging = mock(Logging.class);
+        TokenHarvester consumingHarvester = new TokenHarvester(config, failingModel, new TokenIdGenerator(), logging, clock::get, 8);
+        consumingHarvester.start();
+
+        consumingHarvester.offer("host", "/", List.of(jws(1)));
+        verify(logging, timeout(5000)).logToError(anyString(), any(IllegalStateException.class));
+        consumingHarvester.offer("host", "/", List.of(jws(2)));
+        verify(failingModel, timeout(5000).times(2)).addAll(anyList());
+        consumingHarvester.close();
+
+        assertThat(failingModel.tokens()).extracting(Token::jws).containsExactly(jws(2).serialize());
+    }
+
+    @Test
+    void givenFullQueue_whenOffered_thenSightingsDroppedWithoutBlocking() {
+        for (int i = 1; i <= 10; i++) {
+            harvester.offer("host", "/", List.of(jws(i)));
+        }
+
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.size()).isEqualTo(8);
+    }
+
+    @Test
+    void givenMoreTokensThanMaximum_whenHarvested_thenLeastRecentlySeenEvicted() {
+        config.setHarvestMaxTokens(2);
+        harvester.offer("host", "/", List.of(jws(1), jws(2)));
+        harvester.harvestQueued();
+        harvester.offer("host", "/", List.of(jws(1)));
+        harvester.harvestQueued();
+
+        harvester.offer("host", "/", List.of(jws(3)));
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.tokens()).extracting(Token::id).containsExactly(1, 3);
+    }
+
+    @Test
+    void givenMaximumExceeded_whenHarvested_thenEvictedToNineTenthsOfMaximum() {
+        config.setHarvestMaxTokens(10);
+        harvester.offer("host", "/", List.of(jws(1), jws(2), jws(3), jws(4), jws(5), jws(6)));
+        harvester.harvestQueued();
+        harvester.offer("host", "/", List.of(jws(7), jws(8), jws(9), jws(10), jws(11)));
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.tokens()).extracting(Token::id).containsExactly(3, 4, 5, 6, 7, 8, 9, 10, 11);
+
+        harvester.offer("host", "/", List.of(jws(12)));
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.size()).isEqualTo(10);
+    }
+
+    @Test
+    void givenTokenSentByUser_whenMaximumExceeded_thenUserTokenNotEvicted() {
+        config.setHarvestMaxTokens(1);
+        tokensModel.add(new Token(100, "host", "/", jws(1)));
+
+        harvester.offer("host", "/", List.of(jws(1), jws(2)));
+        harvester.harvestQueued();
+        harvester.offer("host", "/", List.of(jws(3)));
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.tokens()).extracting(Token::id).containsExactly(100, 2);
+        assertThat(tokensModel.find(jws(1).serialize()).occurrences().count()).isEqualTo(2);
+    }
+
+    @Test
+    void givenHarvestedTokenDeletedByUser_whenMaximumExceeded_thenRemainingTokensKept() {
+        config.setHarvestMaxTokens(2);
+        harvester.offer("host", "/", List.of(jws(1), jws(2)));
+        harvester.harvestQueued();
+        tokensModel.delete(tokensModel.tokens().get(0));
+
+        harvester.offer("host", "/", List.of(jws(3)));
+        harvester.harvestQueued();
+
+        assertThat(tokensModel.tokens()).extracting(Token::id).containsExactly(2, 3);
+    }
+
+    private static JWS jws(int claim) {
+        try {
+            return JWSFactory.parse("eyJhbGciOiJub25lIn0." + Base64URL.encode("{\"n\":%d}".formatted(claim)) + ".");
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
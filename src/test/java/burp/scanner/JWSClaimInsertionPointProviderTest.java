@@ -0,0 +1,185 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package burp.scanner;
+
+
+import burp.api.montoya.MontoyaExtension;
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.FakeByteArray;
+import burp.api.montoya.core.FakeRange;
+import burp.api.montoya.core.Range;
+import burp.api.montoya.http.FakeHttpRequest;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static burp.api.montoya.http.FakeHttpRequestResponse.requestResponse;
+import static burp.api.montoya.internal.ObjectFactoryLocator.FACTORY;
+import static burp.scanner.JWSClaimInsertionPointProvider.MAX_CACHED_TOKENS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MontoyaExtension.class)
+class JWSClaimInsertionPointProviderTest {
+    private static final String TEST_JWS_HEADER_AND_CLAIMS = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiIxMjM0NTY3ODkwIiwibmFtZSI6IkpvaG4gRG9lIiwiaWF0IjoxNTE2MjM5MDIyfQ";
+    private static final String TEST_JWS = TEST_JWS_HEADER_AND_CLAIMS + ".SflKxwRJSMeKKF2QT4fwpMeJf36POk6yJV_adQssw5c";
+
+    private final ScannerConfig config = new ScannerConfig();
+    private final JWSClaimInsertionPointProvider insertionPointProvider = new JWSClaimInsertionPointProvider(config);
+
+    @BeforeAll
+    static void setUpMockFactory() {
+        when(FACTORY.byteArray(any(byte[].class))).thenAnswer((Answer<ByteArray>) c -> new FakeByteArray((byte[]) c.getArgument(0)));
+        when(FACTORY.byteArray(anyString())).thenAnswer((Answer<ByteArray>) c -> new FakeByteArray((String) c.getArgument(0)));
+        when(FACTORY.httpRequest(any(), any(ByteArray.class))).thenAnswer((Answer<HttpRequest>) c -> new FakeHttpRequest(c.getArgument(0), c.getArgument(1)));
+        when(FACTORY.range(anyInt(), anyInt())).thenAnswer((Answer<Range>) c -> new FakeRange(c.getArgument(0), c.getArgument(1)));
+    }
+
+    @Test
+    void givenClaimInsertionPointsDisabled_whenInsertionPointsProvided_thenEmptyListReturned() {
+        config.setEnableClaimInsertionPoints(false);
+
+        List<AuditInsertionPoint> insertionPoints = insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+
+        assertThat(insertionPoints).isEmpty();
+    }
+
+    @Test
+    void givenEmptyIncludeList_whenInsertionPointsProvided_thenEmptyListReturned() {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList(" , ");
+
+        List<AuditInsertionPoint> insertionPoints = insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+
+        assertThat(insertionPoints).isEmpty();
+    }
+
+    @Test
+    void givenWildcardIncludeList_whenInsertionPointsProvided_thenInsertionPointForEachStringClaim() {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("*");
+
+        List<AuditInsertionPoint> insertionPoints = insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+
+        assertThat(insertionPoints).extracting(AuditInsertionPoint::name).containsExactlyInAnyOrder(
+                "JWS header 'alg'",
+                "JWS header 'typ'",
+                "JWS payload 'sub'",
+                "JWS payload 'name'"
+        );
+    }
+
+    @Test
+    void givenLocationPrefixedIncludeList_whenInsertionPointsProvided_thenOnlyMatchingClaimsReturned() {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("header:typ, payload:sub, payload:iat, payload:missing");
+
+        List<AuditInsertionPoint> insertionPoints = insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+
+        assertThat(insertionPoints).extracting(AuditInsertionPoint::name).containsExactly("JWS header 'typ'", "JWS payload 'sub'");
+    }
+
+    @Test
+    void givenPayloadClaimInsertionPoint_whenRequestWithPayloadBuilt_thenOnlyClaimModified() throws Exception {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("payload:sub");
+        String baseRequest = "0123 " + TEST_JWS + " 4567";
+        ByteArray payload = ByteArray.byteArray("../etc/passwd");
+
+        AuditInsertionPoint insertionPoint = insertionPointProvider.provideInsertionPoints(requestResponseFor(baseRequest)).getFirst();
+        String attackRequest = insertionPoint.buildHttpRequestWithPayload(payload).toByteArray().toString();
+
+        assertThat(attackRequest).startsWith("0123 eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.").endsWith(".SflKxwRJSMeKKF2QT4fwpMeJf36POk6yJV_adQssw5c 4567");
+
+        JWS attackJws = JWSFactory.parse(attackRequest.substring(5, attackRequest.length() - 5));
+        JSONObject claims = new JSONObject(attackJws.claims().decoded());
+        assertThat(claims.getString("sub")).isEqualTo("../etc/passwd");
+        assertThat(claims.getString("name")).isEqualTo("John Doe");
+        assertThat(claims.getLong("iat")).isEqualTo(1516239022L);
+        assertThat(insertionPoint.issueHighlights(payload)).containsExactly(new FakeRange(5, attackRequest.length() - 5));
+    }
+
+    @Test
+    void givenSameTokenInMultipleRequests_whenInsertionPointsProvided_thenTemplatesMemoised() {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("payload:name");
+
+        List<AuditInsertionPoint> first = insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+        List<AuditInsertionPoint> second = insertionPointProvider.provideInsertionPoints(requestResponseFor("Authorization: Bearer " + TEST_JWS));
+
+        assertThat(insertionPointProvider.cachedTokenCount()).isEqualTo(1);
+        assertThat(first).extracting(AuditInsertionPoint::name).containsExactly("JWS payload 'name'");
+        assertThat(second).extracting(AuditInsertionPoint::name).containsExactly("JWS payload 'name'");
+        assertThat(second.getFirst().issueHighlights(ByteArray.byteArray("John Doe")).getFirst().startIndexInclusive()).isEqualTo(22);
+    }
+
+    @Test
+    void givenSharedJOSEObjectCache_whenSameTokenInMultipleRequests_thenTokenParsedOnceThroughCache() {
+        JOSEObjectCache joseObjectCache = new JOSEObjectCache(10);
+        JWSClaimInsertionPointProvider provider = new JWSClaimInsertionPointProvider(config, joseObjectCache);
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("payload:name");
+
+        provider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+        List<AuditInsertionPoint> insertionPoints = provider.provideInsertionPoints(requestResponseFor("Authorization: Bearer " + TEST_JWS));
+
+        assertThat(joseObjectCache.size()).isEqualTo(1);
+        assertThat(insertionPoints).extracting(AuditInsertionPoint::name).containsExactly("JWS payload 'name'");
+    }
+
+    @Test
+    void givenIncludeListChanged_whenInsertionPointsProvided_thenTemplatesRecomputed() {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("payload:name");
+        insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+
+        config.setClaimIncludeList("header:alg");
+        List<AuditInsertionPoint> insertionPoints = insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS));
+
+        assertThat(insertionPoints).extracting(AuditInsertionPoint::name).containsExactly("JWS header 'alg'");
+    }
+
+    @Test
+    void givenMoreTokensThanCacheCapacity_whenInsertionPointsProvided_thenCacheBounded() {
+        config.setEnableClaimInsertionPoints(true);
+        config.setClaimIncludeList("*");
+
+        IntStream.rangeClosed(0, MAX_CACHED_TOKENS).forEach(i ->
+                insertionPointProvider.provideInsertionPoints(requestResponseFor(TEST_JWS_HEADER_AND_CLAIMS + ".sig%04d".formatted(i)))
+        );
+
+        assertThat(insertionPointProvider.cachedTokenCount()).isEqualTo(MAX_CACHED_TOKENS);
+    }
+
+    private static HttpRequestResponse requestResponseFor(String request) {
+        return requestResponse().withRequest(request).build();
+    }
+}
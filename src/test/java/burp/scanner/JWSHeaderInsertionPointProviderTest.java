@@ -20,6 +20,7 @@ package burp.scanner;
 
 import burp.api.montoya.http.message.HttpRequestResponse;
 import burp.api.montoya.scanner.audit.insertionpoint.AuditInsertionPoint;
+import com.blackberry.jwteditor.model.jose.JOSEObjectCache;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -96,4 +97,18 @@ class JWSHeaderInsertionPointProviderTest {
 
         assertThat(insertionPoints).hasSize(2);
     }
+
+    @Test
+    void givenSharedJOSEObjectCache_whenSameJWSInMultipleRequests_thenJWSParsedOnceThroughCache() {
+        JOSEObjectCache joseObjectCache = new JOSEObjectCache(10);
+        JWSHeaderInsertionPointProvider provider = new JWSHeaderInsertionPointProvider(config, joseObjectCache);
+        config.setEnableHeaderJWSInsertionPointLocation(true);
+        String request = "GET / HTTP/1.1\r\nHost: jwt.io\r\nAuthorization: Bearer %s\r\n\r\n".formatted(TEST_JWS1);
+
+        provider.provideInsertionPoints(requestResponse().withRequest(request).build());
+        List<AuditInsertionPoint> insertionPoints = provider.provideInsertionPoints(requestResponse().withRequest(request).build());
+
+        assertThat(joseObjectCache.size()).isEqualTo(1);
+        assertThat(insertionPoints).hasSize(1);
+    }
 }
\ No newline at end of file
@@ -18,13 +18,20 @@ limitations under the License.
 
 package com.blackberry.jwteditor;
 
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKeyCache;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.blackberry.jwteditor.model.keys.KeysModel;
 import com.blackberry.jwteditor.model.keys.KeysModelListener;
 import com.blackberry.jwteditor.model.keys.KeysModelListener.InertKeysModelListener;
 import com.blackberry.jwteditor.model.keys.PasswordKey;
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.util.Base64URL;
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -34,6 +41,9 @@ import static data.PemData.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class KeysModelTest {
+    private static final JWEHeader CEK_HEADER = new JWEHeader(JWEAlgorithm.A128KW, EncryptionMethod.A128GCM);
+    private static final Base64URL ENCRYPTED_KEY = Base64URL.encode("encrypted key");
+    private static final SecretKey CEK = new SecretKeySpec(new byte[16], "AES");
 
     @Test
     void emptyKeyModel() {
@@ -207,4 +217,20 @@ class KeysModelTest {
 
         assertThat(keyExists).isFalse();
     }
+
+    @Test
+    void givenCachedCEK_whenKeyDeletedOrReplaced_thenCEKInvalidated() {
+        KeysModel model = keysModel()
+                .withECKey(PRIME256v1PrivateSEC1, "kid")
+                .withECKey(PRIME256v1PrivateSEC1, "other")
+                .build();
+        ContentEncryptionKeyCache cache = model.getContentEncryptionKeyCache();
+        cache.put("kid", CEK_HEADER, ENCRYPTED_KEY, CEK);
+        cache.put("other", CEK_HEADER, ENCRYPTED_KEY, CEK);
+
+        model.deleteKey("kid");
+        model.addKey(new PasswordKey("other", "secret", 8, 1000));
+
+        assertThat(cache.size()).isZero();
+    }
 }
\ No newline at end of file
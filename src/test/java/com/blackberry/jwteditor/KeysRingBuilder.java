@@ -20,6 +20,7 @@ package com.blackberry.jwteditor;
 
 import com.blackberry.jwteditor.exceptions.PemException;
 import com.blackberry.jwteditor.exceptions.UnsupportedKeyException;
+import com.blackberry.jwteditor.model.jose.ContentEncryptionKeyCache;
 import com.blackberry.jwteditor.model.keys.JWKKeyFactory;
 import com.blackberry.jwteditor.model.keys.Key;
 import com.blackberry.jwteditor.model.keys.KeyRing;
@@ -67,10 +68,19 @@ class KeysRingBuilder {
         return this;
     }
 
+    KeysRingBuilder withKey(Key key) {
+        keys.add(key);
+        return this;
+    }
+
     KeyRing build() {
         return new KeyRing(keys);
     }
 
+    KeyRing build(ContentEncryptionKeyCache contentEncryptionKeyCache) {
+        return new KeyRing(keys, contentEncryptionKeyCache);
+    }
+
     static KeysRingBuilder keyRing() {
         return new KeysRingBuilder();
     }
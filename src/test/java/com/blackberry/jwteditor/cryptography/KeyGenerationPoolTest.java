@@ -0,0 +1,133 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.cryptography;
+
+
+import com.blackberry.jwteditor.cryptography.KeyGenerationPool.Spec;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class KeyGenerationPoolTest {
+    private static final Spec SPEC = Spec.ec(Curve.P_256);
+
+    private final List<JWK> generatedKeys = new ArrayList<>();
+    private final ExecutorService executorService = mock(ExecutorService.class);
+
+    @BeforeEach
+    void runTasksImmediately() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executorService).execute(any());
+    }
+
+    @Test
+    void givenPrimedPool_whenKeyTaken_thenStockedKeyReturnedWithKeyId() throws Exception {
+        KeyGenerationPool pool = new KeyGenerationPool(() -> 2, executorService, this::generate);
+        pool.prime(SPEC);
+        JWK firstStockedKey = generatedKeys.get(0);
+
+        JWK key = pool.take(SPEC, "new-key");
+
+        assertThat(key.getKeyID()).isEqualTo("new-key");
+        assertThat(key.computeThumbprint()).isEqualTo(firstStockedKey.computeThumbprint());
+    }
+
+    @Test
+    void givenPrimedPool_whenKeyTaken_thenStockRefilled() throws Exception {
+        KeyGenerationPool pool = new KeyGenerationPool(() -> 2, executorService, this::generate);
+        pool.prime(SPEC);
+
+        pool.take(SPEC, "first");
+        pool.take(SPEC, "second");
+
+        assertThat(generatedKeys).hasSize(4);
+    }
+
+    @Test
+    void givenEmptyPool_whenKeyTaken_thenKeyGeneratedAndSpecStocked() throws Exception {
+        KeyGenerationPool pool = new KeyGenerationPool(() -> 2, executorService, this::generate);
+
+        JWK key = pool.take(SPEC, "new-key");
+
+        assertThat(key.getKeyID()).isEqualTo("new-key");
+        assertThat(generatedKeys).hasSize(3);
+    }
+
+    @Test
+    void givenPoolDisabled_whenKeysTaken_thenEachKeyGeneratedOnDemand() throws Exception {
+        KeyGenerationPool pool = new KeyGenerationPool(() -> 0, executorService, this::generate);
+        pool.prime(SPEC);
+
+        pool.take(SPEC, "first");
+        pool.take(SPEC, "second");
+
+        assertThat(generatedKeys).hasSize(2);
+    }
+
+    @Test
+    void givenPoolEnabledAfterCreation_whenKeysTaken_thenStockSizeFollowsSetting() throws Exception {
+        AtomicInteger stockSize = new AtomicInteger();
+        KeyGenerationPool pool = new KeyGenerationPool(stockSize::get, executorService, this::generate);
+
+        pool.take(SPEC, "first");
+        stockSize.set(3);
+        pool.take(SPEC, "second");
+
+        assertThat(generatedKeys).hasSize(5);
+    }
+
+    @Test
+    void givenDefaultGenerator_whenKeysTaken_thenKeysMatchSpec() throws Exception {
+        KeyGenerationPool pool = new KeyGenerationPool(() -> 0);
+
+        JWK ecKey = pool.take(Spec.ec(Curve.P_384), "ec");
+        JWK okpKey = pool.take(Spec.okp(Curve.Ed25519), "okp");
+        JWK rsaKey = pool.take(Spec.rsa(1024), "rsa");
+        pool.close();
+
+        assertThat(((ECKey) ecKey).getCurve()).isEqualTo(Curve.P_384);
+        assertThat(((OctetKeyPair) okpKey).getCurve()).isEqualTo(Curve.Ed25519);
+        assertThat(rsaKey.size()).isEqualTo(1024);
+        assertThat(List.of(ecKey, okpKey, rsaKey)).extracting(JWK::getKeyID).containsExactly("ec", "okp", "rsa");
+        assertThat(List.of(ecKey, okpKey, rsaKey)).allMatch(JWK::isPrivate);
+    }
+
+    private JWK generate(Spec spec) throws JOSEException {
+        JWK key = new ECKeyGenerator(spec.curve()).generate();
+        generatedKeys.add(key);
+        return key;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.cryptography;
+
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.PasswordBasedEncrypter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.nimbusds.jose.EncryptionMethod.A128GCM;
+import static com.nimbusds.jose.JWEAlgorithm.PBES2_HS256_A128KW;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PBES2DecrypterTest {
+    private static final String PASSWORD = "secret";
+    private static final String PAYLOAD = "Hello, world!";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"PBES2-HS256+A128KW", "PBES2-HS384+A192KW", "PBES2-HS512+A256KW"})
+    void givenPBES2JWE_whenDecrypted_thenPayloadRecovered(String algorithm) throws Exception {
+        JWEObject jwe = encrypt(JWEAlgorithm.parse(algorithm), 1000);
+
+        jwe.decrypt(new PBES2Decrypter(PASSWORD));
+
+        assertThat(jwe.getPayload().toString()).isEqualTo(PAYLOAD);
+    }
+
+    @Test
+    void givenWrongPassword_whenDecrypted_thenExceptionThrown() throws Exception {
+        JWEObject jwe = encrypt(PBES2_HS256_A128KW, 1000);
+
+        assertThatThrownBy(() -> jwe.decrypt(new PBES2Decrypter("wrong"))).isInstanceOf(JOSEException.class);
+    }
+
+    @Test
+    void givenLargeIterationCount_whenDecrypted_thenProgressReported() throws Exception {
+        JWEObject jwe = encrypt(PBES2_HS256_A128KW, 20_000);
+        PBES2Decrypter decrypter = new PBES2Decrypter(PASSWORD);
+        AtomicInteger lastCompleted = new AtomicInteger();
+        AtomicInteger progressReports = new AtomicInteger();
+        decrypter.setProgressListener((completed, total) -> {
+            lastCompleted.set(completed);
+            progressReports.incrementAndGet();
+        });
+
+        jwe.decrypt(decrypter);
+
+        assertThat(progressReports.get()).isGreaterThan(1);
+        assertThat(lastCompleted).hasValue(20_000);
+    }
+
+    @Test
+    void givenInterruptedThread_whenDecrypted_thenDerivationCancelled() throws Exception {
+        JWEObject jwe = encrypt(PBES2_HS256_A128KW, 20_000);
+
+        Thread.currentThread().interrupt();
+
+        try {
+            assertThatThrownBy(() -> jwe.decrypt(new PBES2Decrypter(PASSWORD))).isInstanceOf(JOSEException.class);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    private static JWEObject encrypt(JWEAlgorithm algorithm, int iterations) throws JOSEException {
+        JWEObject jwe = new JWEObject(new JWEHeader(algorithm, A128GCM), new Payload(PAYLOAD));
+        jwe.encrypt(new PasswordBasedEncrypter(PASSWORD, 16, iterations));
+
+        return jwe;
+    }
+}
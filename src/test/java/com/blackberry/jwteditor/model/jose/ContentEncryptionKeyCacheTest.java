@@ -0,0 +1,89 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.jose;
+
+import com.nimbusds.jose.JWEHeader;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import static com.nimbusds.jose.EncryptionMethod.A128GCM;
+import static com.nimbusds.jose.JWEAlgorithm.A128KW;
+import static com.nimbusds.jose.JWEAlgorithm.DIR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentEncryptionKeyCacheTest {
+    private static final JWEHeader HEADER = new JWEHeader(A128KW, A128GCM);
+    private static final Base64URL ENCRYPTED_KEY = Base64URL.encode("encrypted key");
+    private static final SecretKey CEK = new SecretKeySpec(new byte[16], "AES");
+
+    @Test
+    void givenCachedCEK_whenGetWithSameParameters_thenCEKReturned() {
+        ContentEncryptionKeyCache cache = new ContentEncryptionKeyCache(4);
+        cache.put("1", HEADER, ENCRYPTED_KEY, CEK);
+
+        assertThat(cache.get("1", HEADER, ENCRYPTED_KEY)).hasValueSatisfying(cek -> assertThat(cek.getEncoded()).isEqualTo(CEK.getEncoded()));
+    }
+
+    @Test
+    void givenCachedCEK_whenGetWithDifferentKeyOrEncryptedKey_thenEmptyReturned() {
+        ContentEncryptionKeyCache cache = new ContentEncryptionKeyCache(4);
+        cache.put("1", HEADER, ENCRYPTED_KEY, CEK);
+
+        assertThat(cache.get("2", HEADER, ENCRYPTED_KEY)).isEmpty();
+        assertThat(cache.get("1", HEADER, Base64URL.encode("other encrypted key"))).isEmpty();
+    }
+
+    @Test
+    void givenCachedCEK_whenKeyInvalidated_thenEntryRemoved() {
+        ContentEncryptionKeyCache cache = new ContentEncryptionKeyCache(4);
+        cache.put("1", HEADER, ENCRYPTED_KEY, CEK);
+        cache.put("2", HEADER, ENCRYPTED_KEY, CEK);
+
+        cache.invalidate("1");
+
+        assertThat(cache.get("1", HEADER, ENCRYPTED_KEY)).isEmpty();
+        assertThat(cache.get("2", HEADER, ENCRYPTED_KEY)).isPresent();
+    }
+
+    @Test
+    void givenFullCache_whenCEKAdded_thenLeastRecentlyUsedEvicted() {
+        ContentEncryptionKeyCache cache = new ContentEncryptionKeyCache(2);
+        cache.put("1", HEADER, ENCRYPTED_KEY, CEK);
+        cache.put("2", HEADER, ENCRYPTED_KEY, CEK);
+        cache.get("1", HEADER, ENCRYPTED_KEY);
+
+        cache.put("3", HEADER, ENCRYPTED_KEY, CEK);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("1", HEADER, ENCRYPTED_KEY)).isPresent();
+        assertThat(cache.get("2", HEADER, ENCRYPTED_KEY)).isEmpty();
+    }
+
+    @Test
+    void givenDirectEncryption_whenCEKPut_thenNotCached() {
+        ContentEncryptionKeyCache cache = new ContentEncryptionKeyCache(4);
+
+        cache.put("1", new JWEHeader(DIR, A128GCM), null, CEK);
+
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.keys;
+
+
+import com.blackberry.jwteditor.utils.PEMUtils;
+import com.nimbusds.jose.JWSVerifier;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.Test;
+
+import java.security.Provider;
+
+import static data.PemData.PRIME256v1PrivateSEC1;
+import static data.PemData.RSA1024Private;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JWKKeyJCACacheTest {
+
+    @Test
+    void givenRSAKey_whenVerifierRequestedTwice_thenSameInstanceReturned() throws Exception {
+        Key key = JWKKeyFactory.from(PEMUtils.pemToRSAKey(RSA1024Private, "1"));
+
+        assertThat(key.getVerifier()).isSameAs(key.getVerifier());
+        assertThat(key.getSigner()).isSameAs(key.getSigner());
+    }
+
+    @Test
+    void givenECKey_whenVerifierRequestedWithNullProvider_thenDefaultInstanceReturned() throws Exception {
+        Key key = JWKKeyFactory.from(PEMUtils.pemToECKey(PRIME256v1PrivateSEC1, "1"));
+
+        assertThat(key.getVerifier(null)).isSameAs(key.getVerifier());
+        assertThat(key.getSigner(null)).isSameAs(key.getSigner());
+    }
+
+    @Test
+    void givenECKey_whenVerifierRequestedWithProvider_thenProviderBoundInstanceCached() throws Exception {
+        Key key = JWKKeyFactory.from(PEMUtils.pemToECKey(PRIME256v1PrivateSEC1, "1"));
+        Provider provider = new BouncyCastleProvider();
+
+        JWSVerifier verifier = key.getVerifier(provider);
+
+        assertThat(verifier).isNotSameAs(key.getVerifier());
+        assertThat(verifier).isSameAs(key.getVerifier(provider));
+        assertThat(verifier.getJCAContext().getProvider()).isSameAs(provider);
+        assertThat(key.getVerifier().getJCAContext().getProvider()).isNull();
+    }
+}
@@ -22,9 +22,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.StringReader;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static java.util.stream.Collectors.joining;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -144,4 +148,66 @@ class JWKSetParserTest {
         OctetSequenceKeyJWKKey secondOctetSequenceKey = (OctetSequenceKeyJWKKey) secondKey;
         assertThat(secondOctetSequenceKey.getID()).isEqualTo("HMAC key used in JWS spec Appendix A.1 example");
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenJsonObjectWithUnknownKeyTypeAndOtherMembers_whenParsed_thenUnknownKeySkipped() throws ParseException {
+        String json = """
+                {"issuer": {"name": "test", "keys": []},
+                 "keys": [
+                   {"kty":"unknown", "kid":"1"},
+                   {"kty":"oct", "k":"GawgguFyGrWKav7AX4VKUg", "kid":"2"}
+                 ],
+                 "extra": [1, 2, 3]}
+                """;
+
+        List<Key> keys = parser.parse(json);
+
+        assertThat(keys).extracting(Key::getID).containsExactly("2");
+    }
+
+    @Test
+    void givenJsonObjectWithInvalidKey_whenParsed_thenParseExceptionThrown() {
+        String json = """
+                {"keys": [ {"kty":"oct", "kid":"1"} ]}
+                """;
+
+        assertThrows(ParseException.class, () -> parser.parse(json));
+    }
+
+    @Test
+    void givenLargeJsonObject_whenParsed_thenKeysReturnedInOrder() throws ParseException {
+        String jwks = IntStream.range(0, 1000)
+                .mapToObj("{\"kty\":\"oct\", \"k\":\"GawgguFyGrWKav7AX4VKUg\", \"kid\":\"%d\"}"::formatted)
+                .collect(joining(",", "{\"keys\":[", "]}"));
+
+        List<Key> keys = parser.parse(new StringReader(jwks));
+
+        assertThat(keys).hasSize(1000);
+        assertThat(keys).extracting(Key::getID).startsWith("0", "1", "2").endsWith("998", "999");
+    }
+
+    @Test
+    void givenTruncatedJsonObject_whenParsedWithConsumer_thenKeysReadBeforeTruncationEmitted() {
+        String json = """
+                {"keys": [
+                  {"kty":"oct", "k":"GawgguFyGrWKav7AX4VKUg", "kid":"1"},
+                  {"kty":"oct", "k":"GawgguFyGrWKav7AX4VKUg", "kid":"2"},
+                  {"kty"
+                """;
+        List<Key> keys = new ArrayList<>();
+
+        assertThrows(ParseException.class, () -> parser.parse(new StringReader(json), keys::add));
+        assertThat(keys).extracting(Key::getID).containsExactly("1", "2");
+    }
+
+    @Test
+    void givenLargeJsonObjectWithInvalidKey_whenParsed_thenParseExceptionReportsPosition() {
+        String jwks = IntStream.range(0, 1000)
+                .mapToObj(i -> i == 500 ? "{\"kty\":\"oct\", \"kid\":\"500\"}" : "{\"kty\":\"oct\", \"k\":\"GawgguFyGrWKav7AX4VKUg\", \"kid\":\"%d\"}".formatted(i))
+                .collect(joining(",", "{\"keys\":[", "]}"));
+
+        ParseException exception = assertThrows(ParseException.class, () -> parser.parse(new StringReader(jwks)));
+
+        assertThat(exception).hasMessageStartingWith("Invalid JWK at position 500");
+    }
+}
@@ -0,0 +1,103 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.keys;
+
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.keys.KeyRing.VerificationCandidate;
+import com.blackberry.jwteditor.utils.PEMUtils;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.blackberry.jwteditor.model.jose.JWSFactory.jwsFromParts;
+import static com.nimbusds.jose.JWSAlgorithm.*;
+import static data.PemData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyRingVerificationCandidatesTest {
+    private final Key rsaKey = JWKKeyFactory.from(PEMUtils.pemToRSAKey(RSA1024Public, "1"));
+    private final Key ecKey = JWKKeyFactory.from(PEMUtils.pemToECKey(PRIME256v1Public, "2"));
+    private final Key otherRsaKey = JWKKeyFactory.from(PEMUtils.pemToRSAKey(RSA1024Private, "3"));
+    private final KeyRing keyRing = new KeyRing(List.of(rsaKey, ecKey, otherRsaKey));
+
+    KeyRingVerificationCandidatesTest() throws Exception {
+    }
+
+    @Test
+    void givenHeaderWithoutHints_whenCandidatesOrdered_thenAllPairsReturnedInKeyOrder() {
+        List<VerificationCandidate> candidates = keyRing.verificationCandidates(jws("{}"));
+
+        assertThat(candidates).hasSize(11);
+        assertThat(candidates.get(0)).isEqualTo(new VerificationCandidate(rsaKey, RS256));
+        assertThat(candidates.get(5)).isEqualTo(new VerificationCandidate(ecKey, ES256));
+        assertThat(candidates.get(6)).isEqualTo(new VerificationCandidate(otherRsaKey, RS256));
+    }
+
+    @Test
+    void givenHeaderWithKeyIdAndAlgorithm_whenCandidatesOrdered_thenMatchingKeyAndAlgorithmFirst() {
+        List<VerificationCandidate> candidates = keyRing.verificationCandidates(jws("{\"kid\":\"3\",\"alg\":\"RS384\"}"));
+
+        assertThat(candidates).hasSize(11);
+        assertThat(candidates.subList(0, 5)).extracting(VerificationCandidate::key).containsOnly(otherRsaKey);
+        assertThat(candidates.get(0).algorithm()).isEqualTo(RS384);
+        assertThat(candidates.get(5)).isEqualTo(new VerificationCandidate(rsaKey, RS384));
+    }
+
+    @Test
+    void givenHeaderWithEmbeddedJWK_whenCandidatesOrdered_thenThumbprintMatchFirst() throws Exception {
+        String jwk = ((JWKKey) ecKey).getJWK().toPublicJWK().toJSONString();
+
+        List<VerificationCandidate> candidates = keyRing.verificationCandidates(jws("{\"jwk\":" + jwk + ",\"alg\":\"RS256\"}"));
+
+        assertThat(candidates).hasSize(11);
+        assertThat(candidates.get(0)).isEqualTo(new VerificationCandidate(ecKey, ES256));
+        assertThat(candidates.get(1)).isEqualTo(new VerificationCandidate(rsaKey, RS256));
+        assertThat(candidates.get(2)).isEqualTo(new VerificationCandidate(otherRsaKey, RS256));
+    }
+
+    @Test
+    void givenHeaderWithAlgorithmOnly_whenCandidatesOrdered_thenCompatibleKeysFirst() {
+        List<VerificationCandidate> candidates = keyRing.verificationCandidates(jws("{\"alg\":\"ES256\"}"));
+
+        assertThat(candidates.get(0)).isEqualTo(new VerificationCandidate(ecKey, ES256));
+        assertThat(candidates.get(1)).isEqualTo(new VerificationCandidate(rsaKey, RS256));
+    }
+
+    @Test
+    void givenHeaderWithUnknownKeyIdAndAlgorithm_whenCandidatesOrdered_thenExhaustiveFallbackUsed() {
+        List<VerificationCandidate> candidates = keyRing.verificationCandidates(jws("{\"kid\":\"unknown\",\"alg\":\"HS256\"}"));
+
+        assertThat(candidates).hasSize(11);
+        assertThat(candidates).extracting(VerificationCandidate::algorithm).doesNotContain(JWSAlgorithm.HS256);
+    }
+
+    @Test
+    void givenHeaderWithInvalidJson_whenCandidatesOrdered_thenAllPairsReturned() {
+        List<VerificationCandidate> candidates = keyRing.verificationCandidates(jws("{"));
+
+        assertThat(candidates).hasSize(11);
+    }
+
+    private static JWS jws(String header) {
+        return jwsFromParts(Base64URL.encode(header), Base64URL.encode("{}"), Base64URL.encode("signature"));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.keys;
+
+
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.blackberry.jwteditor.KeyLoader.*;
+import static com.blackberry.jwteditor.KeysModelBuilder.keysModel;
+import static data.PemData.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysModelTest {
+
+    @Test
+    void givenKeysDeleted_whenKeysAccessedByPosition_thenRemainingKeysInInsertionOrder() {
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Private)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .withOKPKey(ED25519Private)
+                .withRSAKey(RSA1024Public)
+                .build();
+
+        model.deleteKey("2");
+
+        assertThat(model.getKey(0).getID()).isEqualTo("1");
+        assertThat(model.getKey(1).getID()).isEqualTo("3");
+        assertThat(model.getKey(2).getID()).isEqualTo("4");
+        assertThat(model.getKey("4")).isSameAs(model.getKey(2));
+        assertThat(model.keyExists("2")).isFalse();
+    }
+
+    @Test
+    void givenKeyReplaced_whenKeysAccessedByPosition_thenReplacementIsLast() {
+        Key replacement = loadECKey(PRIME256v1Public, "1");
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Private)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .build();
+
+        model.addKey(replacement);
+
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("2", "1");
+        assertThat(model.getKey("1")).isSameAs(replacement);
+        assertThat(model.getKeys(KeyType.RSA)).isEmpty();
+    }
+
+    @Test
+    void givenMultipleKeysDeleted_whenListenerNotified_thenRowIndicesReportedHighestFirst() {
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Private)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .withOKPKey(ED25519Private)
+                .withRSAKey(RSA1024Public)
+                .build();
+        List<Integer> deletedRows = new ArrayList<>();
+        model.addKeyModelListener(new KeysModelListener.InertKeysModelListener() {
+            @Override
+            public void notifyKeyDeleted(int rowIndex) {
+                deletedRows.add(rowIndex);
+            }
+        });
+
+        model.deleteKeys(new int[]{3, 0, 2});
+
+        assertThat(deletedRows).containsExactly(3, 2, 0);
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("2");
+        assertThat(model.getKey(0).getID()).isEqualTo("2");
+    }
+
+    @Test
+    void givenKeys_whenCapabilityKeysRequested_thenIndexedKeysReturned() {
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Public)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .withOKPKey(X25519Private)
+                .withRSAKey(RSA2048Private)
+                .build();
+
+        assertThat(model.getSigningKeys()).extracting(Key::getID).containsExactly("2", "4");
+        assertThat(model.getVerificationKeys()).extracting(Key::getID).containsExactly("1", "2", "4");
+        assertThat(model.getEncryptionKeys()).extracting(Key::getID).containsExactly("2", "3", "4");
+        assertThat(model.getDecryptionKeys()).extracting(Key::getID).containsExactly("2", "3", "4");
+
+        model.deleteKey("4");
+
+        assertThat(model.getSigningKeys()).extracting(Key::getID).containsExactly("2");
+    }
+
+    @Test
+    void givenKeys_whenKeysOfTypeRequested_thenIndexedKeysReturned() {
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Public)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .withRSAKey(RSA2048Private)
+                .build();
+
+        assertThat(model.getKeys(KeyType.RSA)).extracting(Key::getID).containsExactly("1", "3");
+        assertThat(model.getKeys(KeyType.EC)).extracting(Key::getID).containsExactly("2");
+        assertThat(model.getKeys(KeyType.OCT)).isEmpty();
+    }
+
+    @Test
+    void givenPublicAndPrivateKeyPair_whenKeysWithThumbprintRequested_thenBothReturned() throws Exception {
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Private)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .withRSAKey(RSA1024Public)
+                .build();
+        Base64URL thumbprint = ((JWKKey) loadRSAKey(RSA1024Public, "other")).getJWK().computeThumbprint();
+
+        assertThat(model.getKeysWithThumbprint(thumbprint)).extracting(Key::getID).containsExactly("1", "3");
+        assertThat(model.getKeysWithThumbprint(new Base64URL("unknown"))).isEmpty();
+    }
+
+    @Test
+    void givenKeysAddedInBulk_whenListenerNotified_thenSingleBatchInsertedAfterReplacedKeysDeleted() {
+        Key replacement = loadECKey(PRIME256v1Public, "1");
+        Key newKey = loadRSAKey(RSA2048Private, "3");
+        KeysModel model = keysModel()
+                .withRSAKey(RSA1024Private)
+                .withECKey(PRIME256v1PrivateSEC1)
+                .build();
+        List<String> events = new ArrayList<>();
+        model.addKeyModelListener(new KeysModelListener.InertKeysModelListener() {
+            @Override
+            public void notifyKeyDeleted(Key key) {
+                events.add("deleted " + key.getID());
+            }
+
+            @Override
+            public void notifyKeysInserted(List<Key> keys) {
+                events.add("inserted " + keys.stream().map(Key::getID).toList());
+            }
+        });
+
+        model.addKeys(List.of(newKey, replacement));
+
+        assertThat(events).containsExactly("deleted 1", "inserted [3, 1]");
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("2", "3", "1");
+        assertThat(model.getKey(2)).isSameAs(replacement);
+    }
+}
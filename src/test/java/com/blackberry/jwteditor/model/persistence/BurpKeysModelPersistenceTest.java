@@ -0,0 +1,252 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.persistence;
+
+
+import burp.api.montoya.logging.Logging;
+import burp.api.montoya.persistence.Preferences;
+import com.blackberry.jwteditor.model.jose.JWEFactory;
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.blackberry.jwteditor.model.keys.Key;
+import com.blackberry.jwteditor.model.keys.KeyRing;
+import com.blackberry.jwteditor.model.keys.KeysModel;
+import com.blackberry.jwteditor.model.keys.LazyJWKKey;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.blackberry.jwteditor.KeyLoader.loadECKey;
+import static com.blackberry.jwteditor.KeyLoader.loadRSAKey;
+import static com.blackberry.jwteditor.model.persistence.BurpKeysModelPersistence.*;
+import static data.PemData.PRIME256v1PrivateSEC1;
+import static data.PemData.RSA1024Private;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BurpKeysModelPersistenceTest {
+    private static final String RSA_KEY_ENTRY = KEYSTORE_KEY_PREFIX + Base64URL.encode("rsa");
+    private static final String EC_KEY_ENTRY = KEYSTORE_KEY_PREFIX + Base64URL.encode("ec");
+    private static final String EC_JWE = "eyJlcGsiOnsia3R5IjoiRUMiLCJjcnYiOiJQLTI1NiIsIngiOiJWcUtNak56OXpjcl9zaWJrNnhqcmJwUFZDUzk1UEdSU0dHYkVpMG5qWldBIiwieSI6IlFWMWpxSXBTZTVQSU80eVpTZTBKcnR1bkx4QTJ2ZHRnSnFfV18wNTNweDQifSwiZW5jIjoiQTEyOEdDTSIsImFsZyI6IkVDREgtRVMifQ..00TznoP0a4LjQTDR.vAwRkLB7GbK8ptyhfXqDwn_Hm8hbP4HBdmrvjvpxxRlxJxKcCoZngO9r_eb11vmi1oUhCVdFwzH_7-eSrzjv7ouoyVmv_ujMWweNvyKQdxJBmNlU8h3eR_TWjOLFetGhOhlnWtp95o4w4lNT4YyMGk66Ki6aG1UDLgK-WwLLcFbOLX7HPEk2ml8eQCnuqbjlCk7cWVtvoJ4xyLrLlEjJ3U_yXy8KPu0oAPI-Nxl3Nj1vG6KT_TqYaRHydr2wrT5A7cMOse6bwXPS_8uCp12EY8CQGkh7d9y63Fte7j8Bqmu_yJhKAoSkyoEOBTAvvzd-EhoLMBlWm3ouULg3MIt9gL-QZi8npXSrgiBCTw4Z2exew6WQIlV7JWGphcZYePFZHUvWf4Sd59fUvPaztuzhyHS3XaSwO_fOSPeYnX3a9wCH7Crcmldi-kiirKkh4QVSPUlCQyC0ihHot1PVwfUQDWXLAL4g0FJGZApkgAM9YBLkJpUQeT-qGjAhtoEGKQH6WTKOGaP65ZBORChDJThrFARYbJI1mqdc3gr5eBd1_FQsfxG5_Desg5AdpjIALyfYq8X39UmCLnx2tF4Yy6nIe79lIxqOOZA2XKYStrGmQORoOVQ8r91UbmC6tYJStPmVUWzXG47tUWLUBEktKtCl.9pZsA42F2w79Mi0AK84wVg";
+
+    private final Preferences preferences = mock(Preferences.class);
+    private final Logging logging = mock(Logging.class);
+    private final ScheduledExecutorService executorService = newSingleThreadScheduledExecutor();
+    private final BurpKeysModelPersistence persistence = new BurpKeysModelPersistence(preferences, logging, executorService, TimeUnit.HOURS.toMillis(1), command -> {});
+
+    @AfterEach
+    void shutdownExecutor() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void givenNoSavedKeystore_whenLoadOrCreateCalled_thenEmptyModelReturned() {
+        KeysModel model = persistence.loadOrCreateNew();
+
+        assertThat(model.keys()).isEmpty();
+    }
+
+    @Test
+    void givenLegacyKeystore_whenLoadedAndSaved_thenKeysMigratedToEntries() {
+        Key rsaKey = loadRSAKey(RSA1024Private, "rsa");
+        when(preferences.getString(KEYSTORE_SETTINGS_NAME)).thenReturn("[" + rsaKey.toJSONObject() + "]");
+
+        KeysModel model = persistence.loadOrCreateNew();
+        persistence.save(model);
+        persistence.flush();
+
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("rsa");
+        verify(preferences).setString(RSA_KEY_ENTRY, rsaKey.toJSONObject().toString());
+        verify(preferences).setString(eq(KEYSTORE_INDEX_NAME), argThat(index -> indexIds(index).equals(List.of("rsa"))));
+        verify(preferences).deleteString(KEYSTORE_SETTINGS_NAME);
+    }
+
+    @Test
+    void givenKeyEntries_whenLoadOrCreateCalled_thenKeysLoadedInIndexOrder() {
+        Key rsaKey = loadRSAKey(RSA1024Private, "rsa");
+        Key ecKey = loadECKey(PRIME256v1PrivateSEC1, "ec");
+        when(preferences.getString(KEYSTORE_INDEX_NAME)).thenReturn("[\"ec\",\"missing\",\"rsa\"]");
+        when(preferences.getString(RSA_KEY_ENTRY)).thenReturn(rsaKey.toJSONObject().toString());
+        when(preferences.getString(EC_KEY_ENTRY)).thenReturn(ecKey.toJSONObject().toString());
+
+        KeysModel model = persistence.loadOrCreateNew();
+
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("ec", "rsa");
+        verify(preferences, never()).getString(KEYSTORE_SETTINGS_NAME);
+    }
+
+    @Test
+    void givenRepeatedSaves_whenNotFlushed_thenNothingWritten() {
+        KeysModel model = persistence.loadOrCreateNew();
+
+        for (int i = 0; i < 10; i++) {
+            model.addKey(loadRSAKey(RSA1024Private, "rsa" + i));
+            persistence.save(model);
+        }
+
+        verify(preferences, never()).setString(anyString(), anyString());
+    }
+
+    @Test
+    void givenKeyAddedToSavedKeystore_whenFlushed_thenOnlyNewEntryAndIndexWritten() {
+        Key rsaKey = loadRSAKey(RSA1024Private, "rsa");
+        Key ecKey = loadECKey(PRIME256v1PrivateSEC1, "ec");
+        when(preferences.getString(KEYSTORE_INDEX_NAME)).thenReturn("[\"rsa\"]");
+        when(preferences.getString(RSA_KEY_ENTRY)).thenReturn(rsaKey.toJSONObject().toString());
+        KeysModel model = persistence.loadOrCreateNew();
+
+        model.addKey(ecKey);
+        persistence.save(model);
+        persistence.flush();
+
+        verify(preferences).setString(EC_KEY_ENTRY, ecKey.toJSONObject().toString());
+        verify(preferences).setString(eq(KEYSTORE_INDEX_NAME), argThat(index -> indexIds(index).equals(List.of("rsa", "ec"))));
+        verify(preferences, never()).setString(eq(RSA_KEY_ENTRY), anyString());
+    }
+
+    @Test
+    void givenKeyDeletedFromSavedKeystore_whenClosed_thenEntryDeleted() {
+        Key rsaKey = loadRSAKey(RSA1024Private, "rsa");
+        when(preferences.getString(KEYSTORE_INDEX_NAME)).thenReturn("[\"rsa\"]");
+        when(preferences.getString(RSA_KEY_ENTRY)).thenReturn(rsaKey.toJSONObject().toString());
+        KeysModel model = persistence.loadOrCreateNew();
+
+        model.deleteKey("rsa");
+        persistence.save(model);
+        persistence.close();
+
+        verify(preferences).setString(KEYSTORE_INDEX_NAME, "[]");
+        verify(preferences).deleteString(RSA_KEY_ENTRY);
+        assertThat(executorService.isShutdown()).isTrue();
+    }
+
+    @Test
+    void givenIndexWithMetadata_whenLoadOrCreateCalled_thenJWKsParsedOnFirstUse() throws Exception {
+        Map<String, String> storedPreferences = storePreferencesInMemory();
+        KeysModel savedModel = persistence.loadOrCreateNew();
+        savedModel.addKey(loadRSAKey(RSA1024Private, "rsa"));
+        savedModel.addKey(loadECKey(PRIME256v1PrivateSEC1, "ec"));
+        persistence.save(savedModel);
+        persistence.flush();
+
+        KeysModel model = new BurpKeysModelPersistence(preferences, logging, executorService, 0, command -> {}).loadOrCreateNew();
+
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("rsa", "ec");
+        assertThat(model.keys()).allMatch(key -> key instanceof LazyJWKKey lazyKey && !lazyKey.isMaterialized());
+        assertThat(model.getSigningKeys()).extracting(Key::getID).containsExactly("rsa", "ec");
+        assertThat(storedPreferences).containsKey(RSA_KEY_ENTRY);
+
+        LazyJWKKey rsaKey = (LazyJWKKey) model.getKey("rsa");
+        assertThat(rsaKey.getSigner()).isNotNull();
+        assertThat(rsaKey.isMaterialized()).isTrue();
+        assertThat(((LazyJWKKey) model.getKey("ec")).isMaterialized()).isFalse();
+    }
+
+    @Test
+    void givenIndexWithMetadata_whenLoadedWithWarmUp_thenJWKsParsedInBackground() {
+        storePreferencesInMemory();
+        KeysModel savedModel = persistence.loadOrCreateNew();
+        savedModel.addKey(loadRSAKey(RSA1024Private, "rsa"));
+        persistence.save(savedModel);
+        persistence.flush();
+
+        KeysModel model = new BurpKeysModelPersistence(preferences, logging, executorService, 0, Runnable::run).loadOrCreateNew();
+
+        assertThat(model.keys()).allMatch(key -> ((LazyJWKKey) key).isMaterialized());
+    }
+
+    @Test
+    void givenCorruptStoredJWKNextToValidKey_whenLoadedAndUsed_thenCorruptKeySkippedAndLoggedOnce() throws Exception {
+        Map<String, String> storedPreferences = storePreferencesInMemory();
+        KeysModel savedModel = persistence.loadOrCreateNew();
+        savedModel.addKey(loadRSAKey(RSA1024Private, "rsa"));
+        savedModel.addKey(loadECKey(PRIME256v1PrivateSEC1, "ec"));
+        persistence.save(savedModel);
+        persistence.flush();
+        storedPreferences.put(RSA_KEY_ENTRY, "{\"kty\":\"RSA\",\"kid\":\"rsa\"}");
+
+        KeysModel model = new BurpKeysModelPersistence(preferences, logging, executorService, 0, Runnable::run).loadOrCreateNew();
+        Key ecKey = model.getKey("ec");
+        KeyRing keyRing = new KeyRing(List.of(model.getKey("rsa"), ecKey));
+        JWS jws = JWSFactory.sign(ecKey, JWSAlgorithm.ES256, Base64URL.encode("{\"alg\":\"ES256\"}"), Base64URL.encode("{}"));
+
+        assertThat(model.keys()).extracting(Key::getID).containsExactly("rsa", "ec");
+        assertThat(model.getKey("rsa").getSigningAlgorithms()).isEmpty();
+        assertThat(model.getKey("rsa").canSign()).isFalse();
+        assertThat(keyRing.findVerifyingKey(jws)).contains(ecKey);
+        assertThat(keyRing.attemptDecryption(JWEFactory.parse(EC_JWE))).isPresent();
+        verify(logging).logToError(startsWith("Unable to load key rsa"));
+    }
+
+    @Test
+    void givenThousandKeyStore_whenLoadOrCreateCalled_thenLoadedWithoutParsingJWKs() throws Exception {
+        storePreferencesInMemory();
+        JSONObject rsaKeyJson = loadRSAKey(RSA1024Private, "rsa").toJSONObject();
+        List<Key> keys = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            keys.add(Key.fromJSONObject(new JSONObject(rsaKeyJson.toString()).put("kid", "rsa" + i)));
+        }
+
+        KeysModel savedModel = persistence.loadOrCreateNew();
+        savedModel.addKeys(keys);
+        persistence.save(savedModel);
+        persistence.flush();
+
+        KeysModel model = new BurpKeysModelPersistence(preferences, logging, executorService, 0, command -> {}).loadOrCreateNew();
+
+        assertThat(model.keys()).hasSize(1000);
+        assertThat(model.keys()).noneMatch(key -> ((LazyJWKKey) key).isMaterialized());
+    }
+
+    private Map<String, String> storePreferencesInMemory() {
+        Map<String, String> storedPreferences = new HashMap<>();
+
+        doAnswer(invocation -> storedPreferences.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(preferences).setString(anyString(), anyString());
+        doAnswer(invocation -> storedPreferences.remove(invocation.<String>getArgument(0)))
+                .when(preferences).deleteString(anyString());
+        when(preferences.getString(anyString())).thenAnswer(invocation -> storedPreferences.get(invocation.<String>getArgument(0)));
+
+        return storedPreferences;
+    }
+
+    private static List<String> indexIds(String index) {
+        List<String> ids = new ArrayList<>();
+        JSONArray indexEntries = new JSONArray(index);
+
+        for (int i = 0; i < indexEntries.length(); i++) {
+            ids.add(indexEntries.getJSONObject(i).getString("id"));
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.persistence;
+
+import burp.api.montoya.logging.Logging;
+import burp.api.montoya.persistence.Preferences;
+import com.blackberry.jwteditor.model.keys.Key;
+import com.blackberry.jwteditor.model.keys.KeysModel;
+import com.blackberry.jwteditor.model.keys.LazyJWKKey;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.blackberry.jwteditor.KeyLoader.loadRSAKey;
+import static data.PemData.RSA1024Private;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures loading a 1,000 key keystore, which only reads key metadata, against parsing every JWK in it. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class KeystoreLoadBenchmarkTest {
+    private static final int KEY_COUNT = 1000;
+    private static final int RUNS = 5;
+
+    @Test
+    void givenThousandKeyStore_whenLoaded_thenLoadTimeReported() throws Exception {
+        Preferences preferences = preferencesInMemory();
+        Logging logging = mock(Logging.class);
+        ScheduledExecutorService executorService = newSingleThreadScheduledExecutor();
+        BurpKeysModelPersistence persistence = new BurpKeysModelPersistence(preferences, logging, executorService, 0, command -> {});
+
+        KeysModel savedModel = persistence.loadOrCreateNew();
+        savedModel.addKeys(keys());
+        persistence.save(savedModel);
+        persistence.flush();
+
+        long bestLoadNanos = Long.MAX_VALUE;
+        long bestMaterializeNanos = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            KeysModel model = new BurpKeysModelPersistence(preferences, logging, executorService, 0, command -> {}).loadOrCreateNew();
+            long loaded = System.nanoTime();
+
+            assertThat(model.keys()).hasSize(KEY_COUNT);
+            assertThat(model.keys()).noneMatch(key -> ((LazyJWKKey) key).isMaterialized());
+
+            model.keys().forEach(key -> ((LazyJWKKey) key).materialize());
+            long materialized = System.nanoTime();
+
+            bestLoadNanos = Math.min(bestLoadNanos, loaded - start);
+            bestMaterializeNanos = Math.min(bestMaterializeNanos, materialized - loaded);
+        }
+
+        executorService.shutdownNow();
+
+        System.out.printf(
+                "Keystore of %,d keys: load %,d ms, parsing every JWK a further %,d ms%n", //NON-NLS
+                KEY_COUNT,
+                NANOSECONDS.toMillis(bestLoadNanos),
+                NANOSECONDS.toMillis(bestMaterializeNanos)
+        );
+    }
+
+    private static List<Key> keys() throws Exception {
+        JSONObject rsaKeyJson = loadRSAKey(RSA1024Private, "rsa").toJSONObject();
+        List<Key> keys = new ArrayList<>(KEY_COUNT);
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys.add(Key.fromJSONObject(new JSONObject(rsaKeyJson.toString()).put("kid", "rsa" + i)));
+        }
+
+        return keys;
+    }
+
+    private static Preferences preferencesInMemory() {
+        Preferences preferences = mock(Preferences.class);
+        Map<String, String> storedPreferences = new HashMap<>();
+
+        doAnswer(invocation -> storedPreferences.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(preferences).setString(anyString(), anyString());
+        doAnswer(invocation -> storedPreferences.remove(invocation.<String>getArgument(0)))
+                .when(preferences).deleteString(anyString());
+        when(preferences.getString(anyString())).thenAnswer(invocation -> storedPreferences.get(invocation.<String>getArgument(0)));
+
+        return preferences;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.nimbusds.jose.util.Base64URL;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the heap retained per token for 100k tokens from one issuer, seen at one host, with the layout used before
+ * tokens were stored compactly and with the current layout. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TokenFootprintBenchmarkTest {
+    private static final int TOKEN_COUNT = 100_000;
+    private static final String HEADER = Base64URL.encode("{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"signing-key-2024\"}").toString();
+    private static final String SIGNATURE = Base64URL.encode(new byte[32]).toString();
+
+    @Test
+    void givenHundredThousandTokens_whenStored_thenCompactLayoutRetainsLessHeap() {
+        long legacyBytes = retainedBytes(id -> new LegacyToken(id, new String("api.example.com"), "/v1/resource", jws(id)));
+        long compactBytes = retainedBytes(id -> new Token(id, new String("api.example.com"), "/v1/resource", jws(id)));
+
+        System.out.printf(
+                "Heap per token for %,d tokens: before %,d bytes, after %,d bytes%n", //NON-NLS
+                TOKEN_COUNT,
+                legacyBytes / TOKEN_COUNT,
+                compactBytes / TOKEN_COUNT
+        );
+
+        assertThat(compactBytes).isLessThan(legacyBytes);
+    }
+
+    private static long retainedBytes(IntFunction<Object> tokenFactory) {
+        List<Object> tokens = new ArrayList<>(TOKEN_COUNT);
+        long before = usedHeap();
+
+        for (int id = 0; id < TOKEN_COUNT; id++) {
+            tokens.add(tokenFactory.apply(id));
+        }
+
+        long after = usedHeap();
+        assertThat(tokens).hasSize(TOKEN_COUNT);
+
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Each token is parsed from its own string, as when read from traffic or the project file
+    private static JWS jws(int id) {
+        String claims = "{\"iss\":\"https://issuer.example.com\",\"sub\":\"user-%d\",\"aud\":\"api\",\"iat\":1700000000,\"exp\":1900000000,\"scope\":\"read write\"}".formatted(id);
+
+        try {
+            return JWSFactory.parse(HEADER + "." + Base64URL.encode(claims) + "." + SIGNATURE);
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Fields of a token as stored before the compact layout, which kept the parsed JWS and its serialization
+     */
+    private static class LegacyToken {
+        private final int id;
+        private final String host;
+        private final String path;
+        private final JWS jws;
+        private final String serialized;
+        private final String algorithm;
+        private final String keyId;
+        private final String issuer;
+        private final String subject;
+        private final Long expiry;
+        private final int claimsLength;
+        private final int claimCount;
+        private final TokenOccurrences occurrences;
+
+        private LegacyToken(int id, String host, String path, JWS jws) {
+            this.id = id;
+            this.host = host;
+            this.path = path;
+            this.jws = jws;
+            this.serialized = jws.serialize();
+            this.occurrences = new TokenOccurrences(host, path, currentTimeMillis());
+
+            JSONObject header = new JSONObject(jws.header().decoded());
+            this.algorithm = header.optString("alg");
+            this.keyId = header.optString("kid");
+
+            String decodedClaims = jws.claims().decoded();
+            JSONObject claims = new JSONObject(decodedClaims);
+            this.issuer = claims.optString("iss");
+            this.subject = claims.optString("sub");
+            this.expiry = claims.optLong("exp");
+            this.claimsLength = decodedClaims.getBytes(UTF_8).length;
+            this.claimCount = claims.length();
+        }
+    }
+}
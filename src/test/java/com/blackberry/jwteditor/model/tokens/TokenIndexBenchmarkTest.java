@@ -0,0 +1,88 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures building the token index for 100k tokens and filtering them with a multi-term query. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TokenIndexBenchmarkTest {
+    private static final int TOKEN_COUNT = 100_000;
+    private static final int RUNS = 5;
+    private static final long NOW = 2_000_000_000L;
+
+    @Test
+    void givenHundredThousandTokens_whenSearched_thenTimeReported() {
+        List<Token> tokens = IntStream.rangeClosed(1, TOKEN_COUNT).mapToObj(TokenIndexBenchmarkTest::token).toList();
+        long bestIndexNanos = Long.MAX_VALUE;
+        long bestFilterNanos = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            TokenIndex index = new TokenIndex();
+            tokens.forEach(index::add);
+
+            // The first query indexes the added tokens
+            long start = System.nanoTime();
+            index.search("host:", NOW);
+            long indexed = System.nanoTime();
+
+            Predicate<Token> filter = index.search("host:host4 exp:valid sub=user", NOW);
+            long matches = tokens.stream().filter(filter).count();
+            long filtered = System.nanoTime();
+
+            assertThat(matches).isEqualTo(5_500);
+            bestIndexNanos = Math.min(bestIndexNanos, indexed - start);
+            bestFilterNanos = Math.min(bestFilterNanos, filtered - indexed);
+        }
+
+        System.out.printf(
+                "%,d tokens: index %,d ms, search and filter %,d ms%n", //NON-NLS
+                TOKEN_COUNT,
+                NANOSECONDS.toMillis(bestIndexNanos),
+                NANOSECONDS.toMillis(bestFilterNanos)
+        );
+    }
+
+    private static Token token(int id) {
+        String host = "host" + (id % 100) + ".example.com";
+        String claims = "{\"sub\":\"user%d\",\"exp\":%d}".formatted(id, NOW + id - 50_000);
+
+        try {
+            JWS jws = JWSFactory.parse(Base64URL.encode("{\"alg\":\"HS256\"}") + "." + Base64URL.encode(claims) + ".");
+            return new Token(id, host, "/path", jws, new TokenOccurrences(host, "/path", 1000));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenIndexTest {
+    private static final long NOW = 2_000_000_000L;
+
+    private static final Token ADMIN = token(1, "api.example.com", "/admin", "{\"alg\":\"RS256\",\"kid\":\"key-one\"}",
+            "{\"iss\":\"https://issuer.example.com\",\"sub\":\"Admin\",\"roles\":[\"read\",\"write\"],\"exp\":2100000000}");
+    private static final Token USER = token(2, "www.example.org", "/login", "{\"alg\":\"HS256\",\"kid\":\"key-two\"}",
+            "{\"iss\":\"other\",\"sub\":\"user\",\"scope\":{\"nested\":\"value\"},\"exp\":1900000000}");
+    private static final Token ANONYMOUS = token(3, "api.example.com", "/public", "{\"alg\":\"none\"}",
+            "{\"sub\":\"anonymous\"}");
+
+    @ParameterizedTest
+    @CsvSource({
+            "host:api, 1;3",
+            "path:/log, 2",
+            "alg:hs, 2",
+            "kid:key-, 1;2",
+            "iss:https, 1",
+            "claim:scope, 2",
+            "claim:ro, 1",
+            "sub=ADM, 1",
+            "roles=write, 1",
+            "admin, 1",
+            "api, 1;3",
+            "api.example.com /admin, 1",
+            "exp:expired, 2",
+            "exp:valid, 1",
+            "exp:none, 3",
+            "exp:, 1;2;3",
+            "nested, ''",
+            "host:api alg:hs, ''"
+    })
+    void givenIndexedTokens_whenSearched_thenMatchingTokensFound(String query, String expectedIds) {
+        TokenIndex index = index(ADMIN, USER, ANONYMOUS);
+
+        assertThat(matchingIds(index, query, ADMIN, USER, ANONYMOUS)).isEqualTo(expectedIds);
+    }
+
+    @Test
+    void givenBlankQuery_whenSearched_thenAllTokensMatch() {
+        TokenIndex index = index(ADMIN, USER, ANONYMOUS);
+
+        assertThat(matchingIds(index, "  ", ADMIN, USER, ANONYMOUS)).isEqualTo("1;2;3");
+    }
+
+    @Test
+    void givenIndexedToken_whenRemoved_thenNoLongerMatches() {
+        TokenIndex index = index(ADMIN, USER, ANONYMOUS);
+
+        index.remove(ADMIN);
+
+        assertThat(matchingIds(index, "host:api", ADMIN, USER, ANONYMOUS)).isEqualTo("3");
+        assertThat(matchingIds(index, "exp:valid", ADMIN, USER, ANONYMOUS)).isEmpty();
+    }
+
+    @Test
+    void givenIndexedTokens_whenCleared_thenNothingMatches() {
+        TokenIndex index = index(ADMIN, USER, ANONYMOUS);
+
+        index.clear();
+
+        assertThat(matchingIds(index, "example", ADMIN, USER, ANONYMOUS)).isEmpty();
+    }
+
+    @Test
+    void givenTokenSeenAtNewEndpoint_whenUpdated_thenMatchesNewHost() {
+        Token token = token(1, "first.example.com", "/", "{\"alg\":\"none\"}", "{}");
+        TokenIndex index = index(token);
+
+        token.occurrences().merge(new TokenOccurrences("second.example.com", "/other", 1000));
+        index.update(token);
+
+        assertThat(matchingIds(index, "host:second path:/other", token)).isEqualTo("1");
+        assertThat(matchingIds(index, "host:first", token)).isEqualTo("1");
+    }
+
+    @Test
+    void givenMostTokensRemoved_whenSearched_thenOrdinalsRenumberedAndRemainingTokensMatch() {
+        TokenIndex index = new TokenIndex();
+        List<Token> tokens = IntStream.rangeClosed(1, 100)
+                .mapToObj(id -> token(id, "host" + id, "/", "{\"alg\":\"HS256\"}", "{\"exp\":%d}".formatted(NOW + (id % 2 == 0 ? 1 : -1))))
+                .toList();
+        tokens.forEach(index::add);
+        assertThat(index.ordinalCount()).isEqualTo(100);
+
+        tokens.stream().filter(token -> token.id() % 10 != 0).forEach(index::remove);
+        Token added = token(101, "host101", "/", "{\"alg\":\"HS256\"}", "{}");
+        index.add(added);
+
+        assertThat(index.ordinalCount()).isEqualTo(12);
+        assertThat(tokens.stream().filter(index.search("exp:valid", NOW))).extracting(Token::id).containsExactly(10, 20, 30, 40, 50, 60, 70, 80, 90, 100);
+        assertThat(matchingIds(index, "host:host10", tokens.get(9), tokens.get(99), added)).isEqualTo("10;100;101");
+        assertThat(matchingIds(index, "exp:none", tokens.get(9), added)).isEqualTo("101");
+    }
+
+    @Test
+    void givenTokenAddedAndRemovedBeforeQuery_whenSearched_thenNeverIndexed() {
+        TokenIndex index = index(ADMIN, USER);
+
+        index.remove(ADMIN);
+
+        assertThat(matchingIds(index, "host:", ADMIN, USER)).isEqualTo("2");
+        assertThat(index.ordinalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenModel_whenTokensDeleted_thenFilterExcludesThem() {
+        TokensModel model = new TokensModel(List.of(ADMIN, USER, ANONYMOUS));
+
+        model.delete(ANONYMOUS);
+
+        Predicate<Token> filter = model.filter("host:api");
+        assertThat(filter.test(ADMIN)).isTrue();
+        assertThat(filter.test(ANONYMOUS)).isFalse();
+    }
+
+    private static TokenIndex index(Token... tokens) {
+        TokenIndex index = new TokenIndex();
+
+        for (Token token : tokens) {
+            index.add(token);
+        }
+
+        return index;
+    }
+
+    private static String matchingIds(TokenIndex index, String query, Token... tokens) {
+        Predicate<Token> filter = index.search(query, NOW);
+
+        return String.join(";", List.of(tokens).stream().filter(filter).map(token -> String.valueOf(token.id())).toList());
+    }
+
+    private static Token token(int id, String host, String path, String header, String claims) {
+        try {
+            JWS jws = JWSFactory.parse(Base64URL.encode(header) + "." + Base64URL.encode(claims) + ".");
+            return new Token(id, host, path, jws, new TokenOccurrences(host, path, 1000));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
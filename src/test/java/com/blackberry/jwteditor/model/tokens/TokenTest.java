@@ -0,0 +1,89 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenTest {
+    private static final String JWS = "eyJhbGciOiJIUzI1NiIsImtpZCI6ImtleS0xIn0.eyJpc3MiOiJpc3N1ZXIiLCJzdWIiOiJzdWJqZWN0IiwiZXhwIjoxNzAwMDAwMDAwLCJuYW1lIjoiSm9obiBEb2UifQ.c2ln";
+    private static final String TEXT_CLAIMS_JWS = "eyJhbGciOiJub25lIn0.cGxhaW4gdGV4dA.";
+
+    @Test
+    void givenJWSWithJSONClaims_whenTokenCreated_thenDerivedValuesPopulated() throws ParseException {
+        Token token = new Token(1, "host", "/path", JWSFactory.parse(JWS));
+
+        assertThat(token.algorithm()).isEqualTo("HS256");
+        assertThat(token.keyId()).isEqualTo("key-1");
+        assertThat(token.issuer()).isEqualTo("issuer");
+        assertThat(token.subject()).isEqualTo("subject");
+        assertThat(token.expiry()).isEqualTo(1700000000L);
+        assertThat(token.claimCount()).isEqualTo(4);
+        assertThat(token.claimsLength()).isEqualTo(67);
+        assertThat(token.jws()).isEqualTo(JWS);
+    }
+
+    @Test
+    void givenJWSWithTextClaims_whenTokenCreated_thenClaimValuesEmpty() throws ParseException {
+        Token token = new Token(1, "host", "/path", JWSFactory.parse(TEXT_CLAIMS_JWS));
+
+        assertThat(token.algorithm()).isEqualTo("none");
+        assertThat(token.keyId()).isEmpty();
+        assertThat(token.issuer()).isEmpty();
+        assertThat(token.subject()).isEmpty();
+        assertThat(token.expiry()).isNull();
+        assertThat(token.claimCount()).isZero();
+        assertThat(token.claims()).isEqualTo("plain text");
+    }
+
+    @Test
+    void givenToken_whenClaimsRequestedTwice_thenPrettyPrintedOnce() throws ParseException {
+        Token token = new Token(1, "host", "/path", JWSFactory.parse(JWS));
+
+        String claims = token.claims();
+
+        assertThat(claims).contains("\n");
+        assertThat(token.claims()).isSameAs(claims);
+    }
+
+    @Test
+    void givenTokensFromSameIssuer_whenCreated_thenHeaderAndHostShared() throws ParseException {
+        Token first = new Token(1, new String("host"), "/path", JWSFactory.parse(JWS));
+        Token second = new Token(2, new String("host"), "/path", JWSFactory.parse(JWS.replace("c2ln", "c2lnMg")));
+
+        assertThat(second.compactJws().header()).isSameAs(first.compactJws().header());
+        assertThat(second.host()).isSameAs(first.host());
+        assertThat(second.algorithm()).isSameAs(first.algorithm());
+        assertThat(second.compactJws()).isNotEqualTo(first.compactJws());
+    }
+
+    @Test
+    void givenCompactJws_whenBuiltFromSameSerialization_thenEqualAndRoundTrips() {
+        CompactJws compactJws = CompactJws.of(JWS);
+
+        assertThat(CompactJws.of(JWS)).isEqualTo(compactJws).hasSameHashCodeAs(compactJws);
+        assertThat(compactJws.serialize()).isEqualTo(JWS);
+        assertThat(compactJws.toJWS().serialize()).isEqualTo(JWS);
+        assertThat(compactJws.decodedPayload()).isEqualTo("{\"iss\":\"issuer\",\"sub\":\"subject\",\"exp\":1700000000,\"name\":\"John Doe\"}");
+    }
+}
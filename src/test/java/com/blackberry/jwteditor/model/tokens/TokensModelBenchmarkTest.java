@@ -0,0 +1,86 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures adding 100k tokens to the tokens model one at a time, then reading each of them from a snapshot. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TokensModelBenchmarkTest {
+    private static final int TOKEN_COUNT = 100_000;
+    private static final int RUNS = 5;
+
+    @Test
+    void givenHundredThousandTokens_whenAddedAndRead_thenTimeReported() {
+        List<Token> tokens = IntStream.rangeClosed(1, TOKEN_COUNT).mapToObj(TokensModelBenchmarkTest::token).toList();
+        long bestAddNanos = Long.MAX_VALUE;
+        long bestReadNanos = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            TokensModel model = new TokensModel();
+
+            long start = System.nanoTime();
+            tokens.forEach(model::add);
+            long added = System.nanoTime();
+
+            TokensSnapshot snapshot = model.tokens();
+            long idSum = 0;
+
+            for (int i = 0; i < snapshot.size(); i++) {
+                idSum += snapshot.get(i).id();
+            }
+
+            long read = System.nanoTime();
+
+            assertThat(idSum).isEqualTo((long) TOKEN_COUNT * (TOKEN_COUNT + 1) / 2);
+            bestAddNanos = Math.min(bestAddNanos, added - start);
+            bestReadNanos = Math.min(bestReadNanos, read - added);
+        }
+
+        System.out.printf(
+                "%,d tokens: add %,d ms, read from snapshot %,d ms%n", //NON-NLS
+                TOKEN_COUNT,
+                NANOSECONDS.toMillis(bestAddNanos),
+                NANOSECONDS.toMillis(bestReadNanos)
+        );
+    }
+
+    private static Token token(int id) {
+        try {
+            JWS jws = JWSFactory.parse("eyJhbGciOiJub25lIn0." + Base64URL.encode("{\"n\":%d}".formatted(id)) + ".");
+            return new Token(id, "host", "/path", jws, new TokenOccurrences("host", "/path", 1000));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
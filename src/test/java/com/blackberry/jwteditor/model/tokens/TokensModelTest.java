@@ -0,0 +1,240 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package com.blackberry.jwteditor.model.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWS;
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.blackberry.jwteditor.model.tokens.TokenOccurrences.Endpoint;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokensModelTest {
+    @Test
+    void givenSnapshot_whenTokensAdded_thenSnapshotUnchanged() {
+        TokensModel model = new TokensModel(tokens(1, 3));
+        TokensSnapshot snapshot = model.tokens();
+
+        model.add(token(4));
+
+        assertThat(snapshot).hasSize(3);
+        assertThat(model.tokens()).hasSize(4);
+        assertThat(snapshot.isPrefixOf(model.tokens())).isTrue();
+    }
+
+    @Test
+    void givenTokensSpanningChunks_whenSnapshotRead_thenTokensInInsertionOrder() {
+        TokensModel model = new TokensModel();
+
+        model.addAll(tokens(1, 2500));
+
+        assertThat(model.tokens()).extracting(Token::id).containsExactlyElementsOf(IntStream.rangeClosed(1, 2500).boxed().toList());
+    }
+
+    @Test
+    void givenTokens_whenTokenDeleted_thenTokenRemovedAndListenerNotifiedWithIndex() {
+        TokensModel model = new TokensModel(tokens(1, 3));
+        Token second = model.tokens().get(1);
+        TokensSnapshot snapshot = model.tokens();
+        AtomicInteger deletedIndex = new AtomicInteger(-1);
+        model.addTokensModelListener(new RecordingListener() {
+            @Override
+            public void notifyTokenDeleted(int index, Token token) {
+                deletedIndex.set(index);
+            }
+        });
+
+        model.delete(second);
+
+        assertThat(model.tokens()).extracting(Token::id).containsExactly(1, 3);
+        assertThat(deletedIndex).hasValue(1);
+        assertThat(snapshot).hasSize(3);
+        assertThat(snapshot.isPrefixOf(model.tokens())).isFalse();
+    }
+
+    @Test
+    void givenTokens_whenCleared_thenModelEmptyAndListenerNotified() {
+        TokensModel model = new TokensModel(tokens(1, 3));
+        AtomicInteger clears = new AtomicInteger();
+        model.addTokensModelListener(new RecordingListener() {
+            @Override
+            public void notifyTokensCleared() {
+                clears.incrementAndGet();
+            }
+        });
+
+        model.clear();
+
+        assertThat(model.tokens()).isEmpty();
+        assertThat(clears).hasValue(1);
+    }
+
+    @Test
+    void givenBatchOfTokens_whenAdded_thenListenerNotifiedOnce() {
+        TokensModel model = new TokensModel();
+        List<List<Token>> batches = new ArrayList<>();
+        model.addTokensModelListener(new RecordingListener() {
+            @Override
+            public void notifyTokensInserted(List<Token> tokens) {
+                batches.add(tokens);
+            }
+        });
+
+        model.addAll(tokens(1, 10));
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(10);
+    }
+
+    @Test
+    void givenConcurrentWriter_whenSnapshotsRead_thenEverySnapshotIsComplete() throws InterruptedException {
+        TokensModel model = new TokensModel();
+        Thread writer = new Thread(() -> tokens(1, 20_000).forEach(model::add));
+        writer.start();
+
+        while (writer.isAlive()) {
+            TokensSnapshot snapshot = model.tokens();
+
+            for (int i = 0; i < snapshot.size(); i++) {
+                assertThat(snapshot.get(i).id()).isEqualTo(i + 1);
+            }
+        }
+
+        writer.join();
+        assertThat(model.size()).isEqualTo(20_000);
+    }
+
+    @Test
+    void givenTokenInModel_whenSameJwsAdded_thenOccurrencesMergedAndListenerNotified() {
+        TokensModel model = new TokensModel(List.of(token(1, 1, "/first", 1000)));
+        Token repeat = token(2, 1, "/second", 3000);
+        List<Token> repeats = new ArrayList<>();
+        model.addTokensModelListener(new RecordingListener() {
+            @Override
+            public void notifyTokenRepeated(Token token, Token repeated) {
+                repeats.add(token);
+                repeats.add(repeated);
+            }
+        });
+
+        model.add(repeat);
+
+        Token token = model.find(repeat.jws());
+        assertThat(model.tokens()).extracting(Token::id).containsExactly(1);
+        assertThat(repeats).containsExactly(token, repeat);
+        assertThat(token.id()).isEqualTo(1);
+        assertThat(token.occurrences().count()).isEqualTo(2);
+        assertThat(token.occurrences().firstSeen()).isEqualTo(1000);
+        assertThat(token.occurrences().lastSeen()).isEqualTo(3000);
+        assertThat(token.occurrences().endpoints()).containsExactly(new Endpoint("host", "/first"), new Endpoint("host", "/second"));
+    }
+
+    @Test
+    void givenBatchWithRepeatedTokens_whenAdded_thenOnlyNewTokensInserted() {
+        TokensModel model = new TokensModel();
+        List<Token> inserted = new ArrayList<>();
+        AtomicInteger repeats = new AtomicInteger();
+        model.addTokensModelListener(new RecordingListener() {
+            @Override
+            public void notifyTokensInserted(List<Token> tokens) {
+                inserted.addAll(tokens);
+            }
+
+            @Override
+            public void notifyTokenRepeated(Token token, Token repeat) {
+                repeats.incrementAndGet();
+            }
+        });
+
+        model.addAll(List.of(token(1, 1, "/", 1000), token(2, 2, "/", 1000), token(3, 1, "/", 2000), token(4, 1, "/", 3000)));
+
+        assertThat(inserted).extracting(Token::id).containsExactly(1, 2);
+        assertThat(repeats).hasValue(2);
+        assertThat(model.tokens()).extracting(Token::id).containsExactly(1, 2);
+        assertThat(model.tokens().get(0).occurrences().count()).isEqualTo(3);
+    }
+
+    @Test
+    void givenDeletedToken_whenSameJwsAdded_thenTokenInsertedAgain() {
+        TokensModel model = new TokensModel(tokens(1, 2));
+        Token first = model.tokens().get(0);
+
+        model.delete(first);
+        model.add(token(3, 1, "/", 1000));
+
+        assertThat(model.tokens()).extracting(Token::id).containsExactly(2, 3);
+        assertThat(model.find(first.jws()).id()).isEqualTo(3);
+    }
+
+    @Test
+    void givenClearedModel_whenFindCalled_thenNothingFound() {
+        TokensModel model = new TokensModel(tokens(1, 2));
+        String jws = model.tokens().get(0).jws();
+
+        model.clear();
+
+        assertThat(model.find(jws)).isNull();
+    }
+
+    private static List<Token> tokens(int firstId, int lastId) {
+        return IntStream.rangeClosed(firstId, lastId).mapToObj(TokensModelTest::token).toList();
+    }
+
+    private static Token token(int id) {
+        return token(id, id, "/path", 1000);
+    }
+
+    private static Token token(int id, int claim, String path, long seen) {
+        try {
+            JWS jws = JWSFactory.parse("eyJhbGciOiJub25lIn0." + Base64URL.encode("{\"n\":%d}".formatted(claim)) + ".");
+            return new Token(id, "host", path, jws, new TokenOccurrences("host", path, seen));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class RecordingListener implements TokensModelListener {
+        @Override
+        public void notifyTokenInserted(Token token) {
+        }
+
+        @Override
+        public void notifyTokensInserted(List<Token> tokens) {
+        }
+
+        @Override
+        public void notifyTokenDeleted(int index, Token token) {
+        }
+
+        @Override
+        public void notifyTokensCleared() {
+        }
+
+        @Override
+        public void notifyTokenRepeated(Token token, Token repeat) {
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+Author : Dolph Flynn
+
+Copyright 2025 Dolph Flynn
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+
+package com.blackberry.jwteditor.view.tokens;
+
+import com.blackberry.jwteditor.model.jose.JWSFactory;
+import com.blackberry.jwteditor.model.tokens.Token;
+import com.blackberry.jwteditor.model.tokens.TokensModel;
+import com.nimbusds.jose.util.Base64URL;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.awt.EventQueue.invokeAndWait;
+import static javax.swing.event.TableModelEvent.DELETE;
+import static javax.swing.event.TableModelEvent.INSERT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokensTableModelTest {
+    private final TokensModel tokensModel = new TokensModel(IntStream.rangeClosed(1, 5).mapToObj(TokensTableModelTest::token).toList());
+    private final TokensTableModel tableModel = new TokensTableModel(tokensModel::tokens, tokensModel::addTokensModelListener);
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    void givenTokensDeleted_whenRefreshed_thenRowsDeletedReportedHighestFirst() throws Exception {
+        tableModel.addTableModelListener(this::record);
+
+        tokensModel.deleteAll(List.of(tokensModel.tokens().get(1), tokensModel.tokens().get(3), tokensModel.tokens().get(4)));
+        flushEventQueue();
+
+        assertThat(events).containsExactly("delete 3-4 rows 3", "delete 1-1 rows 2");
+        assertThat(IntStream.range(0, tableModel.getRowCount()).mapToObj(tableModel::tokenAt)).extracting(Token::id).containsExactly(1, 3);
+    }
+
+    @Test
+    void givenTokensDeletedAndAdded_whenRefreshed_thenRowsDeletedThenInserted() throws Exception {
+        tableModel.addTableModelListener(this::record);
+
+        tokensModel.delete(tokensModel.tokens().get(0));
+        tokensModel.add(token(6));
+        flushEventQueue();
+
+        assertThat(events).containsExactly("delete 0-0 rows 4", "insert 4-4 rows 5");
+    }
+
+    @Test
+    void givenTokensCleared_whenRefreshed_thenAllRowsDeleted() throws Exception {
+        tableModel.addTableModelListener(this::record);
+
+        tokensModel.clear();
+        flushEventQueue();
+
+        assertThat(events).containsExactly("delete 0-4 rows 0");
+    }
+
+    private void record(TableModelEvent event) {
+        String type = switch (event.getType()) {
+            case DELETE -> "delete";
+            case INSERT -> "insert";
+            default -> "update";
+        };
+
+        events.add("%s %d-%d rows %d".formatted(type, event.getFirstRow(), event.getLastRow(), tableModel.getRowCount()));
+    }
+
+    private static void flushEventQueue() throws InterruptedException, InvocationTargetException {
+        invokeAndWait(() -> {
+        });
+    }
+
+    private static Token token(int id) {
+        try {
+            return new Token(id, "host", "/", JWSFactory.parse("eyJhbGciOiJub25lIn0." + Base64URL.encode("{\"n\":%d}".formatted(id)) + "."));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}